@@ -0,0 +1,55 @@
+package numberguesser.benchmarks;
+
+import numberguesser.HandledException;
+import numberguesser.controller.GameController;
+import numberguesser.model.GuessOutcome;
+import numberguesser.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the controller paths a player goes through: login, guess validation and handling,
+ * and building the score text.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+    @Benchmark
+    public Player login(ScoreboardState scoreboard, SessionState state, CursorState cursor) {
+        scoreboard.controller.setCurrentPlayer(state.session, cursor.nextName(scoreboard));
+        return state.session.getPlayer();
+    }
+
+    @Benchmark
+    public GuessOutcome handleGuess(ScoreboardState scoreboard, SessionState state) {
+        return scoreboard.controller.handleGuess(state.session, state.guesses[state.next()]);
+    }
+
+    @Benchmark
+    public GuessOutcome guess(ScoreboardState scoreboard, SessionState state) {
+        return scoreboard.controller.guess(state.session, state.inputs[state.next()]);
+    }
+
+    @Benchmark
+    public boolean validateGuessInput(ScoreboardState scoreboard, SessionState state) throws HandledException {
+        return scoreboard.controller.validateGuessInput(state.session, state.inputs[state.next()]);
+    }
+
+    @Benchmark
+    public String showPlayerScore(ScoreboardState scoreboard, CursorState cursor) throws IOException {
+        Player player = scoreboard.model.playerExists(new Player(cursor.nextName(scoreboard)));
+        return GameController.showPlayerScore(player, false);
+    }
+}
@@ -0,0 +1,24 @@
+package numberguesser.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Per-thread source of random player indexes, so lookups do not all hit the same entry.
+ */
+@State(Scope.Thread)
+public class CursorState {
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    /**
+     * Picks the next player name.
+     *
+     * @param scoreboard the scoreboard to pick from
+     * @return a random existing player name
+     */
+    public String nextName(ScoreboardState scoreboard) {
+        return scoreboard.names[random.nextInt(scoreboard.names.length)];
+    }
+}
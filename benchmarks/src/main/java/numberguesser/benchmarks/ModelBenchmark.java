@@ -0,0 +1,71 @@
+package numberguesser.benchmarks;
+
+import numberguesser.HandledException;
+import numberguesser.model.GameModel;
+import numberguesser.model.GameSession;
+import numberguesser.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the model's game, lookup and persistence hot paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    @Benchmark
+    public boolean handleGuess(SessionState state) {
+        return state.session.handleGuess(state.guesses[state.next()]);
+    }
+
+    @Benchmark
+    public long newGame(SessionState state) throws HandledException {
+        state.session.resetGame();
+        state.session.setDifficulty(3);
+        return state.session.getResult();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long newUnseededGame(ScoreboardState scoreboard) throws HandledException {
+        GameSession session = scoreboard.model.newSession();
+        session.setDifficulty(3);
+        return session.getResult();
+    }
+
+    @Benchmark
+    public Player playerExists(ScoreboardState scoreboard, CursorState cursor) {
+        return scoreboard.model.playerExists(new Player(cursor.nextName(scoreboard)));
+    }
+
+    @Benchmark
+    public void updateList(ScoreboardState scoreboard, CursorState cursor) {
+        Player player = scoreboard.model.playerExists(new Player(cursor.nextName(scoreboard)));
+        scoreboard.model.updateList(player, 2, 50);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void save(ScoreboardState scoreboard) throws IOException {
+        GameModel.save(GameModel.getPlayerList());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void load(ScoreboardState scoreboard) throws IOException, HandledException {
+        GameModel.load();
+    }
+}
@@ -0,0 +1,71 @@
+package numberguesser.benchmarks;
+
+import numberguesser.controller.GameController;
+import numberguesser.model.GameModel;
+import numberguesser.model.Player;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A scoreboard of {@link #playerCount} players, persisted in a temporary directory and loaded into a
+ * fresh {@link GameModel}.
+ *
+ * <p>The scoreboard lives in static state, so every parameter combination must run in its own fork;
+ * this is JMH's default.</p>
+ */
+@State(Scope.Benchmark)
+public class ScoreboardState {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int playerCount;
+
+    /** The number of scoreboard segments; run {@code load} with {@code -p shards=1,2,4,8} to see it scale. */
+    @Param({"1"})
+    public int shards;
+
+    public Path directory;
+    public String[] names;
+    public GameModel model;
+    public GameController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("number-guesser-bench");
+        // Must be set before GameModel is first touched, since the store is opened in its static initializer
+        System.setProperty("numberguesser.scoreboard.dir", directory.toString());
+        System.setProperty("numberguesser.scoreboard.shards", String.valueOf(shards));
+
+        names = new String[playerCount];
+        List<Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            names[i] = String.format("player-%07d", i);
+            Player player = new Player(names[i]);
+            player.recordGame(1 + i % 3, 25 * (i % 5));
+            players.add(player);
+        }
+        GameModel.save(players);
+
+        model = new GameModel();
+        controller = new GameController(model);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
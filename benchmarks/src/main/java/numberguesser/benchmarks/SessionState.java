@@ -0,0 +1,54 @@
+package numberguesser.benchmarks;
+
+import numberguesser.HandledException;
+import numberguesser.model.GameSession;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A per-thread hard game session with a fixed sequence of guesses and their string forms. The session is
+ * seeded, so every run plays the same secret numbers.
+ */
+@State(Scope.Thread)
+public class SessionState {
+    private static final long SEED = 42;
+
+    public GameSession session;
+    public long[] guesses;
+    public String[] inputs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ScoreboardState scoreboard) throws HandledException {
+        session = scoreboard.controller.newSession(SEED);
+        scoreboard.controller.setCurrentPlayer(session, scoreboard.names[0]);
+        session.setDifficulty(3);
+
+        guesses = new long[128];
+        inputs = new String[guesses.length];
+        for (int i = 0; i < guesses.length; i++) {
+            guesses[i] = session.getMin() + i % (session.getMax() - session.getMin() + 1);
+            inputs[i] = Long.toString(guesses[i]);
+        }
+    }
+
+    /**
+     * Advances to the next guess, keeping the session playable.
+     *
+     * @return the index of the guess to use
+     */
+    public int next() {
+        if (session.getTriesLeft() <= 0) {
+            session.resetGame();
+            try {
+                session.setDifficulty(3);
+            } catch (HandledException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        next = (next + 1) & (guesses.length - 1);
+        return next;
+    }
+}
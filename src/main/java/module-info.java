@@ -5,9 +5,12 @@ module number.guesser {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.desktop;
+    requires java.management;
+    requires jdk.jfr;
 
     exports numberguesser.view;
     exports numberguesser.controller;
+    exports numberguesser.metrics;
     exports numberguesser to javafx.graphics;
     exports numberguesser.model to javafx.graphics;
 }
\ No newline at end of file
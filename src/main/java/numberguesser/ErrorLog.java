@@ -0,0 +1,337 @@
+package numberguesser;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * The `ErrorLog` class is the process-wide error log, written to {@code error.txt} by a background thread.
+ *
+ * <p>Logging an error only places a record in a fixed-size ring buffer, so no game thread ever waits for the
+ * disk; if the buffer is full the record is counted and dropped, and the count is logged once there is room.
+ * Each record is one line carrying the time, the error code (the {@link HandledException} code, or
+ * {@code IO_ERROR} / {@code RUNTIME_ERROR} for other exceptions), the thread and the message.</p>
+ *
+ * <p>The log is rotated when it grows past {@code numberguesser.log.maxBytes} (1 MiB by default) or gets
+ * older than {@code numberguesser.log.maxAgeMinutes} (a day by default): {@code error.txt} becomes
+ * {@code error.txt.1}, and so on, and only {@code numberguesser.log.maxFiles} rotated files (5 by default)
+ * are kept, which caps the disk used. The files are kept in {@code numberguesser.log.dir}, the working
+ * directory by default.</p>
+ *
+ * <p>Closing the log, which a shutdown hook does, writes every record logged so far and gives
+ * {@code System.err} back if it was captured. A record logged after the writer thread has stopped is written
+ * by the thread that logs it, so no record is lost at shutdown.</p>
+ */
+public final class ErrorLog {
+    private static final String FILE_NAME = "error.txt";
+    static final int CAPACITY = 1 << 12;
+
+    private final AtomicReferenceArray<Entry> ring = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Path path;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final int maxFiles;
+    private final PrintStream fallback;
+    private final Thread thread;
+    private volatile long head;
+    private volatile boolean closed;
+    private volatile PrintStream captured;
+    private boolean stopped;
+    private Writer out;
+    private long size;
+    private long openedAt;
+
+    private record Entry(long timeMillis, String code, String thread, String message) {
+    }
+
+    private static final class Holder {
+        static final ErrorLog INSTANCE = start();
+    }
+
+    /**
+     * Constructs a log whose writer thread is not started yet.
+     *
+     * @param path the file to write
+     * @param maxBytes the size past which the file is rotated
+     * @param maxAgeMillis the age past which the file is rotated
+     * @param maxFiles the number of rotated files kept
+     * @param fallback the stream written to when the file cannot be
+     */
+    ErrorLog(Path path, long maxBytes, long maxAgeMillis, int maxFiles, PrintStream fallback) {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxFiles = maxFiles;
+        this.fallback = fallback;
+        this.thread = Thread.ofPlatform().name("error-log").daemon().unstarted(this::run);
+    }
+
+    private static ErrorLog start() {
+        ErrorLog log = new ErrorLog(
+                Path.of(System.getProperty("numberguesser.log.dir", "")).resolve(FILE_NAME),
+                Long.getLong("numberguesser.log.maxBytes", 1 << 20),
+                TimeUnit.MINUTES.toMillis(Long.getLong("numberguesser.log.maxAgeMinutes", TimeUnit.DAYS.toMinutes(1))),
+                Integer.getInteger("numberguesser.log.maxFiles", 5),
+                System.err);
+        log.startWriter();
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "error-log-shutdown"));
+        return log;
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    void startWriter() {
+        thread.start();
+    }
+
+    /**
+     * Logs an error with the given code. Never blocks.
+     *
+     * @param code the error code
+     * @param message the error message
+     */
+    public static void log(String code, String message) {
+        Holder.INSTANCE.offer(new Entry(System.currentTimeMillis(), code, Thread.currentThread().getName(), message));
+    }
+
+    /**
+     * Logs a failed operation. Never blocks.
+     *
+     * @param e the exception the operation failed with
+     */
+    public static void log(Throwable e) {
+        String code;
+        if (e instanceof HandledException handled) {
+            code = handled.getCode();
+        } else if (e instanceof IOException) {
+            code = "IO_ERROR";
+        } else {
+            code = "RUNTIME_ERROR";
+        }
+        log(code, "OPERATION FAILED: " + e.getMessage());
+    }
+
+    /**
+     * Routes everything printed to {@code System.err} into the log, one record per line with the code
+     * {@code STDERR}. Calling this more than once has no further effect.
+     */
+    public static synchronized void captureStandardError() {
+        ErrorLog log = Holder.INSTANCE;
+        if (System.err != log.fallback) {
+            return;
+        }
+        log.captured = new PrintStream(new LineForwarder(), true, StandardCharsets.UTF_8);
+        System.setErr(log.captured);
+    }
+
+    /**
+     * Logs a record with the given time. Never blocks while the writer thread runs.
+     *
+     * @param timeMillis the time of the record
+     * @param code the error code
+     * @param message the error message
+     */
+    void log(long timeMillis, String code, String message) {
+        offer(new Entry(timeMillis, code, Thread.currentThread().getName(), message));
+    }
+
+    private void offer(Entry entry) {
+        long t;
+        do {
+            t = tail.get();
+            if (t - head >= CAPACITY) {
+                dropped.increment();
+                drainIfStopped();
+                return;
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+        ring.setRelease((int) (t & (CAPACITY - 1)), entry);
+        LockSupport.unpark(thread);
+        // Checked after the slot is taken: the writer's last drain either saw this slot, or ran before it
+        // was taken and so after closed was set, in which case this thread sees closed here
+        drainIfStopped();
+    }
+
+    /**
+     * Writes what the writer thread left behind once it has stopped, on the logging thread.
+     */
+    private void drainIfStopped() {
+        if (closed) {
+            synchronized (this) {
+                if (stopped) {
+                    drain();
+                    closeFile();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            drain();
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        synchronized (this) {
+            drain();
+            closeFile();
+            stopped = true;
+        }
+    }
+
+    /**
+     * Writes every published record, then flushes once.
+     */
+    private void drain() {
+        long h = head;
+        boolean wrote = false;
+        while (h < tail.get()) {
+            int slot = (int) (h & (CAPACITY - 1));
+            Entry entry = ring.getAcquire(slot);
+            if (entry == null) {
+                // The producer has claimed the slot but not published it yet
+                Thread.onSpinWait();
+                continue;
+            }
+            ring.setRelease(slot, null);
+            head = ++h;
+            write(entry);
+            wrote = true;
+        }
+
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            write(new Entry(System.currentTimeMillis(), "LOG_OVERFLOW", thread.getName(), lost + " records dropped"));
+            wrote = true;
+        }
+        if (wrote && out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                fallback.println("Failed to write error log: " + e.getMessage());
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        String line = Instant.ofEpochMilli(entry.timeMillis()) + " code=" + entry.code() + " thread=" + entry.thread()
+                + " message=" + entry.message() + System.lineSeparator();
+        try {
+            rotateIfDue(entry.timeMillis());
+            out.write(line);
+            size += line.getBytes(StandardCharsets.UTF_8).length;
+        } catch (IOException e) {
+            fallback.print(line);
+        }
+    }
+
+    private void rotateIfDue(long now) throws IOException {
+        if (out == null) {
+            open(now);
+        }
+        if (size < maxBytes && now - openedAt < maxAgeMillis) {
+            return;
+        }
+        closeFile();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = rotated(i);
+            if (Files.exists(older)) {
+                Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        open(now);
+    }
+
+    private void open(long now) throws IOException {
+        out = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        size = Files.size(path);
+        openedAt = size == 0 ? now : Math.min(now, Files.getLastModifiedTime(path).toMillis());
+    }
+
+    private Path rotated(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                fallback.println("Failed to close error log: " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * Stops the writer thread once every record logged so far is on disk, and gives {@code System.err} back
+     * if it was captured.
+     */
+    void close() {
+        synchronized (ErrorLog.class) {
+            if (captured != null && System.err == captured) {
+                System.setErr(fallback);
+            }
+        }
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Collects the bytes printed to the captured {@code System.err} and logs each complete line.
+     */
+    private static final class LineForwarder extends OutputStream {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        @Override
+        public synchronized void write(int b) {
+            if (b == '\n') {
+                flushLine();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        private void flushLine() {
+            if (line.size() > 0) {
+                log("STDERR", line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            }
+        }
+    }
+}
@@ -1,11 +1,5 @@
 package numberguesser;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.PrintStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-
 
 /**
  * The `HandledException` class represents a custom exception with an associated error code.
@@ -15,7 +9,7 @@ import java.nio.file.Path;
  * an error code, and optionally a cause. Accessor methods are available to retrieve and modify the error code.</p>
  *
  * <p>Additionally, this class provides a utility method to redirect the standard error stream (`System.err`)
- * to a file, allowing for error logging to a specified file path.</p>
+ * to the {@link ErrorLog}, allowing for error logging to a file.</p>
  */
 public class HandledException extends Exception {
     private String code;
@@ -62,27 +56,12 @@ public class HandledException extends Exception {
     }
 
     /**
-     * Redirects the standard error stream (`System.err`) to a file named "error.txt".
+     * Redirects the standard error stream (`System.err`) to the error log, which writes it to "error.txt".
      *
-     * <p>If the file does not exist, it will be created. This method appends error messages
-     * to the file, allowing for persistent error logging.</p>
+     * <p>Writing to the redirected stream never waits for the disk; see {@link ErrorLog} for how the file is
+     * written and rotated. Calling this method more than once has no further effect.</p>
      */
     public static void redirectErrorStream() {
-        Path errorFilePath = Path.of("error.txt");
-        try {
-            // Create the file if it doesn't exist
-            if (Files.notExists(errorFilePath)) {
-                Files.createFile(errorFilePath);
-            }
-
-            // Redirect System.err to the file
-            FileOutputStream fos = new FileOutputStream(errorFilePath.toFile(), true); // Append mode
-            PrintStream ps = new PrintStream(fos);
-            System.setErr(ps);
-
-        } catch (IOException e) {
-            // Handle any IOExceptions that occur during file operations
-            System.err.println("Failed to redirect error stream: " + e.getMessage());
-        }
+        ErrorLog.captureStandardError();
     }
 }
@@ -3,6 +3,7 @@ package numberguesser;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import numberguesser.controller.GameController;
+import numberguesser.metrics.GameMetrics;
 import numberguesser.model.GameModel;
 import java.io.*;
 import javafx.scene.Scene;
@@ -13,6 +14,10 @@ import numberguesser.view.GameView;
  * The `Main` class serves as the entry point for the Number Guesser application.
  * It extends the `Application` class from JavaFX to set up and launch the graphical user interface.
  * This class initializes the game model, controller, and view, and sets the initial scene for the application.
+ *
+ * <p>The scoreboard is loaded on a background thread while the name-entry scene is already shown, so the
+ * window appears just as quickly whatever the size of the scoreboard. The time from the start of the
+ * application until the first frame is laid out is recorded in {@link GameMetrics}.</p>
  */
 public class Main extends Application {
 
@@ -33,8 +38,10 @@ public class Main extends Application {
      * @throws HandledException if a handled exception occurs during initialization
      */
     public void start(Stage primaryStage) throws IOException, HandledException {
-        // Initialize the model
-        GameModel gameModel = new GameModel();
+        long startNanos = System.nanoTime();
+
+        // Initialize the model, loading the scoreboard in the background
+        GameModel gameModel = new GameModel(true);
 
         // Initialize the controller with the model
         GameController gameController = new GameController(gameModel);
@@ -44,8 +51,33 @@ public class Main extends Application {
 
         // Prepare the initial scene and stage
         Scene initialScene = gameView.buildInitialScene();
+        recordFirstFrame(initialScene, startNanos);
         primaryStage.setScene(initialScene); // SCENE 1 -> FROM GAMEVIEW THE OTHER SCENES WILL CONTINUE
         primaryStage.setTitle("Number Guesser");
         primaryStage.show();
     }
+
+    /**
+     * Records the time to the first frame once the scene has been laid out for the first time.
+     *
+     * @param scene the first scene shown
+     * @param startNanos the value of {@link System#nanoTime()} when the application started
+     */
+    private static void recordFirstFrame(Scene scene, long startNanos) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                GameMetrics.get().getFirstFrameLatency().recordSince(startNanos);
+                scene.removePostLayoutPulseListener(this);
+            }
+        });
+    }
+
+    /**
+     * Writes every pending scoreboard update to disk when the application exits.
+     */
+    @Override
+    public void stop() {
+        GameModel.shutdown();
+    }
 }
@@ -0,0 +1,43 @@
+package numberguesser;
+
+import numberguesser.model.GameModel;
+import numberguesser.model.SessionReplayer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The `ReplayMain` class is the entry point for replaying a journal recorded with
+ * {@code -Dnumberguesser.replay.path=<file>}.
+ *
+ * <p>Usage: {@code ReplayMain <journal> [--apply]}. Every recorded game is played again and checked against
+ * the recording; with {@code --apply} the results are also recorded on the scoreboard.</p>
+ */
+public class ReplayMain {
+
+    /**
+     * Replays the journal and prints the totals and the replay speed.
+     *
+     * @param args the journal file and the optional {@code --apply} flag
+     * @throws IOException if an I/O error occurs while reading the journal
+     * @throws HandledException if a handled exception occurs during the replay
+     */
+    public static void main(String[] args) throws IOException, HandledException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayMain <journal> [--apply]");
+            return;
+        }
+        boolean apply = args.length > 1 && args[1].equals("--apply");
+
+        SessionReplayer replayer = new SessionReplayer(new GameModel());
+        long start = System.nanoTime();
+        SessionReplayer.Result result = replayer.replay(Path.of(args[0]), apply);
+        long elapsed = System.nanoTime() - start;
+        GameModel.shutdown();
+
+        System.out.printf("Replayed %,d games (%,d guesses) in %,d ms, %,.0f games per second, %,d mismatches%n",
+                result.games(), result.guesses(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                result.games() / (elapsed / 1e9), result.mismatches());
+    }
+}
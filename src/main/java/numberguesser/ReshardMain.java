@@ -0,0 +1,40 @@
+package numberguesser;
+
+import numberguesser.model.ScoreboardResharder;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The `ReshardMain` class is the entry point for changing the number of segments the scoreboard is split
+ * into, set at runtime with {@code -Dnumberguesser.scoreboard.shards=<n>}.
+ *
+ * <p>Usage: {@code ReshardMain <from shards> <to shards>}, run while the game is not running. The scoreboard
+ * is read from and written to the directory named by {@code numberguesser.scoreboard.dir}.</p>
+ */
+public class ReshardMain {
+
+    /**
+     * Reshards the scoreboard and prints the number of players moved.
+     *
+     * @param args the current and the new number of segments
+     * @throws IOException if an I/O error occurs while resharding
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ReshardMain <from shards> <to shards>");
+            return;
+        }
+        int from = Integer.parseInt(args[0]);
+        int to = Integer.parseInt(args[1]);
+        Path directory = Path.of(System.getProperty("numberguesser.scoreboard.dir", ""));
+
+        long start = System.nanoTime();
+        int players = ScoreboardResharder.reshard(directory, from, to);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Resharded %,d players from %d to %d shards in %,d ms%n",
+                players, from, to, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+}
@@ -0,0 +1,50 @@
+package numberguesser;
+
+import numberguesser.controller.GameController;
+import numberguesser.model.GameModel;
+import numberguesser.server.GameServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+
+/**
+ * The `ServerMain` class is the entry point for running Number Guesser headless, as a
+ * {@link GameServer} instead of the JavaFX window.
+ *
+ * <p>Usage: {@code ServerMain [port] [bind address]}. The server listens on port 4242 of the loopback
+ * interface unless told otherwise.</p>
+ */
+public class ServerMain {
+    private static final int DEFAULT_PORT = 4242;
+    private static final String DEFAULT_HOST = "127.0.0.1";
+
+    /**
+     * Starts the server and blocks until the process is stopped.
+     *
+     * @param args the optional port and bind address
+     * @throws IOException if an I/O error occurs during initialization
+     * @throws HandledException if a handled exception occurs during initialization
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, HandledException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String host = args.length > 1 ? args[1] : DEFAULT_HOST;
+
+        GameModel gameModel = new GameModel();
+        GameController gameController = new GameController(gameModel);
+        GameServer server = new GameServer(gameController, new InetSocketAddress(host, port));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                ErrorLog.log(e);
+            }
+            GameModel.shutdown();
+        }));
+
+        server.start();
+        System.out.println("Number Guesser server listening on " + host + ":" + server.getPort());
+        server.awaitTermination();
+    }
+}
@@ -0,0 +1,58 @@
+package numberguesser;
+
+import numberguesser.model.GameModel;
+import numberguesser.simulator.GuessStrategy;
+import numberguesser.simulator.LevelStats;
+import numberguesser.simulator.Simulator;
+import numberguesser.simulator.StandardStrategy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The `SimulatorMain` class is the entry point for simulating games with a {@link Simulator}, to tune the
+ * difficulty ranges and points.
+ *
+ * <p>Usage: {@code SimulatorMain [games per level] [strategy] [seed]}. The strategy is one of
+ * {@code random}, {@code binary-search}, {@code adversarial} or {@code all} (the default). One million games
+ * are played per level unless told otherwise, from seed 42.</p>
+ */
+public class SimulatorMain {
+    private static final long DEFAULT_GAMES = 1_000_000;
+    private static final long DEFAULT_SEED = 42;
+
+    /**
+     * Runs the simulation and prints a report per strategy and difficulty level.
+     *
+     * @param args the optional number of games per level, strategy and seed
+     * @throws IOException if an I/O error occurs during initialization
+     * @throws HandledException if a handled exception occurs during initialization
+     */
+    public static void main(String[] args) throws IOException, HandledException {
+        long games = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : DEFAULT_GAMES;
+        List<? extends GuessStrategy> strategies = args.length > 1 && !args[1].equalsIgnoreCase("all")
+                ? List.of(StandardStrategy.of(args[1]))
+                : List.of(StandardStrategy.values());
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        Simulator simulator = new Simulator(new GameModel());
+        for (GuessStrategy strategy : strategies) {
+            long start = System.nanoTime();
+            LevelStats[] results = simulator.run(strategy, games, seed);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.printf("%s: %,d games per level in %,d ms on %d cores%n",
+                    strategy, games, elapsed, Runtime.getRuntime().availableProcessors());
+            System.out.printf("  %-5s %-10s %9s %12s  %s%n", "LEVEL", "NAME", "WIN RATE", "EXP. POINTS", "WINS BY TRIES USED");
+            for (LevelStats stats : results) {
+                StringBuilder distribution = new StringBuilder();
+                for (int tries = 1; tries <= stats.getTries(); tries++) {
+                    distribution.append(String.format("%d: %.2f%%  ", tries, stats.getWinShare(tries) * 100));
+                }
+                System.out.printf("  %-5d %-10s %8.2f%% %12.2f  %s%n", stats.getLevel(), stats.getName(),
+                        stats.getWinRate() * 100, stats.getExpectedPoints(), distribution.toString().strip());
+            }
+        }
+    }
+}
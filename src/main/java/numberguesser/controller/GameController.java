@@ -1,21 +1,38 @@
 package numberguesser.controller;
 
 import numberguesser.HandledException;
+import numberguesser.metrics.GameMetrics;
+import numberguesser.model.DifficultyRegistry;
 import numberguesser.model.GameModel;
+import numberguesser.model.GameSession;
+import numberguesser.model.GuessOutcome;
+import numberguesser.model.Leaderboard;
 import numberguesser.model.Player;
+import numberguesser.model.PlayerScore;
+import numberguesser.model.ScoreboardSnapshot;
 import org.apache.commons.lang3.math.NumberUtils;
 import java.io.IOException;
-import java.util.Set;
+import java.util.List;
 
 /**
  * The `GameController` class manages the interaction between the user interface and the game logic.
  * It acts as a mediator between the `GameView` and `GameModel`, handling user inputs, updating the game state,
  * and providing feedback to the user. This class is responsible for setting up the game, processing player actions,
  * and maintaining the flow of the game.
+ *
+ * <p>Each controller drives its own {@link GameSession}, used by the no-argument methods. Callers hosting
+ * many games at once (such as a server) can create further sessions with {@link #newSession()} and pass
+ * them to the session-handle overloads of {@link #handleGuess(GameSession, long)},
+ * {@link #validateGuessInput(GameSession, String)} and {@link #updateListCall(GameSession)}.</p>
+ *
+ * <p>Games started here and the outcomes of their guesses are counted in the process-wide
+ * {@link GameMetrics}.</p>
  */
 public class GameController {
     private static final String ERROR_MSG = "OPERATION FAILED: ";
+    private static final GameMetrics metrics = GameMetrics.get();
     private GameModel game;
+    private final GameSession session;
 
     /**
      * Constructs a GameController with the specified GameModel.
@@ -25,18 +42,57 @@ public class GameController {
      */
     public GameController(GameModel game) {
         this.game = game;
+        this.session = game.newSession();
         HandledException.redirectErrorStream(); // Redirect errors to file
     }
 
+    /**
+     * Creates a new game session on the shared model.
+     *
+     * @return the new session
+     */
+    public GameSession newSession() {
+        return game.newSession();
+    }
+
+    /**
+     * Creates a new game session on the shared model whose secret numbers are reproducible from the seed.
+     *
+     * @param seed the seed
+     * @return the new session
+     */
+    public GameSession newSession(long seed) {
+        return game.newSession(seed);
+    }
+
+    /**
+     * Retrieves the session driven by the no-argument methods of this controller.
+     *
+     * @return the controller's own session
+     */
+    public GameSession getSession() {
+        return session;
+    }
+
     /**
      * Sets the current player for the game.
      *
      * @param playerName the name of the player
      */
     public void setCurrentPlayer(String playerName) {
+        setCurrentPlayer(session, playerName);
+    }
+
+    /**
+     * Sets the player of the given session.
+     *
+     * @param session the session to update
+     * @param playerName the name of the player
+     */
+    public void setCurrentPlayer(GameSession session, String playerName) {
         Player player = new Player(playerName);
         player = getPlayerExists(player);
-        game.setPlayer(player);
+        session.setPlayer(player);
     }
 
     /**
@@ -46,7 +102,19 @@ public class GameController {
      * @throws HandledException if the difficulty is invalid
      */
     public void setGameDifficulty(int difficulty) throws HandledException {
-        game.setDifficulty(difficulty);
+        setGameDifficulty(session, difficulty);
+    }
+
+    /**
+     * Sets the difficulty level for the given session's game.
+     *
+     * @param session the session to update
+     * @param difficulty the difficulty level to set
+     * @throws HandledException if the difficulty is invalid
+     */
+    public void setGameDifficulty(GameSession session, int difficulty) throws HandledException {
+        session.setDifficulty(difficulty);
+        metrics.gameStarted(difficulty);
     }
 
     /**
@@ -55,7 +123,7 @@ public class GameController {
      * @return the current Player
      */
     public Player getGamePlayer() {
-        return game.getPlayer();
+        return session.getPlayer();
     }
 
     /**
@@ -68,13 +136,28 @@ public class GameController {
         return game.playerExists(player);
     }
 
+    /**
+     * Suggests registered player names starting with the given text. Never blocks, so it can be called on
+     * every keystroke.
+     *
+     * @param prefix the text typed so far
+     * @param count the maximum number of names
+     * @return up to {@code count} names in alphabetical order, or none for empty text
+     */
+    public List<String> suggestPlayerNames(String prefix, int count) {
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        return GameModel.suggestNames(prefix, count);
+    }
+
     /**
      * Retrieves the minimum number for the current game range.
      *
      * @return the minimum number
      */
-    public int getGameMin() {
-        return game.getMin();
+    public long getGameMin() {
+        return session.getMin();
     }
 
     /**
@@ -82,8 +165,8 @@ public class GameController {
      *
      * @return the maximum number
      */
-    public int getGameMax() {
-        return game.getMax();
+    public long getGameMax() {
+        return session.getMax();
     }
 
     /**
@@ -92,7 +175,7 @@ public class GameController {
      * @return the number of tries left
      */
     public int getGameTries() {
-        return game.getTriesLeft();
+        return session.getTriesLeft();
     }
 
     /**
@@ -100,17 +183,17 @@ public class GameController {
      *
      * @return the result number
      */
-    public int getGameResult() {
-        return game.getResult();
+    public long getGameResult() {
+        return session.getResult();
     }
 
     /**
-     * Retrieves the current scoreboard as a set of players.
+     * Retrieves an immutable snapshot of the current scoreboard.
      *
-     * @return the set of players in the scoreboard
+     * @return the scoreboard snapshot
      */
-    public Set<Player> getCurrentScoreboard() {
-        return GameModel.getPlayerList();
+    public ScoreboardSnapshot getCurrentScoreboard() {
+        return GameModel.getScoreboard();
     }
 
     /**
@@ -119,14 +202,22 @@ public class GameController {
      * @return the difficulty level string
      */
     public String getGameDifficultyString() {
-        String result = switch (getGameDifficultyInt()) {
-            case 3 -> "DIFFICULTY: HARD";
-            case 2 -> "DIFFICULTY: MEDIUM";
-            case 1 -> "DIFFICULTY: EASY";
-            default -> "Unknown difficulty value";
-        };
+        DifficultyRegistry difficulties = game.getDifficulties();
+        int difficulty = getGameDifficultyInt();
+        if (!difficulties.isLevel(difficulty)) {
+            return "Unknown difficulty value";
+        }
+        return "DIFFICULTY: " + difficulties.getName(difficulty);
+    }
 
-        return result;
+    /**
+     * Retrieves the range of valid difficulty inputs as a string, such as "1-3".
+     *
+     * @return the difficulty choices
+     */
+    public String getDifficultyChoices() {
+        int levels = game.getDifficulties().getLevelCount();
+        return levels == 1 ? "1" : "1-" + levels;
     }
 
     /**
@@ -135,14 +226,23 @@ public class GameController {
      * @return the difficulty level integer
      */
     public int getGameDifficultyInt() {
-        return game.getDifficulty();
+        return session.getDifficulty();
     }
 
     /**
      * Sets the points won in the current game based on remaining tries.
      */
     public void setGamePointsWon() {
-        game.setPointsWon(getGameTries());
+        setGamePointsWon(session);
+    }
+
+    /**
+     * Sets the points won in the given session's game based on remaining tries.
+     *
+     * @param session the session whose game was won
+     */
+    public void setGamePointsWon(GameSession session) {
+        session.setPointsWon(session.getTriesLeft());
     }
 
     /**
@@ -151,7 +251,7 @@ public class GameController {
      * @return the points won
      */
     public int getGamePointsWon() {
-        return game.getPointsWon();
+        return session.getPointsWon();
     }
 
     /**
@@ -164,17 +264,18 @@ public class GameController {
      */
     public static String showPlayerScore(Player player, boolean isRetry) throws IOException {
         StringBuilder scoreBuilder = new StringBuilder();
-        Set<Player> playerList = GameModel.getPlayerList();
-        if (playerList != null && player != null && !playerList.isEmpty()) {
-            if (playerList.contains(player)) {
+        ScoreboardSnapshot scoreboard = GameModel.getScoreboard();
+        if (player != null && scoreboard.size() > 0) {
+            PlayerScore score = scoreboard.get(player.getName());
+            if (score != null) {
                 if (isRetry) {
                     scoreBuilder.append(String.format("POST MATCH SCORE FOR %s:%n", player.getName()));
                 } else {
                     scoreBuilder.append(String.format("Welcome back %s!%nYour current scores are:%n", player.getName()));
                 }
-                scoreBuilder.append(String.format("EASY DIFFICULTY: %d points in %d tries%n", player.getEasyPoints(), player.getEasyCount()));
-                scoreBuilder.append(String.format("MEDIUM DIFFICULTY: %d points in %d tries%n", player.getMediumPoints(), player.getMediumCount()));
-                scoreBuilder.append(String.format("HARD DIFFICULTY: %d points in %d tries%n%n", player.getHardPoints(), player.getHardCount()));
+                scoreBuilder.append(String.format("EASY DIFFICULTY: %d points in %d tries%n", score.easyPoints(), score.easyCount()));
+                scoreBuilder.append(String.format("MEDIUM DIFFICULTY: %d points in %d tries%n", score.mediumPoints(), score.mediumCount()));
+                scoreBuilder.append(String.format("HARD DIFFICULTY: %d points in %d tries%n%n", score.hardPoints(), score.hardCount()));
             } else {
                 scoreBuilder.append(String.format("Hello %s!%n", player.getName()));
             }
@@ -188,35 +289,114 @@ public class GameController {
     }
 
     /**
-     * Validates the difficulty input.
+     * Returns the best players by total points and the given player's rank as a string.
+     *
+     * @param player the player whose rank is to be shown, or null
+     * @param count the number of players to show
+     * @return the leaderboard as a string
+     */
+    public static String showLeaderboard(Player player, int count) {
+        ScoreboardSnapshot leaderboard = GameModel.getScoreboard();
+        StringBuilder leaderboardBuilder = new StringBuilder(String.format("TOP %d PLAYERS:%n", count));
+        for (Leaderboard.Entry entry : leaderboard.top(Leaderboard.Ranking.TOTAL, count)) {
+            leaderboardBuilder.append(String.format("%d. %s: %d points%n", entry.rank(), entry.name(), entry.score()));
+        }
+        if (player != null) {
+            int rank = leaderboard.rankOf(Leaderboard.Ranking.TOTAL, player.getName());
+            if (rank > count) {
+                leaderboardBuilder.append(String.format("You are ranked %d of %d%n", rank, leaderboard.size()));
+            }
+        }
+        return leaderboardBuilder.toString();
+    }
+
+    /**
+     * Validates the name input. A name must not be empty, and must fit in the scoreboard store, so that no
+     * game played under it is lost when its result cannot be saved.
+     *
+     * @param input the name input
+     * @return true if the input is valid, false otherwise
+     */
+    public boolean validateNameInput(String input) {
+        return input != null && !input.isEmpty() && GameModel.acceptsName(input);
+    }
+
+    /**
+     * Validates the difficulty input. It is parsed exactly as the view and the server parse it once it is
+     * accepted, with {@link NumberUtils#createInteger(String)}, so that anything accepted here also parses
+     * there, and nothing outside the {@code int} range wraps around onto a level.
      *
      * @param input the difficulty input as a string
      * @return true if the input is valid, false otherwise
      * @throws HandledException if an error occurs during validation
      */
     public boolean validateDifficultyInput(String input) throws HandledException {
-        if (!NumberUtils.isCreatable(input)) {
+        Integer difficulty;
+        try {
+            difficulty = NumberUtils.createInteger(input);
+        } catch (NumberFormatException e) {
             return false;
         }
+        return difficulty != null && game.getDifficulties().isLevel(difficulty);
+    }
 
-        int difficulty = NumberUtils.createInteger(input);
-        return difficulty >= 1 && difficulty <= 3;
+    /**
+     * Handles the guess and returns its outcome.
+     *
+     * @param guess the player's guess
+     * @return WIN, LOST, HIGHER or LOWER based on the guess
+     */
+    public GuessOutcome handleGuess(long guess) {
+        return handleGuess(session, guess);
     }
 
     /**
-     * Handles the guess input and returns the result as a string.
+     * Handles the guess for the given session and returns its outcome.
      *
+     * @param session the session the guess belongs to
      * @param guess the player's guess
-     * @return "WIN", "LOST", "HIGHER", or "LOWER" based on the guess
+     * @return WIN, LOST, HIGHER or LOWER based on the guess
      */
-    public String handleGuess(int guess) {
-        if (!game.handleGuess(guess)) {
-            if (game.getTriesLeft() == 0) {
-                return "LOST";
-            }
-            return game.getResult() > guess ? "HIGHER" : "LOWER";
+    public GuessOutcome handleGuess(GameSession session, long guess) {
+        return count(session, session.play(guess));
+    }
+
+    /**
+     * Validates and handles the guess input in one pass and returns its outcome.
+     *
+     * @param input the guess input
+     * @return the outcome, or INVALID if the input is not a number within the game's range
+     */
+    public GuessOutcome guess(CharSequence input) {
+        return guess(session, input);
+    }
+
+    /**
+     * Validates and handles the guess input for the given session in one pass and returns its outcome.
+     * Neither parsing nor the outcome allocates.
+     *
+     * @param session the session the guess belongs to
+     * @param input the guess input
+     * @return the outcome, or INVALID if the input is not a number within the game's range
+     */
+    public GuessOutcome guess(GameSession session, CharSequence input) {
+        return count(session, session.guess(input));
+    }
+
+    /**
+     * Counts a finished game in the metrics.
+     *
+     * @param session the session the guess belongs to
+     * @param outcome the outcome of the guess
+     * @return the outcome
+     */
+    private static GuessOutcome count(GameSession session, GuessOutcome outcome) {
+        if (outcome == GuessOutcome.WIN) {
+            metrics.gameWon(session.getDifficulty());
+        } else if (outcome == GuessOutcome.LOST) {
+            metrics.gameLost(session.getDifficulty());
         }
-        return "WIN";
+        return outcome;
     }
 
     /**
@@ -227,12 +407,19 @@ public class GameController {
      * @throws HandledException if an error occurs during validation
      */
     public boolean validateGuessInput(String input) throws HandledException {
-        if (!NumberUtils.isCreatable(input)) {
-            return false;
-        }
+        return validateGuessInput(session, input);
+    }
 
-        int guess = NumberUtils.createInteger(input);
-        return guess >= game.getMin() && guess <= game.getMax();
+    /**
+     * Validates the guess input against the range of the given session.
+     *
+     * @param session the session the guess belongs to
+     * @param input the guess input as a string
+     * @return true if the input is valid, false otherwise
+     * @throws HandledException if an error occurs during validation
+     */
+    public boolean validateGuessInput(GameSession session, String input) throws HandledException {
+        return session.parseGuess(input);
     }
 
     /**
@@ -243,14 +430,23 @@ public class GameController {
      * @param points the points to add
      */
     public void updateListCall(Player player, int difficulty, int points) {
-        Set<Player> playerList = GameModel.getPlayerList();
-        game.updateList(player, difficulty, points, playerList);
+        game.updateList(player, difficulty, points);
+    }
+
+    /**
+     * Updates the player list with the result of the given session's finished game.
+     * Points are only awarded if {@link GameSession#setPointsWon(int)} was called for a win.
+     *
+     * @param session the session whose game finished
+     */
+    public void updateListCall(GameSession session) {
+        session.recordResult();
     }
 
     /**
      * Resets the game to its initial state.
      */
     public void resetGame() {
-        game.resetGame();
+        session.resetGame();
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The `GameEndEvent` class is the Flight Recorder event of a game being won or lost.
+ */
+@Name("numberguesser.GameEnd")
+@Label("Game Ended")
+@Category({"Number Guesser", "Game"})
+@Description("A game was won or lost")
+@StackTrace(false)
+public final class GameEndEvent extends jdk.jfr.Event {
+    @Label("Player")
+    public String player;
+
+    @Label("Difficulty")
+    public int difficulty;
+
+    @Label("Outcome")
+    @Description("WIN or LOST")
+    public String outcome;
+
+    @Label("Tries Left")
+    public int triesLeft;
+}
@@ -0,0 +1,29 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The `GuessEvent` class is the Flight Recorder event of a guess being played.
+ */
+@Name("numberguesser.Guess")
+@Label("Guess")
+@Category({"Number Guesser", "Game"})
+@Description("A guess was played")
+@StackTrace(false)
+public final class GuessEvent extends jdk.jfr.Event {
+    @Label("Difficulty")
+    public int difficulty;
+
+    @Label("Guess")
+    public long guess;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Tries Left")
+    public int triesLeft;
+}
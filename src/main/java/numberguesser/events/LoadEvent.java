@@ -0,0 +1,19 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `LoadEvent` class is the Flight Recorder event of the scoreboard being loaded by {@code GameModel.load}.
+ */
+@Name("numberguesser.Load")
+@Label("Scoreboard Load")
+@Category({"Number Guesser", "Scoreboard"})
+@Description("The scoreboard was loaded from disk")
+public final class LoadEvent extends jdk.jfr.Event {
+    @Label("Records")
+    @Description("The number of players loaded into memory")
+    public int records;
+}
@@ -0,0 +1,24 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `SaveEvent` class is the Flight Recorder event of a full scoreboard save by {@code GameModel.save}.
+ */
+@Name("numberguesser.Save")
+@Label("Scoreboard Save")
+@Category({"Number Guesser", "Scoreboard"})
+@Description("The full scoreboard was written to disk")
+public final class SaveEvent extends jdk.jfr.Event {
+    @Label("Players")
+    public int players;
+
+    @Label("Bytes Written")
+    @Description("The size of the scoreboard's full copy on disk after the save")
+    @DataAmount
+    public long bytesWritten;
+}
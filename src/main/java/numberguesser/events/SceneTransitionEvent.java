@@ -0,0 +1,19 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The `SceneTransitionEvent` class is the Flight Recorder event of the game window switching scenes,
+ * timed from the start of building the new scene until it is shown.
+ */
+@Name("numberguesser.SceneTransition")
+@Label("Scene Transition")
+@Category({"Number Guesser", "View"})
+@Description("The game window built and switched to a new scene")
+public final class SceneTransitionEvent extends jdk.jfr.Event {
+    @Label("Scene")
+    public String scene;
+}
@@ -0,0 +1,32 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The `SessionStartEvent` class is the Flight Recorder event of a game being started on a difficulty level.
+ */
+@Name("numberguesser.SessionStart")
+@Label("Game Started")
+@Category({"Number Guesser", "Game"})
+@Description("A game was started on a difficulty level")
+@StackTrace(false)
+public final class SessionStartEvent extends jdk.jfr.Event {
+    @Label("Player")
+    public String player;
+
+    @Label("Difficulty")
+    public int difficulty;
+
+    @Label("Minimum")
+    public long min;
+
+    @Label("Maximum")
+    public long max;
+
+    @Label("Tries")
+    public int tries;
+}
@@ -0,0 +1,27 @@
+package numberguesser.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The `UpdateListEvent` class is the Flight Recorder event of a finished game being applied to the
+ * scoreboard by {@code GameModel.updateList}.
+ */
+@Name("numberguesser.UpdateList")
+@Label("Scoreboard Update")
+@Category({"Number Guesser", "Scoreboard"})
+@Description("A finished game was applied to the scoreboard and handed to the scoreboard writer")
+@StackTrace(false)
+public final class UpdateListEvent extends jdk.jfr.Event {
+    @Label("Player")
+    public String player;
+
+    @Label("Difficulty")
+    public int difficulty;
+
+    @Label("Points")
+    public int points;
+}
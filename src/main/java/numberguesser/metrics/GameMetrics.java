@@ -0,0 +1,251 @@
+package numberguesser.metrics;
+
+import numberguesser.ErrorLog;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The `GameMetrics` class is the process-wide registry of the game's metrics, exposed over JMX as
+ * {@value #OBJECT_NAME} and as plain text through {@link #dump()}.
+ *
+ * <p>It counts the games started, won and lost on each difficulty level, and times full saves, loads,
+ * scoreboard updates and the window's first frame in {@link LatencyHistogram}s. Every counter is a
+ * {@link LongAdder}, so recording takes no lock and allocates nothing; the totals are only summed when they
+ * are read. The scoreboard size and the snapshot size are gauges read from the model when asked for.</p>
+ */
+public final class GameMetrics implements GameMetricsMXBean {
+    /** The name the metrics are registered under with the platform MBean server. */
+    public static final String OBJECT_NAME = "numberguesser:type=GameMetrics";
+    private static final int TRACKED_LEVELS = 16;
+    private static final GameMetrics INSTANCE = register();
+
+    private final LongAdder[] started = counters();
+    private final LongAdder[] won = counters();
+    private final LongAdder[] lost = counters();
+    private final LatencyHistogram saveLatency = new LatencyHistogram("save");
+    private final LatencyHistogram loadLatency = new LatencyHistogram("load");
+    private final LatencyHistogram updateListLatency = new LatencyHistogram("update_list");
+    private final LatencyHistogram firstFrameLatency = new LatencyHistogram("first_frame");
+    private volatile LongSupplier scoreboardSize = () -> 0;
+    private volatile LongSupplier snapshotBytes = () -> 0;
+
+    private GameMetrics() {
+    }
+
+    private static GameMetrics register() {
+        GameMetrics metrics = new GameMetrics();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            ErrorLog.log(e);
+        }
+        return metrics;
+    }
+
+    /**
+     * Retrieves the process-wide metrics.
+     *
+     * @return the metrics
+     */
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records that a game was started.
+     *
+     * @param level the difficulty level of the game
+     */
+    public void gameStarted(int level) {
+        started[slot(level)].increment();
+    }
+
+    /**
+     * Records that a game was won.
+     *
+     * @param level the difficulty level of the game
+     */
+    public void gameWon(int level) {
+        won[slot(level)].increment();
+    }
+
+    /**
+     * Records that a game was lost.
+     *
+     * @param level the difficulty level of the game
+     */
+    public void gameLost(int level) {
+        lost[slot(level)].increment();
+    }
+
+    /**
+     * Retrieves the latency of full scoreboard saves.
+     *
+     * @return the save histogram
+     */
+    public LatencyHistogram getSaveLatency() {
+        return saveLatency;
+    }
+
+    /**
+     * Retrieves the latency of scoreboard loads.
+     *
+     * @return the load histogram
+     */
+    public LatencyHistogram getLoadLatency() {
+        return loadLatency;
+    }
+
+    /**
+     * Retrieves the latency of scoreboard updates.
+     *
+     * @return the update histogram
+     */
+    public LatencyHistogram getUpdateListLatency() {
+        return updateListLatency;
+    }
+
+    /**
+     * Retrieves the time from the start of the application until its window laid out its first frame.
+     *
+     * @return the first frame histogram
+     */
+    public LatencyHistogram getFirstFrameLatency() {
+        return firstFrameLatency;
+    }
+
+    /**
+     * Sets where the scoreboard gauges are read from.
+     *
+     * @param scoreboardSize supplies the number of players on the scoreboard
+     * @param snapshotBytes supplies the size of the scoreboard snapshot on disk
+     */
+    public void setScoreboardGauges(LongSupplier scoreboardSize, LongSupplier snapshotBytes) {
+        this.scoreboardSize = scoreboardSize;
+        this.snapshotBytes = snapshotBytes;
+    }
+
+    @Override
+    public long[] getGamesStarted() {
+        return sums(started);
+    }
+
+    @Override
+    public long[] getGamesWon() {
+        return sums(won);
+    }
+
+    @Override
+    public long[] getGamesLost() {
+        return sums(lost);
+    }
+
+    @Override
+    public long getScoreboardSize() {
+        return scoreboardSize.getAsLong();
+    }
+
+    @Override
+    public long getSnapshotBytes() {
+        return snapshotBytes.getAsLong();
+    }
+
+    @Override
+    public long getSaveCount() {
+        return saveLatency.getCount();
+    }
+
+    @Override
+    public long getSaveP99Nanos() {
+        return saveLatency.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getSaveMaxNanos() {
+        return saveLatency.getMaxNanos();
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loadLatency.getCount();
+    }
+
+    @Override
+    public long getLoadP99Nanos() {
+        return loadLatency.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getLoadMaxNanos() {
+        return loadLatency.getMaxNanos();
+    }
+
+    @Override
+    public long getUpdateListCount() {
+        return updateListLatency.getCount();
+    }
+
+    @Override
+    public long getUpdateListP99Nanos() {
+        return updateListLatency.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getUpdateListMaxNanos() {
+        return updateListLatency.getMaxNanos();
+    }
+
+    @Override
+    public long getFirstFrameNanos() {
+        return firstFrameLatency.getMaxNanos();
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        appendCounters(out, "games_started", started);
+        appendCounters(out, "games_won", won);
+        appendCounters(out, "games_lost", lost);
+        out.append("scoreboard_size ").append(getScoreboardSize()).append(System.lineSeparator());
+        out.append("snapshot_bytes ").append(getSnapshotBytes()).append(System.lineSeparator());
+        saveLatency.appendTo(out);
+        loadLatency.appendTo(out);
+        updateListLatency.appendTo(out);
+        firstFrameLatency.appendTo(out);
+        return out.toString();
+    }
+
+    private static void appendCounters(StringBuilder out, String name, LongAdder[] counters) {
+        for (int level = 0; level < counters.length; level++) {
+            long count = counters[level].sum();
+            if (count != 0) {
+                out.append(name).append(" level=").append(level == 0 ? "other" : String.valueOf(level))
+                        .append(' ').append(count).append(System.lineSeparator());
+            }
+        }
+    }
+
+    private static int slot(int level) {
+        return level > 0 && level <= TRACKED_LEVELS ? level : 0;
+    }
+
+    private static LongAdder[] counters() {
+        LongAdder[] counters = new LongAdder[TRACKED_LEVELS + 1];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static long[] sums(LongAdder[] counters) {
+        long[] sums = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            sums[i] = counters[i].sum();
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,123 @@
+package numberguesser.metrics;
+
+/**
+ * The `GameMetricsMXBean` interface is the management interface of {@link GameMetrics}, registered with the
+ * platform MBean server as {@value GameMetrics#OBJECT_NAME}.
+ *
+ * <p>Per-level counters are arrays indexed by difficulty level; index 0 counts games on levels beyond the
+ * tracked ones. Latencies are in nanoseconds.</p>
+ */
+public interface GameMetricsMXBean {
+
+    /**
+     * Retrieves the number of games started on each difficulty level.
+     *
+     * @return the games started, indexed by level
+     */
+    long[] getGamesStarted();
+
+    /**
+     * Retrieves the number of games won on each difficulty level.
+     *
+     * @return the games won, indexed by level
+     */
+    long[] getGamesWon();
+
+    /**
+     * Retrieves the number of games lost on each difficulty level.
+     *
+     * @return the games lost, indexed by level
+     */
+    long[] getGamesLost();
+
+    /**
+     * Retrieves the number of players on the scoreboard.
+     *
+     * @return the scoreboard size
+     */
+    long getScoreboardSize();
+
+    /**
+     * Retrieves the size of the scoreboard snapshot on disk.
+     *
+     * @return the snapshot size in bytes
+     */
+    long getSnapshotBytes();
+
+    /**
+     * Retrieves the number of full saves.
+     *
+     * @return the number of saves
+     */
+    long getSaveCount();
+
+    /**
+     * Retrieves the 99th percentile of the full save latency.
+     *
+     * @return the latency upper bound in nanoseconds
+     */
+    long getSaveP99Nanos();
+
+    /**
+     * Retrieves the longest full save.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getSaveMaxNanos();
+
+    /**
+     * Retrieves the number of scoreboard loads.
+     *
+     * @return the number of loads
+     */
+    long getLoadCount();
+
+    /**
+     * Retrieves the 99th percentile of the scoreboard load latency.
+     *
+     * @return the latency upper bound in nanoseconds
+     */
+    long getLoadP99Nanos();
+
+    /**
+     * Retrieves the longest scoreboard load.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getLoadMaxNanos();
+
+    /**
+     * Retrieves the number of scoreboard updates.
+     *
+     * @return the number of updates
+     */
+    long getUpdateListCount();
+
+    /**
+     * Retrieves the 99th percentile of the scoreboard update latency.
+     *
+     * @return the latency upper bound in nanoseconds
+     */
+    long getUpdateListP99Nanos();
+
+    /**
+     * Retrieves the longest scoreboard update.
+     *
+     * @return the latency in nanoseconds
+     */
+    long getUpdateListMaxNanos();
+
+    /**
+     * Retrieves the time the application took to lay out its first frame.
+     *
+     * @return the time in nanoseconds, or 0 if no window was shown
+     */
+    long getFirstFrameNanos();
+
+    /**
+     * Formats every metric as plain text, one metric per line.
+     *
+     * @return the metrics
+     */
+    String dump();
+}
@@ -0,0 +1,151 @@
+package numberguesser.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `LatencyHistogram` class counts how long an operation takes, in fixed power-of-two buckets of
+ * nanoseconds.
+ *
+ * <p>Bucket {@code i} counts the durations whose highest set bit is bit {@code i - 1}, so bucket 0 holds
+ * zero and the 64 buckets cover every duration. Recording a duration picks its bucket from the number of
+ * leading zeros and increments a {@link LongAdder}: it takes no lock and allocates nothing, and threads
+ * recording at once do not contend on one counter. Percentiles are reported as the upper bound of the
+ * bucket they fall in, so they are accurate to within a factor of two.</p>
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final String name;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param name the name of the measured operation
+     */
+    LatencyHistogram(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one run of the operation.
+     *
+     * @param nanos how long the run took, in nanoseconds; negative durations count as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Records one run of the operation that started at the given {@link System#nanoTime()}.
+     *
+     * @param startNanos the value of {@link System#nanoTime()} when the run started
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Retrieves the name of the measured operation.
+     *
+     * @return the operation's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of recorded runs.
+     *
+     * @return the number of runs
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the mean duration of the recorded runs.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    /**
+     * Retrieves the longest recorded run.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Retrieves an upper bound of the given percentile of the recorded durations.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Appends a line with the count, mean, 50th, 99th percentile and maximum, in microseconds.
+     *
+     * @param out where to append the line
+     */
+    void appendTo(StringBuilder out) {
+        out.append(name)
+                .append(" count=").append(getCount())
+                .append(" mean_us=").append(micros(getMeanNanos()))
+                .append(" p50_us=").append(micros(getPercentileNanos(50)))
+                .append(" p99_us=").append(micros(getPercentileNanos(99)))
+                .append(" max_us=").append(micros(getMaxNanos()))
+                .append(System.lineSeparator());
+    }
+
+    private static long upperBound(int bucket) {
+        return (1L << bucket) - 1;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
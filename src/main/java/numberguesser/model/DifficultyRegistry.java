@@ -0,0 +1,214 @@
+package numberguesser.model;
+
+import numberguesser.HandledException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The `DifficultyRegistry` class holds the difficulty levels of the game: their names, the range of the
+ * secret number, the number of tries and the points won by tries left.
+ *
+ * <p>The registry is loaded once at startup from {@code numberguesser/difficulty.properties}, or from the
+ * file named by the {@code numberguesser.difficulty.config} system property, and is immutable afterwards.
+ * Levels are numbered from 1 and every table is a plain array indexed by level, so starting a game or
+ * scoring a win does no hashing or boxing. The points of all levels share one array, with each level's
+ * curve starting at its own offset.</p>
+ */
+public final class DifficultyRegistry {
+    private static final String DEFAULT_RESOURCE = "/numberguesser/difficulty.properties";
+    private static final int SCOREBOARD_COLUMNS = 3;
+
+    private final String[] names;
+    private final RNG[] ranges;
+    private final int[] tries;
+    private final int[] pointsOffsets;
+    private final int[] points;
+    private final int[] scoreboardColumns;
+
+    private DifficultyRegistry(String[] names, RNG[] ranges, int[] tries, int[] pointsOffsets, int[] points,
+                               int[] scoreboardColumns) {
+        this.names = names;
+        this.ranges = ranges;
+        this.tries = tries;
+        this.pointsOffsets = pointsOffsets;
+        this.points = points;
+        this.scoreboardColumns = scoreboardColumns;
+    }
+
+    /**
+     * Loads the registry from the configured file, or from the bundled defaults.
+     *
+     * @return the loaded registry
+     * @throws IOException if the configuration cannot be read
+     * @throws HandledException if the configuration is invalid
+     */
+    public static DifficultyRegistry load() throws IOException, HandledException {
+        Properties config = new Properties();
+        String path = System.getProperty("numberguesser.difficulty.config");
+        if (path != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+                config.load(reader);
+            }
+        } else {
+            try (InputStream in = DifficultyRegistry.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (in == null) {
+                    throw new HandledException("CONFIG_ERROR", "Missing " + DEFAULT_RESOURCE);
+                }
+                config.load(in);
+            }
+        }
+        return from(config);
+    }
+
+    /**
+     * Builds a registry from configuration properties in the format of {@code difficulty.properties}.
+     *
+     * @param config the configuration
+     * @return the registry
+     * @throws HandledException if the configuration is invalid
+     */
+    public static DifficultyRegistry from(Properties config) throws HandledException {
+        int levels = intProperty(config, "levels");
+        if (levels < 1) {
+            throw new HandledException("CONFIG_ERROR", "At least one difficulty level is required");
+        }
+
+        String[] names = new String[levels + 1];
+        RNG[] ranges = new RNG[levels + 1];
+        int[] tries = new int[levels + 1];
+        int[] pointsOffsets = new int[levels + 2];
+        int[][] curves = new int[levels + 1][];
+        int[] scoreboardColumns = new int[levels + 1];
+
+        for (int level = 1; level <= levels; level++) {
+            String prefix = "level." + level + ".";
+            names[level] = config.getProperty(prefix + "name", Integer.toString(level)).strip();
+            long min = longProperty(config, prefix + "min");
+            long max = longProperty(config, prefix + "max");
+            if (min > max) {
+                throw new HandledException("CONFIG_ERROR", prefix + "min must not be greater than " + prefix + "max");
+            }
+            ranges[level] = new RNG(min, max);
+
+            tries[level] = intProperty(config, prefix + "tries");
+            String[] curve = config.getProperty(prefix + "points", "").split(",");
+            if (tries[level] < 1 || curve.length != tries[level]) {
+                throw new HandledException("CONFIG_ERROR", prefix + "points needs one value per try");
+            }
+            curves[level] = new int[curve.length];
+            for (int i = 0; i < curve.length; i++) {
+                curves[level][i] = parseInt(prefix + "points", curve[i]);
+            }
+            pointsOffsets[level + 1] = pointsOffsets[level] + curve.length;
+
+            String column = config.getProperty(prefix + "scoreboard");
+            scoreboardColumns[level] = column == null ? Math.min(level, SCOREBOARD_COLUMNS) : parseInt(prefix + "scoreboard", column);
+            if (scoreboardColumns[level] < 1 || scoreboardColumns[level] > SCOREBOARD_COLUMNS) {
+                throw new HandledException("CONFIG_ERROR", prefix + "scoreboard must be between 1 and " + SCOREBOARD_COLUMNS);
+            }
+        }
+
+        int[] points = new int[pointsOffsets[levels + 1]];
+        for (int level = 1; level <= levels; level++) {
+            System.arraycopy(curves[level], 0, points, pointsOffsets[level], curves[level].length);
+        }
+        return new DifficultyRegistry(names, ranges, tries, pointsOffsets, points, scoreboardColumns);
+    }
+
+    /**
+     * Retrieves the number of difficulty levels. Levels are numbered from 1 to this count.
+     *
+     * @return the level count
+     */
+    public int getLevelCount() {
+        return names.length - 1;
+    }
+
+    /**
+     * Checks whether a difficulty level exists.
+     *
+     * @param level the difficulty level
+     * @return true if the level exists, false otherwise
+     */
+    public boolean isLevel(int level) {
+        return level >= 1 && level < names.length;
+    }
+
+    /**
+     * Retrieves the name of a difficulty level.
+     *
+     * @param level an existing difficulty level
+     * @return the level's name
+     */
+    public String getName(int level) {
+        return names[level];
+    }
+
+    /**
+     * Retrieves the range of the secret number of a difficulty level.
+     *
+     * @param level an existing difficulty level
+     * @return the level's range
+     */
+    public RNG getRange(int level) {
+        return ranges[level];
+    }
+
+    /**
+     * Retrieves the number of tries of a difficulty level.
+     *
+     * @param level an existing difficulty level
+     * @return the level's number of tries
+     */
+    public int getTries(int level) {
+        return tries[level];
+    }
+
+    /**
+     * Retrieves the points won on a difficulty level with the given number of tries left.
+     *
+     * @param level an existing difficulty level
+     * @param triesLeft the number of tries left, between 1 and the level's tries
+     * @return the points won
+     */
+    public int getPoints(int level, int triesLeft) {
+        return points[pointsOffsets[level] + triesLeft - 1];
+    }
+
+    /**
+     * Retrieves the scoreboard column a difficulty level counts towards: 1 (easy), 2 (medium) or 3 (hard).
+     *
+     * @param level an existing difficulty level
+     * @return the level's scoreboard column
+     */
+    public int getScoreboardColumn(int level) {
+        return scoreboardColumns[level];
+    }
+
+    private static int intProperty(Properties config, String key) throws HandledException {
+        return parseInt(key, config.getProperty(key));
+    }
+
+    private static int parseInt(String key, String value) throws HandledException {
+        try {
+            return Integer.parseInt(value == null ? "" : value.strip());
+        } catch (NumberFormatException e) {
+            throw new HandledException("CONFIG_ERROR", key + " must be a whole number");
+        }
+    }
+
+    private static long longProperty(Properties config, String key) throws HandledException {
+        String value = config.getProperty(key);
+        try {
+            return Long.parseLong(value == null ? "" : value.strip());
+        } catch (NumberFormatException e) {
+            throw new HandledException("CONFIG_ERROR", key + " must be a whole number");
+        }
+    }
+}
@@ -1,29 +1,66 @@
 package numberguesser.model;
 
+import numberguesser.ErrorLog;
 import numberguesser.HandledException;
+import numberguesser.events.LoadEvent;
+import numberguesser.events.SaveEvent;
+import numberguesser.events.UpdateListEvent;
+import numberguesser.metrics.GameMetrics;
 import java.io.*;
-import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import static java.lang.System.err;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * The `GameModel` class represents the core logic and data management for the Number Guesser game.
- * It handles game state, player management, and persistence of player scores.
+ * It holds the difficulty and scoring tables, player management, and persistence of player scores.
+ * The state of each individual game lives in a {@link GameSession} created by {@link #newSession()}.
+ *
+ * <p>The scoreboard is shared by every game and safe for concurrent use: players live in a concurrent
+ * registry and their counters are updated atomically. Results are applied under the shared side of a
+ * read-write lock, so any number of games can finish at once, and written to disk by a background
+ * {@link ScoreboardWriter}. A full save takes the exclusive side and starts a new writer epoch, so that no
+ * result is both in a snapshot and in the journal written after it.</p>
+ *
+ * <p>Saves, loads and scoreboard updates are timed in the process-wide {@link GameMetrics}, which also
+ * reads the scoreboard size and snapshot size from here, and emit Flight Recorder events when a recording
+ * has them enabled.</p>
+ *
+ * <p>The scoreboard can be loaded on a background thread with {@link #GameModel(boolean)}, so that a window
+ * can be shown before a large scoreboard is read. Until the load finishes, the methods that read or update
+ * the scoreboard wait for it; once it has finished they only check a flag.</p>
+ *
+ * <p>With {@code -Dnumberguesser.scoreboard.table=offheap} the players are kept in an
+ * {@link OffHeapPlayerRegistry} instead of on the heap, for scoreboards large enough that the collector's
+ * work on millions of player objects shows up in pause times. The leaderboard is then ranked outside the heap
+ * too, by a {@link TableSnapshot}, so the heap does not grow with the number of players. The memory-mapped
+ * store keeps its players outside the heap in any case, in its file, and is ranked the same way.</p>
  */
 public class GameModel {
-    private static final String ERROR_MSG = "OPERATION FAILED: ";
-    private static Set<Player> playerList = new HashSet<>();
-    private int difficulty;
-    private int tries;
-    private int result;
-    private int pointsWon;
-    private Player currentPlayer;
-    private RNG currentRNG;
-    private final Map<Integer, RNG> difficultyMap;
-    private final Map<Integer, Integer> pointsWonMap;
+    private static final boolean OFF_HEAP = switch (System.getProperty("numberguesser.scoreboard.table", "heap")) {
+        case "heap" -> false;
+        case "offheap" -> true;
+        default -> throw new IllegalStateException("Unknown scoreboard table: "
+                + System.getProperty("numberguesser.scoreboard.table"));
+    };
+    private static final ScoreboardStore store = ScoreboardStore.open();
+    private static final ReadWriteLock scoreboardLock = new ReentrantReadWriteLock();
+    private static volatile Map<String, Player> playerRegistry = new ConcurrentHashMap<>();
+    private static final Leaderboard leaderboard = new Leaderboard();
+    private static final ScoreboardWriter writer = ScoreboardWriter.start(store, scoreboardLock, GameModel::compact);
+    private static final SessionRecorder recorder = SessionRecorder.open();
+    private static final GameMetrics metrics = GameMetrics.get();
+    private static volatile CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+    private final DifficultyRegistry difficulties;
+
+    static {
+        metrics.setScoreboardGauges(() -> playerRegistry.size(), GameModel::getSnapshotBytes);
+    }
 
     /**
      * Constructs a `GameModel` object, initializing game settings and loading player data.
@@ -32,257 +69,337 @@ public class GameModel {
      * @throws HandledException if a handled exception occurs
      */
     public GameModel() throws IOException, HandledException {
-        this.tries = 3;
-        this.difficultyMap = new HashMap<>();
-        this.pointsWonMap = new HashMap<>();
-        initializeDifficultyMap();
-        initializePointsWonMap();
-        load();
+        this(false);
     }
 
     /**
-     * Initializes the difficulty map with predefined ranges for each difficulty level.
+     * Constructs a `GameModel` object, initializing game settings and loading player data either right away
+     * or on a background thread.
+     *
+     * @param loadInBackground true to return at once and load the player data with {@link #loadInBackground()}
+     * @throws IOException if an I/O error occurs during loading
+     * @throws HandledException if a handled exception occurs
      */
-    private void initializeDifficultyMap() {
-        difficultyMap.put(1, new RNG(1, 10));
-        difficultyMap.put(2, new RNG(1, 50));
-        difficultyMap.put(3, new RNG(1, 100));
+    public GameModel(boolean loadInBackground) throws IOException, HandledException {
+        this.difficulties = DifficultyRegistry.load();
+        if (loadInBackground) {
+            loadInBackground();
+        } else {
+            load();
+        }
     }
 
     /**
-     * Initializes the points won map with predefined points for each difficulty level.
+     * Creates a new game session on top of this model's difficulty levels and shared scoreboard.
+     *
+     * @return a new session with no player or difficulty set yet
      */
-    private void initializePointsWonMap() {
-        pointsWonMap.put(3, 100);
-        pointsWonMap.put(2, 50);
-        pointsWonMap.put(1, 25);
+    public GameSession newSession() {
+        return new GameSession(this);
     }
 
     /**
-     * Sets the game difficulty and initializes the random number generator for the selected difficulty.
+     * Creates a new game session whose secret numbers are drawn from a generator seeded with the given seed,
+     * so that the same seed always gives the same sequence of secret numbers.
      *
-     * @param difficulty the game difficulty level
-     * @throws HandledException if no difficulty is set
+     * @param seed the seed
+     * @return a new seeded session with no player or difficulty set yet
      */
-    public void setDifficulty(int difficulty) throws HandledException {
-        this.difficulty = difficulty;
-        this.currentRNG = difficultyMap.get(difficulty);
-        if (currentRNG == null) {
-            throw new HandledException("VARIABLE_ERROR", "No difficulty set");
-        }
-        this.result = currentRNG.getResult();
-
+    public GameSession newSession(long seed) {
+        GameSession session = new GameSession(this);
+        session.setSeed(seed);
+        return session;
     }
 
     /**
-     * Retrieves the current game difficulty.
+     * Retrieves the difficulty levels loaded at startup.
      *
-     * @return the difficulty level
+     * @return the difficulty registry
      */
-    public int getDifficulty() {
-        return this.difficulty;
+    public DifficultyRegistry getDifficulties() {
+        return difficulties;
     }
 
     /**
-     * Sets the points won based on the number of tries left.
+     * Checks if a player already exists and returns the existing player.
+     *
+     * <p>The lookup is a single keyed access on the player registry, which holds every player on the
+     * scoreboard once it is loaded. With the mapped store it reads the player's record from the file.</p>
      *
-     * @param triesLeft the number of tries left
+     * @param player the player to check
+     * @return the existing player if found, otherwise the input player
      */
-    public void setPointsWon(int triesLeft) {
-        this.pointsWon = pointsWonMap.get(triesLeft);
+    public Player playerExists(Player player) {
+        awaitLoad();
+        Player existing = playerRegistry.get(player.getName());
+        return existing != null ? existing : player;
     }
 
     /**
-     * Retrieves the points won in the current game.
+     * Checks whether a player is registered on the scoreboard, i.e. has finished at least one game.
      *
-     * @return the points won
+     * @param player the player to check
+     * @return true if the player is registered, false otherwise
      */
-    public int getPointsWon() {
-        return this.pointsWon;
+    public static boolean isRegistered(Player player) {
+        awaitLoad();
+        return playerRegistry.containsKey(player.getName());
     }
 
     /**
-     * Sets the current player for the game.
+     * Saves the full player list through the configured scoreboard store.
      *
-     * @param player the player to set
+     * @param playerList the players to save
+     * @throws IOException if an I/O error occurs during saving
      */
-    public void setPlayer(Player player) {
-        this.currentPlayer = player;
+    public static void save(Collection<Player> playerList) throws IOException {
+        awaitLoad();
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        scoreboardLock.writeLock().lock();
+        try {
+            store.save(playerList);
+            writer.advanceEpoch();
+        } catch (IOException e) {
+            ErrorLog.log(e);
+        } finally {
+            scoreboardLock.writeLock().unlock();
+            metrics.getSaveLatency().recordSince(start);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.players = playerList.size();
+            event.bytesWritten = getSnapshotBytes();
+            event.commit();
+        }
     }
 
     /**
-     * Retrieves the current player of the game.
+     * Loads the player list at the start of the game from the configured scoreboard store.
+     *
+     * <p>The memory-mapped store reads no player into the heap: its registry is a view of the file, and the
+     * {@link Leaderboard} ranks every player in it by streaming the records into off-heap rankings.</p>
      *
-     * @return the current player
+     * @throws IOException if an I/O error occurs during loading
+     * @throws HandledException if a handled exception occurs
      */
-    public Player getPlayer() {
-        return this.currentPlayer;
+    public static void load() throws IOException, HandledException {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            if (OFF_HEAP && !store.keepsPlayersOffHeap()) {
+                Map<String, Player> players = new OffHeapPlayerRegistry();
+                store.loadInto(players);
+                playerRegistry = players;
+            } else {
+                playerRegistry = store.load();
+            }
+            if (playerRegistry instanceof OffHeapPlayerRegistry registry) {
+                leaderboard.rebuild(registry.getTable());
+            } else {
+                leaderboard.rebuild(playerRegistry.values());
+            }
+        } catch (IOException e) {
+            ErrorLog.log(e);
+        } finally {
+            metrics.getLoadLatency().recordSince(start);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.records = playerRegistry.size();
+            event.commit();
+        }
     }
 
     /**
-     * Checks if a player already exists and returns the existing player.
+     * Starts loading the player list on a background thread, and returns at once.
      *
-     * @param player the player to check
-     * @return the existing player if found, otherwise the input player
+     * @return a future completed once the load has finished, whether or not it succeeded
      */
-    public Player playerExists(Player player) {
-        if (playerList.contains(player)) {
-            for (Player p : playerList) {
-                if (p.equals(player)) {
-                    player = p;
-                }
+    public static synchronized CompletableFuture<Void> loadInBackground() {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        loading = pending;
+        Thread.ofPlatform().name("scoreboard-loader").daemon().start(() -> {
+            try {
+                load();
+            } catch (IOException | HandledException e) {
+                ErrorLog.log(e);
+            } finally {
+                pending.complete(null);
             }
-        }
-        return player;
+        });
+        return pending;
     }
 
     /**
-     * Handles the player's guess and updates the game state.
-     *
-     * @param guess the player's guess
-     * @return true if the guess is correct, false otherwise
+     * Waits for a background load that is still running.
      */
-    public boolean handleGuess(int guess) {
-        if (guess != result) {
-            tries--;
-            return false;
-        } else {
-            return true;
+    private static void awaitLoad() {
+        CompletableFuture<Void> pending = loading;
+        if (!pending.isDone()) {
+            pending.join();
         }
     }
 
     /**
-     * Resets the game to its initial state.
+     * Retrieves the current list of players.
+     *
+     * @return an unmodifiable view of the registered players
      */
-    public void resetGame() {
-        this.tries = 3;
-        initializeDifficultyMap();
+    public static Collection<Player> getPlayerList() {
+        awaitLoad();
+        return Collections.unmodifiableCollection(playerRegistry.values());
     }
 
     /**
-     * Retrieves the number of tries left in the current game.
+     * Retrieves an immutable snapshot of the scoreboard. It is taken without locking and never changes, so
+     * it can be read at leisure while games keep finishing, and never shows a player halfway through an update.
      *
-     * @return the number of tries left
+     * @return the current scoreboard snapshot
      */
-    public int getTriesLeft() {
-        return tries;
+    public static ScoreboardSnapshot getScoreboard() {
+        awaitLoad();
+        return leaderboard.snapshot();
     }
 
     /**
-     * Retrieves the result number for the current game.
+     * Suggests the names of registered players starting with what has been typed so far, so that returning
+     * players can pick their name instead of registering a misspelt copy. Each finished game adds its player
+     * to the name index of the next scoreboard snapshot, so new players are suggested as soon as they are
+     * registered.
      *
-     * @return the result number
+     * <p>Unlike the other scoreboard reads this does not wait for a background load, so it can be called on
+     * the JavaFX application thread on every keystroke; until the load has finished it suggests nothing. Once
+     * it has, every player in the store is suggested, including those of the memory-mapped store, whose names
+     * are indexed in name order when its file is loaded.</p>
+     *
+     * @param prefix the start of the name
+     * @param count the maximum number of names
+     * @return up to {@code count} names in alphabetical order
      */
-    public int getResult() {
-        return result;
+    public static List<String> suggestNames(String prefix, int count) {
+        return leaderboard.snapshot().completions(prefix, count);
     }
 
     /**
-     * Retrieves the minimum number for the current game range.
+     * Checks whether the scoreboard store can hold a player with the given name. The memory-mapped store
+     * has room for a limited number of bytes per name and no lone surrogates; the others take any name. Players kept off the heap
+     * are stored under their UTF-8 name, so a name with a lone surrogate, which UTF-8 cannot hold, is
+     * turned away then.
      *
-     * @return the minimum number
+     * @param name the player's name
+     * @return true if the player's results can be saved, false otherwise
      */
-    public int getMin() {
-        return currentRNG.getMin();
+    public static boolean acceptsName(String name) {
+        return store.acceptsName(name) && (!OFF_HEAP || NameBytes.isWellFormed(name));
     }
 
     /**
-     * Retrieves the maximum number for the current game range.
+     * Retrieves the leaderboard, which ranks the registered players and is kept up to date as games finish.
      *
-     * @return the maximum number
+     * @return the shared leaderboard
      */
-    public int getMax() {
-        return currentRNG.getMax();
+    public static Leaderboard getLeaderboard() {
+        awaitLoad();
+        return leaderboard;
     }
 
     /**
-     * Saves the player list to a file for persistence.
+     * Updates the player list with the current player's score and persists it through the scoreboard store.
      *
-     * @param playerList the set of players to save
-     * @throws IOException if an I/O error occurs during saving
+     * <p>The player is updated in memory and moved on the {@link Leaderboard} in O(log n), and the result is
+     * handed to the background {@link ScoreboardWriter}, which group-commits it to the store. The caller only
+     * waits for the disk when the writer's queue is full. Safe to call from many threads at once.</p>
+     *
+     * @param player the player to update
+     * @param difficulty the difficulty level, counted towards its scoreboard column
+     * @param points the points to add
      */
-    public static void save(Set<Player> playerList) throws IOException {
-        File scoreboard = new File("scoreboard.dat");
-        if (!Files.exists(scoreboard.toPath())) {
-            Files.createFile(scoreboard.toPath());
+    public void updateList(Player player, int difficulty, int points) {
+        awaitLoad();
+        UpdateListEvent event = new UpdateListEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int column = difficulties.isLevel(difficulty) ? difficulties.getScoreboardColumn(difficulty) : 0;
+        long epoch;
+        long generation;
+        scoreboardLock.readLock().lock();
+        try {
+            // Register the player on its first finished game, then update the registered instance
+            Player candidate = player;
+            player = playerRegistry.computeIfAbsent(candidate.getName(), name -> candidate);
+            player.recordGame(column, points);
+            leaderboard.update(player);
+            epoch = writer.getEpoch();
+            generation = store.getGeneration(player.getName());
+        } finally {
+            scoreboardLock.readLock().unlock();
         }
+        writer.submit(player, column, points, epoch, generation);
+        metrics.getUpdateListLatency().recordSince(start);
 
-        try (FileOutputStream fileOutputStream = new FileOutputStream(scoreboard);
-             ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream)) {
-
-            objectOutputStream.writeObject(playerList);
-
-        } catch (IOException e) {
-            err.println(ERROR_MSG + e.getMessage());
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = player.getName();
+            event.difficulty = difficulty;
+            event.points = points;
+            event.commit();
         }
     }
 
     /**
-     * Loads the player list from a file at the start of the game.
+     * Retrieves the size of the scoreboard's full copy on disk.
      *
-     * @throws IOException if an I/O error occurs during loading
-     * @throws HandledException if a handled exception occurs
+     * @return the size in bytes, or 0 if it cannot be read
      */
-    public static void load() throws IOException, HandledException {
-        File scoreboard = new File("scoreboard.dat");
-        if (!Files.exists(scoreboard.toPath())) {
-            Files.createFile(scoreboard.toPath());
+    public static long getSnapshotBytes() {
+        try {
+            return store.getSnapshotBytes();
+        } catch (IOException e) {
+            ErrorLog.log(e);
+            return 0;
         }
+    }
 
-        try (FileInputStream fileInputStream = new FileInputStream(scoreboard);
-             ObjectInputStream objectInputStream = new ObjectInputStream(fileInputStream)) {
-
-            playerList = (HashSet<Player>) objectInputStream.readObject();
-
-        } catch (EOFException ignored) {
-            // EOFException added here, so we don't get a message if the scoreboard file is empty
-        } catch (IOException | ClassNotFoundException e) {
-            err.println(ERROR_MSG + e.getMessage());
+    /**
+     * Writes every pending result to the scoreboard store and forces it to disk, and closes the replay journal.
+     * Results recorded afterwards are written straight through by the calling thread.
+     */
+    public static void shutdown() {
+        writer.close();
+        if (recorder != null) {
+            recorder.close();
         }
     }
 
     /**
-     * Retrieves the current list of players.
+     * Retrieves the recorder of the replay journal.
      *
-     * @return the set of players
+     * @return the recorder, or null if no replay journal is configured
      */
-    public static Set<Player> getPlayerList() {
-        return playerList;
+    static SessionRecorder getRecorder() {
+        return recorder;
     }
 
     /**
-     * Updates the player list with the current player's score and saves it.
-     *
-     * @param player the player to update
-     * @param difficulty the difficulty level
-     * @param points the points to add
-     * @param playerList the set of players to update
+     * Compacts the store if it still wants it once the exclusive lock is held. Runs on the writer thread
+     * once a commit leaves the store asking for a compaction. The compaction changes the generation of what
+     * it rewrites, so results still queued for those files are dropped rather than recorded twice.
      */
-    public void updateList(Player player, int difficulty, int points, Set<Player> playerList) {
-        // First update the player itself
-        switch (difficulty) {
-            case 1:
-                player.setEasyCount(player.getEasyCount() + 1);
-                player.setEasyPoints(player.getEasyPoints() + points);
-                break;
-            case 2:
-                player.setMediumCount(player.getMediumCount() + 1);
-                player.setMediumPoints(player.getMediumPoints() + points);
-                break;
-            case 3:
-                player.setHardCount(player.getHardCount() + 1);
-                player.setHardPoints(player.getHardPoints() + points);
-                break;
-            default:
-        }
-
-        playerList.remove(player);
-        playerList.add(player);
-
+    private static void compact() {
+        scoreboardLock.writeLock().lock();
         try {
-            GameModel.save(playerList);
+            if (store.isCompactionDue()) {
+                store.compact(playerRegistry.values());
+            }
         } catch (IOException e) {
-            System.err.println(ERROR_MSG + e.getMessage());
+            ErrorLog.log(e);
+        } finally {
+            scoreboardLock.writeLock().unlock();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,374 @@
+package numberguesser.model;
+
+import numberguesser.HandledException;
+import numberguesser.events.GameEndEvent;
+import numberguesser.events.GuessEvent;
+import numberguesser.events.SessionStartEvent;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The `GameSession` class holds the state of one player's game: the player, the difficulty, the secret
+ * number and its range, the tries left and the points won.
+ *
+ * <p>Sessions are created by {@link GameModel#newSession()} and share that model's difficulty tables and
+ * scoreboard, so one process can run many games at once. A session itself is not thread-safe and is meant
+ * to be driven by one thread at a time; its state is a handful of primitive fields.</p>
+ *
+ * <p>Secret numbers are drawn from the calling thread's generator unless the session is seeded with
+ * {@link #setSeed(long)}, in which case the sequence of secret numbers is the same on every run. When a
+ * replay journal is configured, every game finished through {@link #play(long)} is appended to it by the
+ * {@link SessionRecorder}.</p>
+ *
+ * <p>Starting a game, each guess and the end of a game emit Flight Recorder events. The events are only
+ * filled in when a recording has them enabled, so they cost nothing otherwise.</p>
+ */
+public final class GameSession {
+    private final GameModel model;
+    private Player player;
+    private int difficulty;
+    private int tries;
+    private boolean finished;
+    private long result;
+    private long min;
+    private long max;
+    private int pointsWon;
+    private long lastGuess;
+    private SessionRecorder recorder;
+    private long[] guesses;
+    private int guessCount;
+    private RandomGenerator generator;
+
+    /**
+     * Constructs a session for the specified model.
+     *
+     * @param model the shared game model
+     */
+    GameSession(GameModel model) {
+        this.model = model;
+        this.recorder = GameModel.getRecorder();
+    }
+
+    /**
+     * Sets the game difficulty, its number of tries and draws the secret number for the selected difficulty.
+     *
+     * @param difficulty the game difficulty level
+     * @throws HandledException if no difficulty is set
+     */
+    public void setDifficulty(int difficulty) throws HandledException {
+        DifficultyRegistry difficulties = model.getDifficulties();
+        if (!difficulties.isLevel(difficulty)) {
+            throw new HandledException("VARIABLE_ERROR", "No difficulty set");
+        }
+        RNG range = difficulties.getRange(difficulty);
+        startGame(difficulty, generator == null ? range.next() : range.next(generator));
+    }
+
+    /**
+     * Starts a game on an existing difficulty level with a known secret number, as recorded in a
+     * replay journal.
+     *
+     * @param difficulty the game difficulty level
+     * @param secret the secret number
+     * @throws HandledException if the difficulty level does not exist
+     */
+    void replayGame(int difficulty, long secret) throws HandledException {
+        if (!model.getDifficulties().isLevel(difficulty)) {
+            throw new HandledException("VARIABLE_ERROR", "No difficulty set");
+        }
+        startGame(difficulty, secret);
+    }
+
+    private void startGame(int difficulty, long secret) {
+        DifficultyRegistry difficulties = model.getDifficulties();
+        RNG range = difficulties.getRange(difficulty);
+        this.difficulty = difficulty;
+        this.tries = difficulties.getTries(difficulty);
+        this.finished = false;
+        this.min = range.getMin();
+        this.max = range.getMax();
+        this.result = secret;
+        if (recorder != null) {
+            if (guesses == null || guesses.length < tries) {
+                guesses = new long[tries];
+            }
+            guessCount = 0;
+        }
+
+        SessionStartEvent event = new SessionStartEvent();
+        if (event.shouldCommit()) {
+            event.player = player == null ? null : player.getName();
+            event.difficulty = difficulty;
+            event.min = min;
+            event.max = max;
+            event.tries = tries;
+            event.commit();
+        }
+    }
+
+    /**
+     * Stops recording this session's games, so that replaying a journal does not record it again.
+     */
+    void disableRecording() {
+        this.recorder = null;
+    }
+
+    /**
+     * Seeds the secret numbers of this session's following games, making them reproducible.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.generator = RNG.seeded(seed);
+    }
+
+    /**
+     * Retrieves the current game difficulty.
+     *
+     * @return the difficulty level
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Sets the points won based on the number of tries left.
+     *
+     * @param triesLeft the number of tries left
+     */
+    public void setPointsWon(int triesLeft) {
+        this.pointsWon = model.getDifficulties().getPoints(difficulty, triesLeft);
+    }
+
+    /**
+     * Retrieves the points won in the current game.
+     *
+     * @return the points won
+     */
+    public int getPointsWon() {
+        return pointsWon;
+    }
+
+    /**
+     * Sets the player of this session.
+     *
+     * @param player the player to set
+     */
+    public void setPlayer(Player player) {
+        this.player = player;
+    }
+
+    /**
+     * Retrieves the player of this session.
+     *
+     * @return the current player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Handles the player's guess and updates the game state.
+     *
+     * @param guess the player's guess
+     * @return true if the guess is correct, false otherwise
+     */
+    public boolean handleGuess(long guess) {
+        if (guess != result) {
+            tries--;
+            return false;
+        } else {
+            return true;
+        }
+    }
+
+    /**
+     * Plays a guess and returns its outcome. A guess that wins or loses the game finishes it, and any
+     * further guess is {@link GuessOutcome#INVALID} until the next game is started, so a finished game is
+     * never counted or recorded twice.
+     *
+     * @param guess the player's guess
+     * @return the outcome of the guess, or {@link GuessOutcome#INVALID} if no game is in progress
+     */
+    public GuessOutcome play(long guess) {
+        if (!isInProgress()) {
+            return GuessOutcome.INVALID;
+        }
+
+        GuessOutcome outcome;
+        if (handleGuess(guess)) {
+            outcome = GuessOutcome.WIN;
+        } else if (tries == 0) {
+            outcome = GuessOutcome.LOST;
+        } else {
+            outcome = result > guess ? GuessOutcome.HIGHER : GuessOutcome.LOWER;
+        }
+        finished = outcome.isGameOver();
+
+        if (recorder != null && guessCount < guesses.length) {
+            guesses[guessCount++] = guess;
+            if (outcome.isGameOver()) {
+                recorder.record(player, difficulty, result, guesses, guessCount, outcome);
+            }
+        }
+        emitGuessEvents(guess, outcome);
+        return outcome;
+    }
+
+    private void emitGuessEvents(long guess, GuessOutcome outcome) {
+        GuessEvent event = new GuessEvent();
+        if (event.shouldCommit()) {
+            event.difficulty = difficulty;
+            event.guess = guess;
+            event.outcome = outcome.name();
+            event.triesLeft = tries;
+            event.commit();
+        }
+        if (outcome.isGameOver()) {
+            GameEndEvent end = new GameEndEvent();
+            if (end.shouldCommit()) {
+                end.player = player == null ? null : player.getName();
+                end.difficulty = difficulty;
+                end.outcome = outcome.name();
+                end.triesLeft = tries;
+                end.commit();
+            }
+        }
+    }
+
+    /**
+     * Parses a guess and plays it in a single pass over the input, without allocating.
+     *
+     * @param input the player's guess as text
+     * @return the outcome of the guess, or {@link GuessOutcome#INVALID} if the input is not a whole number
+     *         within the game's range or no game is in progress
+     */
+    public GuessOutcome guess(CharSequence input) {
+        if (!isInProgress() || !parseGuess(input)) {
+            return GuessOutcome.INVALID;
+        }
+        return play(lastGuess);
+    }
+
+    /**
+     * Checks whether the input is a whole number within the game's range, keeping the parsed number
+     * for {@link #getLastGuess()}.
+     *
+     * <p>The input is an optional sign followed by decimal digits. It is read once, accumulating
+     * negatively as {@link Long#parseLong(String)} does so that the whole {@code long} range is accepted,
+     * and rejected as soon as it overflows.</p>
+     *
+     * @param input the player's guess as text
+     * @return true if the input is valid, false otherwise
+     */
+    public boolean parseGuess(CharSequence input) {
+        int length = input == null ? 0 : input.length();
+        if (length == 0) {
+            return false;
+        }
+
+        int i = 0;
+        boolean negative = false;
+        char first = input.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == length) {
+                return false;
+            }
+        }
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < multiplyLimit) {
+                return false;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return false;
+            }
+            value -= digit;
+        }
+
+        long guess = negative ? value : -value;
+        if (guess < min || guess > max) {
+            return false;
+        }
+        lastGuess = guess;
+        return true;
+    }
+
+    /**
+     * Retrieves the number last accepted by {@link #parseGuess(CharSequence)}.
+     *
+     * @return the last parsed guess
+     */
+    public long getLastGuess() {
+        return lastGuess;
+    }
+
+    /**
+     * Resets the game to its initial state, keeping the player. A difficulty must be set again
+     * before the next game.
+     */
+    public void resetGame() {
+        this.difficulty = 0;
+        this.tries = 0;
+        this.pointsWon = 0;
+    }
+
+    /**
+     * Checks whether a game is in progress, i.e. a difficulty is set and the game has been neither won
+     * nor lost.
+     *
+     * @return true if guesses can be made, false otherwise
+     */
+    public boolean isInProgress() {
+        return difficulty != 0 && tries > 0 && !finished;
+    }
+
+    /**
+     * Retrieves the number of tries left in the current game.
+     *
+     * @return the number of tries left
+     */
+    public int getTriesLeft() {
+        return tries;
+    }
+
+    /**
+     * Retrieves the result number for the current game.
+     *
+     * @return the result number
+     */
+    public long getResult() {
+        return result;
+    }
+
+    /**
+     * Retrieves the minimum number for the current game range.
+     *
+     * @return the minimum number
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Retrieves the maximum number for the current game range.
+     *
+     * @return the maximum number
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Records the finished game on the shared scoreboard: the points won, or nothing if the game was lost.
+     */
+    public void recordResult() {
+        model.updateList(player, difficulty, pointsWon);
+    }
+}
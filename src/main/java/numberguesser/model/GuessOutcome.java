@@ -0,0 +1,26 @@
+package numberguesser.model;
+
+/**
+ * The `GuessOutcome` enum lists the possible outcomes of a guess.
+ */
+public enum GuessOutcome {
+    /** The guess was the secret number. */
+    WIN,
+    /** The guess was wrong and no tries are left. */
+    LOST,
+    /** The secret number is higher than the guess. */
+    HIGHER,
+    /** The secret number is lower than the guess. */
+    LOWER,
+    /** The input was not a whole number within the game's range, or no game is in progress. No try was used. */
+    INVALID;
+
+    /**
+     * Checks whether the guess ended the game.
+     *
+     * @return true for {@link #WIN} and {@link #LOST}, false otherwise
+     */
+    public boolean isGameOver() {
+        return this == WIN || this == LOST;
+    }
+}
@@ -0,0 +1,367 @@
+package numberguesser.model;
+
+import numberguesser.ErrorLog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamConstants;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The `JournalScoreboardStore` class keeps the whole scoreboard in memory and persists it as a snapshot
+ * file, a delta file and an append-only {@link ScoreboardJournal}.
+ *
+ * <p>Every finished game appends a single journal record. Once the journal holds
+ * {@value #COMPACTION_THRESHOLD} records, or on an explicit save, the players that changed since the last
+ * full snapshot are written to the delta file, which replaces the previous delta; the full snapshot is only
+ * rewritten once a quarter of the players are in the delta. Players that are missing from the saved list
+ * are therefore only dropped by a full snapshot.</p>
+ *
+ * <p>Snapshot and delta files end with a CRC32C of their contents, are written to a temporary file that is
+ * forced to disk, and are then moved into place with an atomic rename, so a crash never leaves a torn file
+ * behind. The previous full snapshot is kept as {@code scoreboard.dat.prev}: if the current one is missing or
+ * fails its checksum, the scoreboard is loaded from that one instead, along with whatever delta and journal
+ * still apply to it.</p>
+ */
+final class JournalScoreboardStore implements ScoreboardStore {
+    static final Path DEFAULT_SNAPSHOT_PATH = Path.of("scoreboard.dat");
+    static final Path DEFAULT_JOURNAL_PATH = Path.of("scoreboard.journal");
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final int FULL_SNAPSHOT_RATIO = 4;
+    private static final int LEGACY_SNAPSHOT_MAGIC = 0x4E475342; // "NGSB", written without a checksum
+    private static final int SNAPSHOT_MAGIC = 0x4E475343; // "NGSC"
+    private static final int DELTA_MAGIC = 0x4E475344; // "NGSD"
+    // The header of a Java serialization stream, as the oldest snapshots were written
+    private static final int SERIALIZED_MAGIC = (ObjectStreamConstants.STREAM_MAGIC & 0xFFFF) << 16
+            | ObjectStreamConstants.STREAM_VERSION;
+
+    private final Path snapshotPath;
+    private final Path previousSnapshotPath;
+    private final Path deltaPath;
+    private final ScoreboardJournal journal;
+    // The generation of the checksummed full snapshot in place, or -1 if there is none to write deltas against
+    private long snapshotGeneration = -1;
+    // False once the snapshot failed to load, so that it does not replace the good previous snapshot
+    private boolean snapshotIntact = true;
+
+    /**
+     * Constructs a store over the given snapshot and journal files. The delta and the previous snapshot are
+     * kept next to the snapshot.
+     *
+     * @param snapshotPath the snapshot file
+     * @param journalPath the journal file
+     */
+    JournalScoreboardStore(Path snapshotPath, Path journalPath) {
+        this.snapshotPath = snapshotPath;
+        this.previousSnapshotPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".prev");
+        this.deltaPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".delta");
+        this.journal = new ScoreboardJournal(journalPath);
+    }
+
+    /**
+     * Loads the snapshot file, the delta and the journal written since.
+     *
+     * <p>Snapshots written by older versions, without a checksum or as a serialized {@code HashSet}, are
+     * migrated through {@link LegacyScoreboardReader} and rewritten in the current format on the next save.</p>
+     *
+     * @return every stored player keyed by name
+     * @throws IOException if an I/O error occurs during loading
+     */
+    @Override
+    public synchronized Map<String, Player> load() throws IOException {
+        return load(null);
+    }
+
+    /**
+     * Loads the snapshot file, the delta and the journal written since into a map supplied by the caller,
+     * which may be shared with other segments of a {@link ShardedScoreboardStore} loading into it at the
+     * same time.
+     *
+     * @param players the map to add the players to, safe for concurrent use
+     * @throws IOException if an I/O error occurs during loading
+     */
+    @Override
+    public synchronized void loadInto(Map<String, Player> players) throws IOException {
+        load(players);
+    }
+
+    /**
+     * Loads into the given map, or into a new one sized for the snapshot if it is null.
+     */
+    private Map<String, Player> load(Map<String, Player> target) throws IOException {
+        if (!Files.exists(snapshotPath) && !Files.exists(previousSnapshotPath)) {
+            Files.createFile(snapshotPath);
+        }
+
+        Snapshot snapshot = readSnapshot(snapshotPath);
+        snapshotIntact = snapshot != null;
+        if (snapshot == null && Files.exists(previousSnapshotPath)) {
+            snapshot = readSnapshot(previousSnapshotPath);
+            if (snapshot != null) {
+                ErrorLog.log("SNAPSHOT_FALLBACK", "Loaded the scoreboard from " + previousSnapshotPath);
+            }
+        }
+        if (snapshot == null) {
+            snapshot = new Snapshot(0, -1, List.of());
+        }
+
+        Map<String, Player> players = target != null ? target : new ConcurrentHashMap<>(snapshot.players().size());
+        for (Player player : snapshot.players()) {
+            players.put(player.getName(), player);
+        }
+
+        long generation = snapshot.generation();
+        if (snapshot.checksummedGeneration() >= 0) {
+            // A delta still applies to the previous snapshot if a full save was interrupted mid-rename
+            generation = readDelta(snapshot.checksummedGeneration(), generation, players);
+        }
+        // After a fallback the next save rewrites the full snapshot instead of building on the broken one
+        snapshotGeneration = snapshotIntact ? snapshot.checksummedGeneration() : -1;
+
+        journal.replay(generation, players);
+        return players;
+    }
+
+    @Override
+    public synchronized void record(Player player, int difficulty, int points) throws IOException {
+        journal.append(player, difficulty, points);
+    }
+
+    @Override
+    public synchronized void flush(boolean sync) throws IOException {
+        journal.flush(sync);
+    }
+
+    @Override
+    public synchronized boolean isCompactionDue() {
+        return journal.getRecordCount() >= COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Saves the players that changed since the last full snapshot to a new delta file, or all of them to a
+     * new full snapshot, and starts a new, empty journal on top of it.
+     *
+     * <p>A full snapshot is written when there is no checksummed snapshot to build on yet, or when at least
+     * one in {@value #FULL_SNAPSHOT_RATIO} players changed. Both files are {@link PlayerCodec} files: a magic
+     * number, the codec version, the generation (preceded by the snapshot's generation in a delta), the
+     * player count, one record per player and a CRC32C of everything before it. The generation ensures that
+     * a delta or journal written against an older snapshot is never applied twice.</p>
+     *
+     * @param playerList the players to save
+     * @throws IOException if an I/O error occurs during saving
+     */
+    @Override
+    public synchronized void save(Collection<Player> playerList) throws IOException {
+        long generation = journal.getGeneration() + 1;
+        List<Player> dirty = new ArrayList<>();
+        for (Player player : playerList) {
+            if (player.isDirty()) {
+                dirty.add(player);
+            }
+        }
+
+        if (snapshotGeneration < 0 || (long) dirty.size() * FULL_SNAPSHOT_RATIO >= playerList.size()) {
+            writeChecked(snapshotPath, SNAPSHOT_MAGIC, -1, generation, playerList);
+            snapshotGeneration = generation;
+            snapshotIntact = true;
+            Files.deleteIfExists(deltaPath);
+            for (Player player : playerList) {
+                player.markClean();
+            }
+        } else {
+            writeChecked(deltaPath, DELTA_MAGIC, snapshotGeneration, generation, dirty);
+        }
+        journal.reset(generation);
+    }
+
+    @Override
+    public long getGeneration(String name) {
+        return journal.getGeneration();
+    }
+
+    /**
+     * Retrieves the size of the snapshot plus the delta on top of it.
+     *
+     * @return the size in bytes, or 0 if nothing has been written yet
+     * @throws IOException if an I/O error occurs while reading the sizes
+     */
+    @Override
+    public long getSnapshotBytes() throws IOException {
+        return (Files.exists(snapshotPath) ? Files.size(snapshotPath) : 0)
+                + (Files.exists(deltaPath) ? Files.size(deltaPath) : 0);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * The players read from a full snapshot.
+     *
+     * @param generation the generation of the snapshot
+     * @param checksummedGeneration the generation if the snapshot is checksummed and can take a delta, or -1
+     * @param players the players in the snapshot
+     */
+    private record Snapshot(long generation, long checksummedGeneration, List<Player> players) {
+    }
+
+    /**
+     * Reads a full snapshot in any of the supported formats. A file whose magic number is none of them, or
+     * that fails its checksum or cannot be parsed, is reported as corrupt and read as missing, so that the
+     * caller falls back to the previous snapshot and never moves the corrupt file over it.
+     *
+     * @return the snapshot, or null if the file is missing or corrupt
+     */
+    private Snapshot readSnapshot(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < Integer.BYTES) {
+            return new Snapshot(0, -1, List.of());
+        }
+
+        try {
+            int magic = ByteBuffer.wrap(bytes).getInt();
+            if (magic == SNAPSHOT_MAGIC) {
+                if (!checksumMatches(bytes)) {
+                    ErrorLog.log("SNAPSHOT_CORRUPT", "Checksum mismatch in " + path);
+                    return null;
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Integer.BYTES));
+                in.readInt();
+                PlayerCodec.readVersion(in);
+                long generation = in.readLong();
+                return new Snapshot(generation, generation, readPlayers(in, true));
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (magic == LEGACY_SNAPSHOT_MAGIC) {
+                in.readInt();
+                PlayerCodec.readVersion(in);
+                long generation = in.readLong();
+                return new Snapshot(generation, -1, readPlayers(in, false));
+            }
+            if (magic != SERIALIZED_MAGIC) {
+                // Most likely the magic of one of the formats above with a flipped bit
+                ErrorLog.log("SNAPSHOT_CORRUPT", "Unknown snapshot format in " + path);
+                return null;
+            }
+            LegacyScoreboardReader legacyReader = new LegacyScoreboardReader(in);
+            List<Player> players = new ArrayList<>();
+            for (Player player : legacyReader.readPlayers()) {
+                players.add(player);
+            }
+            return new Snapshot(legacyReader.getGeneration(), -1, players);
+        } catch (EOFException e) {
+            ErrorLog.log("SNAPSHOT_CORRUPT", "Truncated snapshot " + path);
+            return null;
+        } catch (ObjectStreamException | ClassNotFoundException | ClassCastException e) {
+            // Unchecksummed formats can only be detected as corrupt by failing to parse them
+            ErrorLog.log("SNAPSHOT_CORRUPT", "Unreadable snapshot " + path + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies the delta file if it is intact and was written against the loaded snapshot.
+     *
+     * @return the generation the journal should carry: the delta's, or the snapshot's if it was not applied
+     */
+    private long readDelta(long baseGeneration, long generation, Map<String, Player> players) throws IOException {
+        if (!Files.exists(deltaPath)) {
+            return generation;
+        }
+        byte[] bytes = Files.readAllBytes(deltaPath);
+        if (bytes.length < Integer.BYTES || !checksumMatches(bytes)) {
+            ErrorLog.log("SNAPSHOT_CORRUPT", "Checksum mismatch in " + deltaPath);
+            return generation;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Integer.BYTES));
+        if (in.readInt() != DELTA_MAGIC) {
+            throw new InvalidObjectException("Not a scoreboard delta: " + deltaPath);
+        }
+        PlayerCodec.readVersion(in);
+        if (in.readLong() != baseGeneration) {
+            // Written against a snapshot that was lost, or left behind by an interrupted full save
+            return generation;
+        }
+        long deltaGeneration = in.readLong();
+        // Players from the delta stay dirty, since the next delta must include them again
+        for (Player player : readPlayers(in, false)) {
+            players.put(player.getName(), player);
+        }
+        return deltaGeneration;
+    }
+
+    private static List<Player> readPlayers(DataInputStream in, boolean clean) throws IOException {
+        int count = in.readInt();
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player = PlayerCodec.read(in);
+            if (clean) {
+                player.markClean();
+            }
+            players.add(player);
+        }
+        return players;
+    }
+
+    private static boolean checksumMatches(byte[] bytes) {
+        int length = bytes.length - Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue() == ByteBuffer.wrap(bytes, length, Integer.BYTES).getInt();
+    }
+
+    /**
+     * Writes a checksummed file next to its destination, forces it to disk and renames it into place. A full
+     * snapshot first moves the current one aside as the previous snapshot.
+     */
+    private void writeChecked(Path path, int magic, long baseGeneration, long generation, Collection<Player> players)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)));
+            out.writeInt(magic);
+            out.writeByte(PlayerCodec.VERSION);
+            if (magic == DELTA_MAGIC) {
+                out.writeLong(baseGeneration);
+            }
+            out.writeLong(generation);
+            out.writeInt(players.size());
+            for (Player player : players) {
+                PlayerCodec.write(out, player);
+            }
+            out.flush();
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            file.getChannel().force(false);
+        }
+
+        if (magic == SNAPSHOT_MAGIC && snapshotIntact && Files.exists(path) && Files.size(path) > 0) {
+            Files.move(path, previousSnapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
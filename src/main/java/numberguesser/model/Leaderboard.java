@@ -0,0 +1,217 @@
+package numberguesser.model;
+
+import numberguesser.ErrorLog;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The `Leaderboard` class ranks the players on the scoreboard by their total points and by their points on
+ * each difficulty level.
+ *
+ * <p>The rankings live in an immutable {@link ScoreboardSnapshot} that is replaced copy-on-write as games
+ * finish: a result moves one player in O(log n) and publishes a new snapshot with a compare-and-set. Ties
+ * are broken alphabetically by name. Nothing is locked: a writer that loses the race to another one builds
+ * its snapshot again on top of the winner's, so games finishing at once never wait for each other here, and
+ * readers take the current snapshot with a single volatile read, so showing the leaderboard never waits for
+ * a game to be recorded. Callers that make several reads which must agree with each other should take one
+ * {@link #snapshot()} and read from it.</p>
+ *
+ * <p>Players kept in a {@link PlayerTable} are ranked by a {@link TableSnapshot}, whose rankings are kept
+ * outside the heap as well. Its recent changes are held on the heap until there are enough of them to merge
+ * into new rankings; the merge runs on a background thread, one at a time, and the changes made while it runs
+ * are carried over onto the merged rankings when they are published.</p>
+ */
+public final class Leaderboard {
+    private static final AtomicReferenceFieldUpdater<Leaderboard, ScoreboardSnapshot> SNAPSHOT =
+            AtomicReferenceFieldUpdater.newUpdater(Leaderboard.class, ScoreboardSnapshot.class, "snapshot");
+
+    private volatile ScoreboardSnapshot snapshot = RankedSnapshot.EMPTY;
+    private final AtomicBoolean merging = new AtomicBoolean();
+
+    /**
+     * The `Ranking` enum lists the orders the leaderboard keeps.
+     */
+    public enum Ranking {
+        /** Total points over every difficulty level. */
+        TOTAL,
+        /** Points won on the easy difficulty. */
+        EASY,
+        /** Points won on the medium difficulty. */
+        MEDIUM,
+        /** Points won on the hard difficulty. */
+        HARD;
+
+        /**
+         * Retrieves the score a player is ranked by.
+         *
+         * @param player the player
+         * @return the player's score for this ranking
+         */
+        public long scoreOf(Player player) {
+            return scoreOf(player.getScore());
+        }
+
+        /**
+         * Retrieves the score a player's score is ranked by.
+         *
+         * @param score the player's score
+         * @return the score for this ranking
+         */
+        public long scoreOf(PlayerScore score) {
+            return switch (this) {
+                case TOTAL -> score.totalPoints();
+                case EASY -> score.easyPoints();
+                case MEDIUM -> score.mediumPoints();
+                case HARD -> score.hardPoints();
+            };
+        }
+    }
+
+    /**
+     * A ranked leaderboard entry.
+     *
+     * @param name the player's name
+     * @param score the player's score for the ranking
+     * @param rank the 1-based position on the ranking
+     */
+    public record Entry(String name, long score, int rank) {
+    }
+
+    /**
+     * Constructs an empty leaderboard.
+     */
+    Leaderboard() {
+    }
+
+    /**
+     * Replaces the leaderboard with the given players, building each ranking in one pass.
+     *
+     * @param players the players to rank
+     */
+    void rebuild(Collection<Player> players) {
+        ScoreboardSnapshot current;
+        ScoreboardSnapshot rebuilt;
+        do {
+            current = snapshot;
+            rebuilt = RankedSnapshot.of(current.getVersion() + 1, players);
+        } while (!SNAPSHOT.compareAndSet(this, current, rebuilt));
+    }
+
+    /**
+     * Replaces the leaderboard with the players in a table, ranked outside the heap. The records are read once,
+     * in order, so the {@link MappedPlayerTable} of the mapped store is streamed from its file and every player
+     * in it is ranked from the start, not only the ones that play after the load.
+     *
+     * @param table the table of the players to rank
+     */
+    void rebuild(PlayerTable table) {
+        // Sorting millions of players takes a while, so it is not redone if the compare-and-set fails
+        TableRankings rankings = TableRankings.build(table);
+        ScoreboardSnapshot current;
+        do {
+            current = snapshot;
+        } while (!SNAPSHOT.compareAndSet(this, current, new TableSnapshot(current.getVersion() + 1, rankings)));
+    }
+
+    /**
+     * Moves a player to its current place on every ranking, adding it if it is not ranked yet.
+     *
+     * @param player the updated player
+     */
+    void update(Player player) {
+        ScoreboardSnapshot current;
+        ScoreboardSnapshot updated;
+        do {
+            // The score is read after the snapshot: a newer score recorded meanwhile is published by its own
+            // update, whose compare-and-set either makes this one fail and retry or succeeds after it
+            current = snapshot;
+            updated = current.with(player.getScore());
+        } while (!SNAPSHOT.compareAndSet(this, current, updated));
+
+        if (updated instanceof TableSnapshot table && table.isMergeDue() && merging.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("leaderboard-merge").daemon().start(() -> merge(table));
+        }
+    }
+
+    /**
+     * Merges the changes of a snapshot into new rankings, and publishes them with the changes made since on
+     * top. Nothing is published if the leaderboard was rebuilt meanwhile.
+     *
+     * @param from the snapshot to merge
+     */
+    private void merge(TableSnapshot from) {
+        try {
+            TableRankings merged = from.merge();
+            ScoreboardSnapshot current;
+            ScoreboardSnapshot rebased;
+            do {
+                current = snapshot;
+                if (!(current instanceof TableSnapshot table) || !table.sharesRankingsWith(from)) {
+                    return;
+                }
+                rebased = table.rebase(from, merged);
+            } while (!SNAPSHOT.compareAndSet(this, current, rebased));
+        } catch (RuntimeException | OutOfMemoryError e) {
+            // The changes stay on the heap, and the next finished game tries again
+            ErrorLog.log(e);
+        } finally {
+            merging.set(false);
+        }
+    }
+
+    /**
+     * Retrieves the current snapshot of the scoreboard, which stays unchanged however many games finish
+     * after it is taken.
+     *
+     * @return the snapshot
+     */
+    public ScoreboardSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Retrieves the best players on a ranking.
+     *
+     * @param ranking the ranking to read
+     * @param count the maximum number of entries
+     * @return up to {@code count} entries, best first
+     */
+    public List<Entry> top(Ranking ranking, int count) {
+        return snapshot.top(ranking, count);
+    }
+
+    /**
+     * Retrieves a page of a ranking.
+     *
+     * @param ranking the ranking to read
+     * @param from the 0-based position of the first entry
+     * @param count the maximum number of entries
+     * @return up to {@code count} entries starting at {@code from}
+     */
+    public List<Entry> page(Ranking ranking, int from, int count) {
+        return snapshot.page(ranking, from, count);
+    }
+
+    /**
+     * Retrieves a player's position on a ranking.
+     *
+     * @param ranking the ranking to read
+     * @param name the player's name
+     * @return the 1-based rank, or 0 if the player is not ranked
+     */
+    public int rankOf(Ranking ranking, String name) {
+        return snapshot.rankOf(ranking, name);
+    }
+
+    /**
+     * Retrieves the number of ranked players.
+     *
+     * @return the player count
+     */
+    public int size() {
+        return snapshot.size();
+    }
+}
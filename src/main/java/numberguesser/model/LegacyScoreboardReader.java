@@ -0,0 +1,117 @@
+package numberguesser.model;
+
+import java.io.EOFException;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectStreamClass;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The `LegacyScoreboardReader` class reads scoreboard files written before {@link PlayerCodec} existed.
+ *
+ * <p>Those files hold a serialized {@code HashSet<Player>} where every counter was written as a boxed
+ * {@code Integer}, optionally followed by the snapshot generation. The stream's {@code Player} class
+ * descriptor is swapped for {@link LegacyPlayer}, which understands the old layout, and the result is
+ * converted into current {@link Player} instances.</p>
+ */
+final class LegacyScoreboardReader extends ObjectInputStream {
+    private long generation;
+
+    /**
+     * Constructs a reader over a legacy scoreboard stream.
+     *
+     * @param in the stream to read from
+     * @throws IOException if the stream header cannot be read
+     */
+    LegacyScoreboardReader(InputStream in) throws IOException {
+        super(in);
+    }
+
+    /**
+     * Reads every player stored in the legacy file.
+     *
+     * @return the migrated players
+     * @throws IOException if an I/O error occurs
+     * @throws ClassNotFoundException if the stream references an unknown class
+     */
+    Set<Player> readPlayers() throws IOException, ClassNotFoundException {
+        Set<?> legacyPlayers = (Set<?>) readObject();
+        try {
+            generation = readLong();
+        } catch (EOFException ignored) {
+            // Snapshots written before the journal existed carry no generation
+        }
+
+        Set<Player> players = new HashSet<>();
+        for (Object legacyPlayer : legacyPlayers) {
+            players.add(((LegacyPlayer) legacyPlayer).toPlayer());
+        }
+        return players;
+    }
+
+    /**
+     * Retrieves the snapshot generation stored after the players, or 0 if there was none.
+     *
+     * @return the snapshot generation
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+        ObjectStreamClass descriptor = super.readClassDescriptor();
+        if (descriptor.getName().equals(Player.class.getName())) {
+            return ObjectStreamClass.lookup(LegacyPlayer.class);
+        }
+        return descriptor;
+    }
+
+    /**
+     * The old serialized form of {@link Player}, with every counter boxed.
+     */
+    public static final class LegacyPlayer implements Externalizable {
+        private static final long serialVersionUID = 1L;
+
+        private String name;
+        private int count1;
+        private int count2;
+        private int count3;
+        private int points1;
+        private int points2;
+        private int points3;
+
+        /**
+         * Constructor required by {@link Externalizable}.
+         */
+        public LegacyPlayer() {
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) {
+            throw new UnsupportedOperationException("Legacy players are read-only");
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            name = (String) in.readObject();
+            count1 = (Integer) in.readObject();
+            count2 = (Integer) in.readObject();
+            count3 = (Integer) in.readObject();
+            points1 = (Integer) in.readObject();
+            points2 = (Integer) in.readObject();
+            points3 = (Integer) in.readObject();
+        }
+
+        private Player toPlayer() {
+            Player player = new Player(name);
+            player.setScore(new PlayerScore(name, count1, count2, count3, points1, points2, points3));
+            return player;
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package numberguesser.model;
+
+import numberguesser.ErrorLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.CRC32C;
+
+/**
+ * The `MappedPlayerTable` class is a {@link PlayerTable} whose records are the pages of a memory-mapped
+ * scoreboard file, so the players are neither read into the heap at startup nor copied anywhere to be saved.
+ *
+ * <p>The file is a {@value #HEADER_SIZE}-byte header followed by {@value #RECORD_SIZE}-byte records, one per
+ * player, stored densely in the order the players were added; a player's number is its record's place in
+ * the file. Each record holds:</p>
+ * <ul>
+ *   <li>a sequence number, odd while the record is being written, which makes the record's seqlock;</li>
+ *   <li>a check word: the upper 24 bits of the CRC32C of the counters and the name, and the name length in
+ *       the low byte;</li>
+ *   <li>the six counters;</li>
+ *   <li>up to {@value #MAX_NAME_BYTES} bytes of UTF-8 name.</li>
+ * </ul>
+ *
+ * <p>A game updates its player's counters and check word in place under the sequence number. When the table
+ * is opened, every record is checked and its name put into an in-memory {@link NameIndex}. A record torn by a
+ * crash fails its check, and is logged and left out by rewriting the file without it; one a crash left with
+ * an odd sequence number but a matching check was either not yet changed or fully changed, and is kept. A file
+ * of the first version, a hash table of the same records without sequence numbers or checks, is rewritten
+ * the same way. The file grows by extending it and mapping the new part, so existing records never move.</p>
+ */
+final class MappedPlayerTable implements PlayerTable {
+    static final int RECORD_SIZE = 128;
+    static final int MAX_NAME_BYTES = 96;
+
+    private static final int MAGIC = 0x4E474D50; // "NGMP"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 128;
+    private static final int VERSION_OFFSET = 4;
+    private static final int COUNT_OFFSET = 8;
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int CHECK_OFFSET = 4;
+    private static final int COUNTERS_OFFSET = 8;
+    private static final int NAME_OFFSET = RECORD_SIZE - MAX_NAME_BYTES;
+    private static final int INITIAL_CAPACITY = 1024;
+    // 2^23 records of 128 bytes keep every mapping at 1 GiB, below the 2 GiB limit of a single buffer
+    private static final int CHUNK_SHIFT = 23;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    // The first version: a 64-byte header with the slot count, and slots whose first int is the name hash
+    private static final int V1_HEADER_SIZE = 64;
+    private static final int V1_CAPACITY_OFFSET = 8;
+    private static final int V1_NAME_LENGTH_OFFSET = 4;
+    // The records are read and written in the file's byte order, which is fixed so it reads the same anywhere
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final StampedLock lock = new StampedLock();
+    private final NameIndex index = new NameIndex(this::holds);
+    // Only replaced under the write lock; volatile so flyweights read the chunk their record was added to
+    private volatile MappedByteBuffer[] chunks;
+    private volatile int size;
+    private int capacity;
+
+    private MappedPlayerTable(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            this.capacity = (int) Math.max(0, Math.min((channel.size() - HEADER_SIZE) / RECORD_SIZE, Integer.MAX_VALUE));
+            this.chunks = map(channel, new MappedByteBuffer[0], capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a mapped scoreboard file, creating it if needed, and indexes its players. A file of the first
+     * version, or one with torn or damaged records, is rewritten first.
+     *
+     * @param path the mapped scoreboard file
+     * @return the table
+     * @throws IOException if the file cannot be read, rewritten or mapped, or is not a mapped scoreboard
+     */
+    static MappedPlayerTable open(Path path) throws IOException {
+        if (Files.notExists(path) || Files.size(path) == 0) {
+            create(path);
+        }
+        int version = readVersion(path);
+        if (version == 1) {
+            rewrite(path, 1);
+        } else if (version != VERSION) {
+            throw new IOException("Unknown mapped scoreboard version " + version + ": " + path);
+        }
+
+        MappedPlayerTable table = new MappedPlayerTable(path);
+        if (table.indexRecords()) {
+            return table;
+        }
+        table.close();
+        rewrite(path, VERSION);
+        table = new MappedPlayerTable(path);
+        table.indexRecords();
+        return table;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int find(String name) {
+        int hash = NameBytes.hash(name);
+        long stamp = lock.tryOptimisticRead();
+        int id = index.find(name, hash);
+        if (lock.validate(stamp)) {
+            return id;
+        }
+        stamp = lock.readLock();
+        try {
+            return index.find(name, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds a player unless one with the same name is already in the table. The record is written before the
+     * header counts it, so a crash in between leaves the record out.
+     *
+     * @param name the player's name, at most {@value #MAX_NAME_BYTES} bytes of UTF-8
+     * @param score the player's initial counters
+     * @param dirty ignored, since the record is written in place
+     * @return the number of the added player, or the complement ({@code ~}) of the existing one's
+     * @throws IllegalArgumentException if the name does not fit in a record
+     * @throws UncheckedIOException if the file cannot be extended
+     */
+    @Override
+    public int add(String name, PlayerScore score, boolean dirty) {
+        int hash = NameBytes.hash(name);
+        long stamp = lock.writeLock();
+        try {
+            int existing = index.find(name, hash);
+            if (existing >= 0) {
+                return ~existing;
+            }
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            if (encoded.length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Player name exceeds " + MAX_NAME_BYTES + " bytes: " + name);
+            }
+            int id = size;
+            if (id == capacity) {
+                grow();
+            }
+            ByteBuffer chunk = chunkOf(id);
+            int base = offsetOf(id);
+            chunk.put(base + NAME_OFFSET, encoded);
+            writeCounters(chunk, base, score);
+            chunk.putInt(base + CHECK_OFFSET, check(chunk, base, encoded.length));
+            header.putInt(COUNT_OFFSET, id + 1);
+            index.insert(hash, id);
+            size = id + 1;
+            return id;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String name(int id) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        byte[] encoded = new byte[nameLength(chunk, base)];
+        chunk.get(base + NAME_OFFSET, encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int compareNames(int id, int other) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        ByteBuffer otherChunk = chunkOf(other);
+        int otherBase = offsetOf(other);
+        return NameBytes.compare(chunk, base + NAME_OFFSET, nameLength(chunk, base),
+                otherChunk, otherBase + NAME_OFFSET, nameLength(otherChunk, otherBase));
+    }
+
+    @Override
+    public int compareName(int id, String name) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        return NameBytes.compare(chunk, base + NAME_OFFSET, nameLength(chunk, base), name);
+    }
+
+    @Override
+    public PlayerScore score(int id, String name) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        int at = base + COUNTERS_OFFSET;
+        while (true) {
+            int sequence = (int) INT.getAcquire(chunk, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0) {
+                PlayerScore score = new PlayerScore(name, chunk.getInt(at), chunk.getInt(at + 4), chunk.getInt(at + 8),
+                        chunk.getInt(at + 12), chunk.getInt(at + 16), chunk.getInt(at + 20));
+                VarHandle.acquireFence();
+                if ((int) INT.getOpaque(chunk, base + SEQUENCE_OFFSET) == sequence) {
+                    return score;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void copyCounters(int id, ByteBuffer target, int offset) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        while (true) {
+            int sequence = (int) INT.getAcquire(chunk, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0) {
+                for (int i = 0; i < 6; i++) {
+                    target.putInt(offset + i * Integer.BYTES, chunk.getInt(base + COUNTERS_OFFSET + i * Integer.BYTES));
+                }
+                VarHandle.acquireFence();
+                if ((int) INT.getOpaque(chunk, base + SEQUENCE_OFFSET) == sequence) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void recordGame(int id, int difficulty, int points) {
+        if (difficulty < 1 || difficulty > 3) {
+            return;
+        }
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        int sequence = lockRecord(chunk, base);
+        int count = base + COUNTERS_OFFSET + (difficulty - 1) * Integer.BYTES;
+        int total = count + 3 * Integer.BYTES;
+        chunk.putInt(count, chunk.getInt(count) + 1);
+        chunk.putInt(total, chunk.getInt(total) + points);
+        chunk.putInt(base + CHECK_OFFSET, check(chunk, base, nameLength(chunk, base)));
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    @Override
+    public void setScore(int id, PlayerScore score, boolean dirty) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        int sequence = lockRecord(chunk, base);
+        writeCounters(chunk, base, score);
+        chunk.putInt(base + CHECK_OFFSET, check(chunk, base, nameLength(chunk, base)));
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    @Override
+    public boolean replaceScore(int id, PlayerScore expected, PlayerScore score) {
+        ByteBuffer chunk = chunkOf(id);
+        int base = offsetOf(id);
+        int sequence = lockRecord(chunk, base);
+        int at = base + COUNTERS_OFFSET;
+        boolean replaced = chunk.getInt(at) == expected.easyCount() && chunk.getInt(at + 4) == expected.mediumCount()
+                && chunk.getInt(at + 8) == expected.hardCount() && chunk.getInt(at + 12) == expected.easyPoints()
+                && chunk.getInt(at + 16) == expected.mediumPoints() && chunk.getInt(at + 20) == expected.hardPoints();
+        if (replaced) {
+            writeCounters(chunk, base, score);
+            chunk.putInt(base + CHECK_OFFSET, check(chunk, base, nameLength(chunk, base)));
+        }
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+        return replaced;
+    }
+
+    /**
+     * Always returns false, since every change is made to the file itself.
+     *
+     * @param id the player's number
+     * @return false
+     */
+    @Override
+    public boolean isDirty(int id) {
+        return false;
+    }
+
+    /**
+     * Does nothing, since a player is never dirty.
+     *
+     * @param id the player's number
+     */
+    @Override
+    public void markClean(int id) {
+    }
+
+    /**
+     * Forces the header and every record to the storage device. Players added meanwhile may or may not be
+     * forced with them.
+     */
+    void force() {
+        header.force();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /**
+     * Forces the file to the storage device and closes it. The mappings stay valid until they are collected,
+     * so views of the players that are still held keep reading and writing the file's pages.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Checks every counted record and puts the good ones into the index, logging the others.
+     *
+     * @return true if every record is good, false if the file has to be rewritten without the bad ones
+     */
+    private boolean indexRecords() {
+        int count = header.getInt(COUNT_OFFSET);
+        boolean intact = true;
+        if (count < 0 || count > capacity) {
+            ErrorLog.log("RECORD_CORRUPT", "Mapped scoreboard " + path + " counts " + count
+                    + " records but has room for " + capacity);
+            count = Math.max(0, Math.min(count, capacity));
+            intact = false;
+        }
+        for (int id = 0; id < count; id++) {
+            ByteBuffer chunk = chunkOf(id);
+            int base = offsetOf(id);
+            int sequence = chunk.getInt(base + SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                chunk.putInt(base + SEQUENCE_OFFSET, sequence + 1);
+            }
+            if (!isIntact(chunk, base)) {
+                ErrorLog.log("RECORD_CORRUPT", "Record " + id + " of mapped scoreboard " + path
+                        + " is torn or damaged and is left out");
+                intact = false;
+                continue;
+            }
+            if (intact) {
+                index.insert(NameBytes.hash(chunk, base + NAME_OFFSET, nameLength(chunk, base)), id);
+            }
+        }
+        size = count;
+        return intact;
+    }
+
+    private boolean holds(int id, String name) {
+        MappedByteBuffer[] mapped = chunks;
+        if (id < 0 || id >>> CHUNK_SHIFT >= mapped.length) {
+            return false;
+        }
+        ByteBuffer chunk = mapped[id >>> CHUNK_SHIFT];
+        if ((id & CHUNK_MASK) >= chunk.capacity() / RECORD_SIZE) {
+            return false;
+        }
+        int base = offsetOf(id);
+        int length = nameLength(chunk, base);
+        return length <= MAX_NAME_BYTES && NameBytes.equals(chunk, base + NAME_OFFSET, length, name);
+    }
+
+    /**
+     * Doubles the room for records, or adds one chunk's worth once a chunk is full, by extending the file and
+     * mapping what was added. The chunks already mapped in full are kept, so records read through them stay
+     * where they are.
+     */
+    private void grow() {
+        long doubled = capacity < 1 << CHUNK_SHIFT ? Math.max(INITIAL_CAPACITY, capacity * 2L) : capacity + (1L << CHUNK_SHIFT);
+        int grown = (int) Math.min(doubled, Integer.MAX_VALUE);
+        if (grown <= capacity) {
+            throw new IllegalStateException("Mapped player table is full: " + size + " players");
+        }
+        try {
+            // Extending the file through its last byte leaves the new records sparse and zeroed
+            channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) grown * RECORD_SIZE - 1);
+            chunks = map(channel, chunks, grown);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        capacity = grown;
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, MappedByteBuffer[] mapped, int capacity)
+            throws IOException {
+        int chunkCount = (int) (((long) capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        MappedByteBuffer[] chunks = Arrays.copyOf(mapped, chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            long firstRecord = (long) i << CHUNK_SHIFT;
+            long records = Math.min(capacity - firstRecord, 1L << CHUNK_SHIFT);
+            if (chunks[i] == null || chunks[i].capacity() != records * RECORD_SIZE) {
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_SIZE + firstRecord * RECORD_SIZE, records * RECORD_SIZE);
+            }
+        }
+        return chunks;
+    }
+
+    private static void create(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(channel, 0);
+            channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) INITIAL_CAPACITY * RECORD_SIZE - 1);
+        }
+    }
+
+    private static int readVersion(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(V1_HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a mapped scoreboard file: " + path);
+            }
+            return header.getInt(VERSION_OFFSET);
+        }
+    }
+
+    /**
+     * Copies the good records of a file, in their order, to a new file of the current version and moves it
+     * over the old one. A first-version file is read slot by slot, skipping the empty ones; a current one is
+     * read up to its count, skipping the records that are torn or damaged.
+     */
+    private static void rewrite(Path path, int version) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = source.map(FileChannel.MapMode.READ_ONLY, 0, V1_HEADER_SIZE);
+            long headerSize = version == 1 ? V1_HEADER_SIZE : HEADER_SIZE;
+            long slots = (source.size() - headerSize) / RECORD_SIZE;
+            if (version == 1) {
+                slots = Math.min(slots, Integer.toUnsignedLong(header.getInt(V1_CAPACITY_OFFSET)));
+            } else {
+                slots = Math.min(slots, Math.max(0, header.getInt(COUNT_OFFSET)));
+            }
+
+            ByteBuffer batch = ByteBuffer.allocate(RECORD_SIZE * 1024);
+            long position = HEADER_SIZE;
+            int count = 0;
+            ByteBuffer chunk = null;
+            for (long slot = 0; slot < slots; slot++) {
+                if ((slot & CHUNK_MASK) == 0) {
+                    chunk = source.map(FileChannel.MapMode.READ_ONLY, headerSize + slot * RECORD_SIZE,
+                            Math.min(slots - slot, 1L << CHUNK_SHIFT) * RECORD_SIZE);
+                }
+                int base = offsetOf((int) (slot & CHUNK_MASK));
+                int length;
+                if (version == 1) {
+                    length = chunk.getInt(base) == 0 ? -1 : chunk.getShort(base + V1_NAME_LENGTH_OFFSET);
+                } else {
+                    length = isIntact(chunk, base) ? nameLength(chunk, base) : -1;
+                }
+                if (length < 0 || length > MAX_NAME_BYTES) {
+                    continue;
+                }
+
+                // The batch is zeroed, so the sequence number starts at 0 and the name is padded with zeros
+                int record = batch.position();
+                batch.position(record + COUNTERS_OFFSET);
+                batch.put(chunk.slice(base + COUNTERS_OFFSET, NAME_OFFSET - COUNTERS_OFFSET + length));
+                batch.putInt(record + CHECK_OFFSET, check(batch, record, length));
+                batch.position(record + RECORD_SIZE);
+                count++;
+                if (!batch.hasRemaining()) {
+                    position += write(target, batch, position);
+                }
+            }
+            position += write(target, batch, position);
+            long capacity = Math.max(INITIAL_CAPACITY, Long.highestOneBit(Math.max(1, count)) * 2);
+            if (position < HEADER_SIZE + capacity * RECORD_SIZE) {
+                target.write(ByteBuffer.allocate(1), HEADER_SIZE + capacity * RECORD_SIZE - 1);
+            }
+            writeHeader(target, count);
+            target.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int write(FileChannel channel, ByteBuffer batch, long position) throws IOException {
+        batch.flip();
+        int written = batch.remaining();
+        while (batch.hasRemaining()) {
+            position += channel.write(batch, position);
+        }
+        // Zero the batch, since records only fill the part of it their names take
+        Arrays.fill(batch.array(), (byte) 0);
+        batch.clear();
+        return written;
+    }
+
+    private static void writeHeader(FileChannel channel, int count) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC).putInt(VERSION_OFFSET, VERSION).putInt(COUNT_OFFSET, count);
+        channel.write(header, 0);
+    }
+
+    /**
+     * Checks that a record's counters and name match its check word.
+     */
+    private static boolean isIntact(ByteBuffer chunk, int base) {
+        int length = nameLength(chunk, base);
+        return length <= MAX_NAME_BYTES
+                && chunk.getInt(base + CHECK_OFFSET) == check(chunk, base, length);
+    }
+
+    /**
+     * Computes a record's check word: the upper 24 bits of the CRC32C of its counters and name, and the name
+     * length in the low byte.
+     */
+    private static int check(ByteBuffer chunk, int base, int nameLength) {
+        CRC32C crc = new CRC32C();
+        crc.update(chunk.slice(base + COUNTERS_OFFSET, NAME_OFFSET - COUNTERS_OFFSET + nameLength));
+        return (int) crc.getValue() & ~0xFF | nameLength;
+    }
+
+    /**
+     * Waits for a record's sequence number to be even and makes it odd.
+     *
+     * @return the even sequence number the record had
+     */
+    private static int lockRecord(ByteBuffer chunk, int base) {
+        while (true) {
+            int sequence = (int) INT.getAcquire(chunk, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0 && INT.compareAndSet(chunk, base + SEQUENCE_OFFSET, sequence, sequence + 1)) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void writeCounters(ByteBuffer chunk, int base, PlayerScore score) {
+        int at = base + COUNTERS_OFFSET;
+        chunk.putInt(at, score.easyCount());
+        chunk.putInt(at + 4, score.mediumCount());
+        chunk.putInt(at + 8, score.hardCount());
+        chunk.putInt(at + 12, score.easyPoints());
+        chunk.putInt(at + 16, score.mediumPoints());
+        chunk.putInt(at + 20, score.hardPoints());
+    }
+
+    private static int nameLength(ByteBuffer chunk, int base) {
+        return chunk.getInt(base + CHECK_OFFSET) & 0xFF;
+    }
+
+    private ByteBuffer chunkOf(int id) {
+        return chunks[id >>> CHUNK_SHIFT];
+    }
+
+    private static int offsetOf(int id) {
+        return (id & CHUNK_MASK) * RECORD_SIZE;
+    }
+}
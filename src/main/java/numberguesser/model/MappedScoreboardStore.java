@@ -0,0 +1,169 @@
+package numberguesser.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The `MappedScoreboardStore` class keeps the scoreboard in a memory-mapped file of fixed-size player records.
+ *
+ * <p>The file is laid out and checked by a {@link MappedPlayerTable}, and {@link #load()} returns the table
+ * itself as an {@link OffHeapPlayerRegistry}: nothing is copied into the heap, the players' flyweights read
+ * and write their records in place, and the operating system pages the file in and out as needed. Recording
+ * a game therefore has nothing left to write; {@link #flush(boolean)} and {@link #save(Collection)} only
+ * force the mapping to disk.</p>
+ */
+final class MappedScoreboardStore implements ScoreboardStore {
+    static final Path DEFAULT_PATH = Path.of("scoreboard.map");
+
+    private final Path path;
+    private MappedPlayerTable table;
+
+    /**
+     * Constructs a store over the given file. The file is not opened until the store is loaded.
+     *
+     * @param path the mapped scoreboard file
+     */
+    MappedScoreboardStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Maps the scoreboard file, creating it if needed, and indexes the players' names. No player is read into
+     * the heap.
+     *
+     * @return a registry over the records of the file
+     * @throws IOException if the file cannot be mapped or is not a mapped scoreboard
+     */
+    @Override
+    public synchronized Map<String, Player> load() throws IOException {
+        close();
+        table = MappedPlayerTable.open(path);
+        return new OffHeapPlayerRegistry(table);
+    }
+
+    /**
+     * Always returns true, since {@link #load()} returns a view of the file.
+     *
+     * @return true
+     */
+    @Override
+    public boolean keepsPlayersOffHeap() {
+        return true;
+    }
+
+    /**
+     * Writes a player's counters to its record, unless the player is a view of the record, which the game
+     * has already updated in place.
+     *
+     * @param player the updated player
+     * @param difficulty the difficulty level of the game
+     * @param points the points won in the game
+     * @throws IOException if the file cannot be opened or extended
+     */
+    @Override
+    public void record(Player player, int difficulty, int points) throws IOException {
+        write(openTable(), player);
+    }
+
+    /**
+     * Forces the mapped file to disk if asked to; records are written to the mapping as they are recorded.
+     *
+     * @param sync true to force the mapping to the storage device
+     */
+    @Override
+    public synchronized void flush(boolean sync) {
+        if (sync && table != null) {
+            table.force();
+        }
+    }
+
+    /**
+     * Always returns false, since records are updated in place.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isCompactionDue() {
+        return false;
+    }
+
+    /**
+     * Writes the given players that are not views of their records in place, and forces the file to disk.
+     *
+     * @param playerList the players to save
+     * @throws IOException if an I/O error occurs during saving
+     */
+    @Override
+    public synchronized void save(Collection<Player> playerList) throws IOException {
+        MappedPlayerTable table = openTable();
+        for (Player player : playerList) {
+            write(table, player);
+        }
+        table.force();
+    }
+
+    @Override
+    public long getSnapshotBytes() throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Checks whether a name fits in the {@value MappedPlayerTable#MAX_NAME_BYTES} bytes a record has for it.
+     * A name with a lone surrogate is turned away as well, since it would be stored as another name.
+     *
+     * @param name the player's name
+     * @return true if the name is well-formed and at most {@value MappedPlayerTable#MAX_NAME_BYTES} bytes of
+     *         UTF-8, false otherwise
+     */
+    @Override
+    public boolean acceptsName(String name) {
+        return NameBytes.isWellFormed(name)
+                && name.getBytes(StandardCharsets.UTF_8).length <= MappedPlayerTable.MAX_NAME_BYTES;
+    }
+
+    /**
+     * Retrieves the number of players stored in the file.
+     *
+     * @return the player count
+     * @throws IOException if the file cannot be opened
+     */
+    int size() throws IOException {
+        return openTable().size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (table != null) {
+            table.close();
+            table = null;
+        }
+    }
+
+    private static void write(MappedPlayerTable table, Player player) throws IOException {
+        if (player instanceof OffHeapPlayer view && view.isIn(table)) {
+            return;
+        }
+        try {
+            int id = table.add(player.getName(), player.getScore(), false);
+            if (id < 0) {
+                table.setScore(~id, player.getScore(), false);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized MappedPlayerTable openTable() throws IOException {
+        if (table == null) {
+            table = MappedPlayerTable.open(path);
+        }
+        return table;
+    }
+}
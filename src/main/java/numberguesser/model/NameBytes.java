@@ -0,0 +1,223 @@
+package numberguesser.model;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * The `NameBytes` class works on players' names in the UTF-8 form the off-heap tables store them in,
+ * without decoding the stored bytes or encoding the name into a new array.
+ *
+ * <p>A name is walked as the bytes {@link String#getBytes(java.nio.charset.Charset)} would give for it, so
+ * a lone surrogate counts as the {@code '?'} it is stored as. The hash is seeded once per run, so that
+ * names cannot be picked to collide the way {@link String#hashCode()} collides ("Aa" and "BB"), and the
+ * same name gives the same hash whether it is hashed as a string or as the bytes of a record.</p>
+ *
+ * <p>Names are compared in the order of {@link String#compareTo(String)}, so that tables sorted on their
+ * stored bytes agree with indexes sorted on the decoded names. UTF-8 sorts by code point, which is the
+ * order of UTF-16 chars except that the chars {@code U+E000} to {@code U+FFFF} come after the surrogate
+ * pairs of the supplementary code points; that is the one case, a lead byte {@code 0xEE} or {@code 0xEF}
+ * against one of {@code 0xF0} and above, where the byte order is turned around.</p>
+ */
+final class NameBytes {
+    private static final long SEED = new SplittableRandom().nextLong();
+
+    private NameBytes() {
+    }
+
+    /**
+     * Hashes a name's UTF-8 bytes.
+     *
+     * @param name the name
+     * @return the seeded hash
+     */
+    static int hash(String name) {
+        long h = SEED;
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = codePointAt(name, i);
+            int length = encodedLength(codePoint);
+            for (int k = 0; k < length; k++) {
+                h = mix(h, encodedByte(codePoint, length, k));
+            }
+            i += Character.charCount(codePoint);
+        }
+        return finish(h);
+    }
+
+    /**
+     * Hashes a name stored as UTF-8 bytes, giving the same hash as {@link #hash(String)} gives for the name.
+     *
+     * @param buffer the buffer holding the bytes
+     * @param offset the position of the first byte
+     * @param length the number of bytes
+     * @return the seeded hash
+     */
+    static int hash(ByteBuffer buffer, int offset, int length) {
+        long h = SEED;
+        for (int i = 0; i < length; i++) {
+            h = mix(h, buffer.get(offset + i) & 0xFF);
+        }
+        return finish(h);
+    }
+
+    /**
+     * Checks whether stored bytes are the UTF-8 encoding of a name.
+     *
+     * @param buffer the buffer holding the bytes
+     * @param offset the position of the first byte
+     * @param length the number of bytes
+     * @param name the name
+     * @return true if the bytes encode the name, false otherwise
+     */
+    static boolean equals(ByteBuffer buffer, int offset, int length, String name) {
+        int at = 0;
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = codePointAt(name, i);
+            int encoded = encodedLength(codePoint);
+            if (at + encoded > length) {
+                return false;
+            }
+            for (int k = 0; k < encoded; k++) {
+                if ((buffer.get(offset + at++) & 0xFF) != encodedByte(codePoint, encoded, k)) {
+                    return false;
+                }
+            }
+            i += Character.charCount(codePoint);
+        }
+        return at == length;
+    }
+
+    /**
+     * Compares two names stored as UTF-8 bytes in the order of {@link String#compareTo(String)}.
+     *
+     * @param buffer the buffer holding the first name
+     * @param offset the position of the first name's first byte
+     * @param length the number of bytes of the first name
+     * @param other the buffer holding the second name
+     * @param otherOffset the position of the second name's first byte
+     * @param otherLength the number of bytes of the second name
+     * @return a negative number, zero or a positive number as the first name is less than, equal to or
+     *         greater than the second
+     */
+    static int compare(ByteBuffer buffer, int offset, int length, ByteBuffer other, int otherOffset, int otherLength) {
+        int common = Math.min(length, otherLength);
+        for (int i = 0; i < common; i++) {
+            int b = buffer.get(offset + i) & 0xFF;
+            int otherByte = other.get(otherOffset + i) & 0xFF;
+            if (b != otherByte) {
+                return compareBytes(b, otherByte);
+            }
+        }
+        return Integer.compare(length, otherLength);
+    }
+
+    /**
+     * Compares a name stored as UTF-8 bytes with a name in the order of {@link String#compareTo(String)}.
+     *
+     * @param buffer the buffer holding the stored name
+     * @param offset the position of the stored name's first byte
+     * @param length the number of bytes of the stored name
+     * @param name the name to compare it with
+     * @return a negative number, zero or a positive number as the stored name is less than, equal to or
+     *         greater than {@code name}
+     */
+    static int compare(ByteBuffer buffer, int offset, int length, String name) {
+        int at = 0;
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = codePointAt(name, i);
+            int encoded = encodedLength(codePoint);
+            for (int k = 0; k < encoded; k++) {
+                if (at == length) {
+                    return -1;
+                }
+                int b = buffer.get(offset + at++) & 0xFF;
+                int nameByte = encodedByte(codePoint, encoded, k);
+                if (b != nameByte) {
+                    return compareBytes(b, nameByte);
+                }
+            }
+            i += Character.charCount(codePoint);
+        }
+        return at == length ? 0 : 1;
+    }
+
+    /**
+     * Checks whether a name reads back unchanged once stored as UTF-8, which a name with a lone surrogate
+     * does not: the surrogate comes back as {@code '?'}.
+     *
+     * @param name the name
+     * @return true if every surrogate in the name is part of a pair, false otherwise
+     */
+    static boolean isWellFormed(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Orders the first bytes that differ between two names, which both start a code point or are both
+     * inside the same kind of code point.
+     */
+    private static int compareBytes(int b, int other) {
+        if (b >= 0xEE && other >= 0xEE && b >= 0xF0 != other >= 0xF0) {
+            // A supplementary code point is a surrogate pair in UTF-16, which sorts before U+E000 to U+FFFF
+            return b >= 0xF0 ? -1 : 1;
+        }
+        return b - other;
+    }
+
+    /**
+     * Retrieves the code point at a position as it is encoded: a lone surrogate is encoded as {@code '?'}.
+     */
+    private static int codePointAt(String name, int i) {
+        char c = name.charAt(i);
+        if (!Character.isSurrogate(c)) {
+            return c;
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+            return Character.toCodePoint(c, name.charAt(i + 1));
+        }
+        return '?';
+    }
+
+    private static int encodedLength(int codePoint) {
+        return codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+
+    /**
+     * Retrieves one byte of a code point's UTF-8 encoding.
+     *
+     * @param k the 0-based index of the byte, less than {@code length}
+     */
+    private static int encodedByte(int codePoint, int length, int k) {
+        if (length == 1) {
+            return codePoint;
+        }
+        int shift = 6 * (length - 1 - k);
+        if (k == 0) {
+            // The lead byte: as many high ones as there are bytes, then the top bits of the code point
+            return (0xFF00 >> length) & 0xFF | codePoint >> shift;
+        }
+        return 0x80 | (codePoint >> shift) & 0x3F;
+    }
+
+    private static long mix(long h, int b) {
+        return (h ^ b) * 0x100000001B3L;
+    }
+
+    /**
+     * Spreads every bit of the state over the upper half with the finalizer of MurmurHash3, and keeps it.
+     */
+    private static int finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return (int) ((h ^ (h >>> 33)) >>> 32);
+    }
+}
@@ -0,0 +1,126 @@
+package numberguesser.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The `NameIndex` class finds players' numbers in a {@link PlayerTable} by name, in direct memory.
+ *
+ * <p>It is an open-addressing table of {@code long} entries, the name hash in the upper half and the player
+ * number plus one in the lower half (0 marks an empty slot), probed linearly and doubled when it is more than
+ * half full. The hash is the seeded {@link NameBytes#hash(String)} of the name's bytes, so names cannot be
+ * picked to pile up on one run of slots. The index holds no names: an entry whose hash matches is checked
+ * against the table through {@link Names}.</p>
+ *
+ * <p>Entries are only added, by one thread at a time. A lookup may run at the same time as an insert, as the
+ * tables' optimistic reads do, and then reads either buffer and possibly a half-written entry, which can only
+ * make it return a wrong answer for the caller to discard.</p>
+ */
+final class NameIndex {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    // 2^27 entries of 8 bytes keep the index in a single 1 GiB buffer
+    private static final int MAX_CAPACITY = 1 << 27;
+
+    /**
+     * The `Names` interface checks a candidate player number against the name being looked up.
+     */
+    @FunctionalInterface
+    interface Names {
+
+        /**
+         * Checks whether a player number holds a name. The number comes from the index and may be any value
+         * while an insert is racing the lookup, so it must be bound-checked before it is followed.
+         *
+         * @param id the candidate player number
+         * @param name the name being looked up
+         * @return true if the player has that name, false otherwise
+         */
+        boolean holds(int id, String name);
+    }
+
+    private final Names names;
+    private ByteBuffer entries = allocate(INITIAL_CAPACITY);
+    private int count;
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param names checks the entries whose hash matches against the table
+     */
+    NameIndex(Names names) {
+        this.names = names;
+    }
+
+    /**
+     * Looks up a name.
+     *
+     * @param name the name
+     * @param hash the name's {@link NameBytes#hash(String)}
+     * @return the player number, or -1 if the name is not in the index
+     */
+    int find(String name, int hash) {
+        ByteBuffer table = entries;
+        int mask = table.capacity() / Long.BYTES - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long entry = table.getLong(slot * Long.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if ((int) (entry >>> 32) == hash && names.holds((int) entry - 1, name)) {
+                return (int) entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Adds a player number under a name's hash, growing the index first if it would be more than half full.
+     *
+     * @param hash the name's {@link NameBytes#hash(String)}
+     * @param id the player number
+     * @throws IllegalStateException if the index cannot grow any further
+     */
+    void insert(int hash, int id) {
+        if ((long) (count + 1) * 2 > entries.capacity() / Long.BYTES) {
+            grow();
+        }
+        insert(entries, hash, id);
+        count++;
+    }
+
+    /**
+     * Retrieves the number of bytes of direct memory the index holds.
+     *
+     * @return the off-heap size in bytes
+     */
+    long getOffHeapBytes() {
+        return entries.capacity();
+    }
+
+    private void grow() {
+        int capacity = entries.capacity() / Long.BYTES * 2;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Player name index is full: " + count + " players");
+        }
+        ByteBuffer grown = allocate(capacity);
+        for (int slot = 0; slot < entries.capacity() / Long.BYTES; slot++) {
+            long entry = entries.getLong(slot * Long.BYTES);
+            if (entry != 0) {
+                insert(grown, (int) (entry >>> 32), (int) entry - 1);
+            }
+        }
+        entries = grown;
+    }
+
+    private static void insert(ByteBuffer table, int hash, int id) {
+        int mask = table.capacity() / Long.BYTES - 1;
+        int slot = hash & mask;
+        while (table.getLong(slot * Long.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.putLong(slot * Long.BYTES, (long) hash << 32 | (id + 1L));
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,96 @@
+package numberguesser.model;
+
+import java.io.Serial;
+
+/**
+ * The `OffHeapPlayer` class is a flyweight view of one record in a {@link PlayerTable}.
+ *
+ * <p>It holds nothing but the table, the record number and the name, so it can be created for each lookup
+ * and dropped right after. Every read and change goes straight to the record, so all the views of the same
+ * player see the same counters. A view is serialized as a heap {@link Player} holding a copy of the record,
+ * and is read back as one.</p>
+ */
+// No public no-arg constructor is needed: writeReplace means a view is never read back as an OffHeapPlayer
+@SuppressWarnings("serial")
+final class OffHeapPlayer extends Player {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient PlayerTable table;
+    private final transient int id;
+
+    /**
+     * Constructs a view of a record.
+     *
+     * @param table the table holding the record
+     * @param id the record number
+     * @param name the player's name
+     */
+    OffHeapPlayer(PlayerTable table, int id, String name) {
+        super(name, null);
+        this.table = table;
+        this.id = id;
+    }
+
+    /**
+     * Checks whether this is a view of a record in the given table.
+     *
+     * @param table the table
+     * @return true if the record is in that table, false otherwise
+     */
+    boolean isIn(PlayerTable table) {
+        return this.table == table;
+    }
+
+    /**
+     * Replaces the view with a heap copy of the player when it is serialized, since the record it reads
+     * from cannot be serialized with it.
+     *
+     * @return a heap player with the name and counters of the record
+     */
+    @Serial
+    private Object writeReplace() {
+        return new Player(getName(), getScore());
+    }
+
+    @Override
+    public PlayerScore getScore() {
+        return table.score(id, getName());
+    }
+
+    @Override
+    public void recordGame(int difficulty, int points) {
+        table.recordGame(id, difficulty, points);
+    }
+
+    @Override
+    boolean isDirty() {
+        return table.isDirty(id);
+    }
+
+    @Override
+    void markClean() {
+        table.markClean(id);
+    }
+
+    @Override
+    void setScore(PlayerScore score) {
+        table.setScore(id, score, table.isDirty(id));
+    }
+
+    @Override
+    void changeScore(PlayerScore changed) {
+        table.setScore(id, changed, true);
+    }
+
+    /**
+     * Always throws, since a record's name is fixed.
+     *
+     * @param name the player's name
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    void setName(String name) {
+        throw new UnsupportedOperationException("An off-heap player cannot be renamed");
+    }
+}
@@ -0,0 +1,220 @@
+package numberguesser.model;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The `OffHeapPlayerRegistry` class presents a {@link PlayerTable} as the player registry, so that
+ * {@link GameModel} and the scoreboard stores can use it in place of a {@code ConcurrentHashMap}. The table is
+ * either an {@link OffHeapPlayerTable} the journal stores load the players into, or the
+ * {@link MappedPlayerTable} of the mapped store.
+ *
+ * <p>A player put into the registry is copied into the table, counters and dirty flag, and the object
+ * itself is dropped. Lookups and iteration return {@link OffHeapPlayer} flyweights over the records, so the
+ * player that ends up registered is never the one that was put in: callers that go on to update a player
+ * must use the one returned by {@link #computeIfAbsent(String, Function)}.</p>
+ *
+ * <p>It is safe for concurrent use, and {@link #putIfAbsent}, {@link #computeIfAbsent} and the replace
+ * methods are atomic, but it is not a {@code ConcurrentMap}: players cannot be removed, so the removal
+ * methods throw {@link UnsupportedOperationException} as the {@link java.util.Map} contract allows.</p>
+ */
+final class OffHeapPlayerRegistry extends AbstractMap<String, Player> {
+    private final PlayerTable table;
+
+    /**
+     * Constructs an empty registry over a new {@link OffHeapPlayerTable}.
+     */
+    OffHeapPlayerRegistry() {
+        this(new OffHeapPlayerTable());
+    }
+
+    /**
+     * Constructs a registry over the players of a table.
+     *
+     * @param table the table holding the players
+     */
+    OffHeapPlayerRegistry(PlayerTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String name && table.find(name) >= 0;
+    }
+
+    @Override
+    public Player get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        int id = table.find(name);
+        return id < 0 ? null : new OffHeapPlayer(table, id, name);
+    }
+
+    /**
+     * Copies a player into the table, replacing the counters and dirty flag of an existing record.
+     *
+     * @param name the player's name
+     * @param player the player to copy
+     * @return null, since the previous counters are overwritten in place
+     */
+    @Override
+    public Player put(String name, Player player) {
+        int id = table.add(name, player.getScore(), player.isDirty());
+        if (id < 0) {
+            table.setScore(~id, player.getScore(), player.isDirty());
+        }
+        return null;
+    }
+
+    @Override
+    public Player putIfAbsent(String name, Player player) {
+        int id = table.add(name, player.getScore(), player.isDirty());
+        return id < 0 ? new OffHeapPlayer(table, ~id, name) : null;
+    }
+
+    /**
+     * Adds a player unless it is already in the table.
+     *
+     * @param name the player's name
+     * @param mappingFunction creates the player to copy into the table if it is absent
+     * @return the flyweight over the registered player, whether it was just added or not
+     */
+    @Override
+    public Player computeIfAbsent(String name, Function<? super String, ? extends Player> mappingFunction) {
+        int id = table.find(name);
+        if (id < 0) {
+            Player player = mappingFunction.apply(name);
+            if (player == null) {
+                return null;
+            }
+            id = table.add(name, player.getScore(), player.isDirty());
+            if (id < 0) {
+                id = ~id;
+            }
+        }
+        return new OffHeapPlayer(table, id, name);
+    }
+
+    @Override
+    public Player replace(String name, Player player) {
+        Player existing = get(name);
+        if (existing != null) {
+            put(name, player);
+        }
+        return existing;
+    }
+
+    /**
+     * Copies a player's counters into the table if the record still holds the counters of another one,
+     * with a single compare-and-set on the record. A player is a name and its counters, so this replaces
+     * the player only if it has not changed since {@code oldValue} was read from it.
+     *
+     * @param name the player's name
+     * @param oldValue the player whose counters the record must hold
+     * @param newValue the player to copy the counters from
+     * @return true if the counters were replaced, false if the player is absent or its counters differ
+     */
+    @Override
+    public boolean replace(String name, Player oldValue, Player newValue) {
+        int id = table.find(name);
+        return id >= 0 && table.replaceScore(id, oldValue.getScore(), newValue.getScore());
+    }
+
+    /**
+     * Always throws, since a record cannot be taken out of the table.
+     *
+     * @param key the player's name
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Player remove(Object key) {
+        throw new UnsupportedOperationException("Off-heap players cannot be removed");
+    }
+
+    @Override
+    public Collection<Player> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Player> iterator() {
+                return new PlayerIterator();
+            }
+
+            @Override
+            public int size() {
+                return table.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Player>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, Player>> iterator() {
+                PlayerIterator players = new PlayerIterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return players.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Player> next() {
+                        Player player = players.next();
+                        return Map.entry(player.getName(), player);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return table.size();
+            }
+        };
+    }
+
+    /**
+     * Retrieves the table the players are kept in.
+     *
+     * @return the table
+     */
+    PlayerTable getTable() {
+        return table;
+    }
+
+    /**
+     * Walks the records in the order they were added, up to the size at the time the iteration started.
+     */
+    private final class PlayerIterator implements Iterator<Player> {
+        private final int end = table.size();
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public Player next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            int id = next++;
+            return new OffHeapPlayer(table, id, table.name(id));
+        }
+    }
+}
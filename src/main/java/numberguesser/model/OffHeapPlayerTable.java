@@ -0,0 +1,316 @@
+package numberguesser.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The `OffHeapPlayerTable` class stores players outside the Java heap, so that the garbage collector has
+ * nothing to trace or copy however many players there are.
+ *
+ * <p>The table is made of three regions of direct memory:</p>
+ * <ul>
+ *   <li>fixed-layout records of {@value #RECORD_SIZE} bytes: a sequence number, flags, the name's place in
+ *       the name arena and its hash, and the six counters;</li>
+ *   <li>a packed name arena holding each name once as UTF-8, appended to as players are added;</li>
+ *   <li>a {@link NameIndex} from the seeded hash of each name to its record number.</li>
+ * </ul>
+ *
+ * <p>Records and names are allocated in chunks that are never moved, so a record number stays valid for the
+ * life of the table. Lookups read the index under an optimistic stamp and only take the lock if a player was
+ * added meanwhile; every record number and name offset read under the stamp is checked against what has
+ * been allocated before it is followed, so a lookup racing an insert reads a wrong value at worst, which the
+ * stamp then rejects. Each record is guarded by a sequence lock: a game increments the counters under an odd
+ * sequence number with a single compare-and-set, and readers retry until they see the same even number
+ * before and after reading, so a {@link PlayerScore} read from the table is never torn. Players are
+ * presented to the rest of the game as {@link OffHeapPlayer} flyweights over their record, and ranked by
+ * a {@link TableSnapshot} that compares their names in place.</p>
+ */
+final class OffHeapPlayerTable implements PlayerTable {
+    static final int RECORD_SIZE = 48;
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 4;
+    private static final int NAME_OFFSET_OFFSET = 8;
+    private static final int NAME_LENGTH_OFFSET = 16;
+    private static final int HASH_OFFSET = 20;
+    private static final int COUNTERS_OFFSET = 24;
+    private static final int DIRTY = 1;
+    private static final int RECORD_CHUNK_SHIFT = 16;
+    private static final int RECORD_CHUNK_MASK = (1 << RECORD_CHUNK_SHIFT) - 1;
+    private static final int NAME_CHUNK_SHIFT = 22;
+    private static final int NAME_CHUNK_SIZE = 1 << NAME_CHUNK_SHIFT;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final StampedLock lock = new StampedLock();
+    // Only replaced under the write lock; volatile so flyweights read the chunk their record was added to
+    private volatile ByteBuffer[] records = new ByteBuffer[0];
+    private volatile ByteBuffer[] names = new ByteBuffer[0];
+    private final NameIndex index = new NameIndex(this::holds);
+    private volatile int size;
+    private long nameEnd;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int find(String name) {
+        int hash = NameBytes.hash(name);
+        long stamp = lock.tryOptimisticRead();
+        int id = index.find(name, hash);
+        if (lock.validate(stamp)) {
+            return id;
+        }
+        stamp = lock.readLock();
+        try {
+            return index.find(name, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int add(String name, PlayerScore score, boolean dirty) {
+        int hash = NameBytes.hash(name);
+        long stamp = lock.writeLock();
+        try {
+            int existing = index.find(name, hash);
+            if (existing >= 0) {
+                return ~existing;
+            }
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            int id = size;
+            if ((id & RECORD_CHUNK_MASK) == 0) {
+                records = Arrays.copyOf(records, records.length + 1);
+                records[records.length - 1] = allocate(RECORD_SIZE << RECORD_CHUNK_SHIFT);
+            }
+            ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+            int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+            chunk.putLong(base + NAME_OFFSET_OFFSET, appendName(encoded));
+            chunk.putInt(base + NAME_LENGTH_OFFSET, encoded.length);
+            chunk.putInt(base + HASH_OFFSET, hash);
+            writeCounters(chunk, base, score);
+            chunk.putInt(base + FLAGS_OFFSET, dirty ? DIRTY : 0);
+            index.insert(hash, id);
+            size = id + 1;
+            return id;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String name(int id) {
+        byte[] encoded = new byte[nameLength(id)];
+        nameChunk(id).get(nameStart(id), encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int compareNames(int id, int other) {
+        return NameBytes.compare(nameChunk(id), nameStart(id), nameLength(id),
+                nameChunk(other), nameStart(other), nameLength(other));
+    }
+
+    @Override
+    public int compareName(int id, String name) {
+        return NameBytes.compare(nameChunk(id), nameStart(id), nameLength(id), name);
+    }
+
+    @Override
+    public PlayerScore score(int id, String name) {
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        int at = base + COUNTERS_OFFSET;
+        while (true) {
+            int sequence = (int) INT.getAcquire(chunk, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0) {
+                PlayerScore score = new PlayerScore(name, chunk.getInt(at), chunk.getInt(at + 4), chunk.getInt(at + 8),
+                        chunk.getInt(at + 12), chunk.getInt(at + 16), chunk.getInt(at + 20));
+                VarHandle.acquireFence();
+                if ((int) INT.getOpaque(chunk, base + SEQUENCE_OFFSET) == sequence) {
+                    return score;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void copyCounters(int id, ByteBuffer target, int offset) {
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        while (true) {
+            int sequence = (int) INT.getAcquire(chunk, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0) {
+                for (int i = 0; i < 6; i++) {
+                    target.putInt(offset + i * Integer.BYTES, chunk.getInt(base + COUNTERS_OFFSET + i * Integer.BYTES));
+                }
+                VarHandle.acquireFence();
+                if ((int) INT.getOpaque(chunk, base + SEQUENCE_OFFSET) == sequence) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void recordGame(int id, int difficulty, int points) {
+        if (difficulty < 1 || difficulty > 3) {
+            return;
+        }
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        int sequence = lockRecord(chunk, base);
+        int count = base + COUNTERS_OFFSET + (difficulty - 1) * Integer.BYTES;
+        int total = count + 3 * Integer.BYTES;
+        chunk.putInt(count, chunk.getInt(count) + 1);
+        chunk.putInt(total, chunk.getInt(total) + points);
+        chunk.putInt(base + FLAGS_OFFSET, chunk.getInt(base + FLAGS_OFFSET) | DIRTY);
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    @Override
+    public void setScore(int id, PlayerScore score, boolean dirty) {
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        int sequence = lockRecord(chunk, base);
+        writeCounters(chunk, base, score);
+        chunk.putInt(base + FLAGS_OFFSET, dirty ? DIRTY : 0);
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    @Override
+    public boolean replaceScore(int id, PlayerScore expected, PlayerScore score) {
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        int sequence = lockRecord(chunk, base);
+        int at = base + COUNTERS_OFFSET;
+        boolean replaced = chunk.getInt(at) == expected.easyCount() && chunk.getInt(at + 4) == expected.mediumCount()
+                && chunk.getInt(at + 8) == expected.hardCount() && chunk.getInt(at + 12) == expected.easyPoints()
+                && chunk.getInt(at + 16) == expected.mediumPoints() && chunk.getInt(at + 20) == expected.hardPoints();
+        if (replaced) {
+            writeCounters(chunk, base, score);
+            chunk.putInt(base + FLAGS_OFFSET, chunk.getInt(base + FLAGS_OFFSET) | DIRTY);
+        }
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+        return replaced;
+    }
+
+    @Override
+    public boolean isDirty(int id) {
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        return ((int) INT.getAcquire(chunk, (id & RECORD_CHUNK_MASK) * RECORD_SIZE + FLAGS_OFFSET) & DIRTY) != 0;
+    }
+
+    @Override
+    public void markClean(int id) {
+        ByteBuffer chunk = records[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        int sequence = lockRecord(chunk, base);
+        chunk.putInt(base + FLAGS_OFFSET, chunk.getInt(base + FLAGS_OFFSET) & ~DIRTY);
+        INT.setRelease(chunk, base + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    /**
+     * Retrieves the number of bytes of direct memory the table holds.
+     *
+     * @return the off-heap size in bytes
+     */
+    long getOffHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) records.length * (RECORD_SIZE << RECORD_CHUNK_SHIFT)
+                    + (long) names.length * NAME_CHUNK_SIZE + index.getOffHeapBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Waits for a record's sequence number to be even and makes it odd.
+     *
+     * @return the even sequence number the record had
+     */
+    private static int lockRecord(ByteBuffer chunk, int base) {
+        while (true) {
+            int sequence = (int) INT.getAcquire(chunk, base + SEQUENCE_OFFSET);
+            if ((sequence & 1) == 0 && INT.compareAndSet(chunk, base + SEQUENCE_OFFSET, sequence, sequence + 1)) {
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void writeCounters(ByteBuffer chunk, int base, PlayerScore score) {
+        int at = base + COUNTERS_OFFSET;
+        chunk.putInt(at, score.easyCount());
+        chunk.putInt(at + 4, score.mediumCount());
+        chunk.putInt(at + 8, score.hardCount());
+        chunk.putInt(at + 12, score.easyPoints());
+        chunk.putInt(at + 16, score.mediumPoints());
+        chunk.putInt(at + 20, score.hardPoints());
+    }
+
+    /**
+     * Checks a record number read from the index by {@link #find} against a name. May run concurrently with
+     * {@link #add}, in which case the result is discarded by the caller. Every buffer it reads stays
+     * allocated, and the record number and name offset are checked against the chunks it has seen before
+     * they are followed, so a half-written entry or record can only make it return a wrong answer, never read
+     * out of bounds.
+     */
+    private boolean holds(int id, String name) {
+        ByteBuffer[] chunks = records;
+        ByteBuffer[] arena = names;
+        if (id < 0 || id >>> RECORD_CHUNK_SHIFT >= chunks.length) {
+            return false;
+        }
+        ByteBuffer chunk = chunks[id >>> RECORD_CHUNK_SHIFT];
+        int base = (id & RECORD_CHUNK_MASK) * RECORD_SIZE;
+        long offset = chunk.getLong(base + NAME_OFFSET_OFFSET);
+        int length = chunk.getInt(base + NAME_LENGTH_OFFSET);
+        int start = (int) (offset & (NAME_CHUNK_SIZE - 1));
+        if (offset < 0 || offset >>> NAME_CHUNK_SHIFT >= arena.length || length < 0 || length > NAME_CHUNK_SIZE - start) {
+            return false;
+        }
+        return NameBytes.equals(arena[(int) (offset >>> NAME_CHUNK_SHIFT)], start, length, name);
+    }
+
+    private ByteBuffer nameChunk(int id) {
+        long offset = records[id >>> RECORD_CHUNK_SHIFT].getLong((id & RECORD_CHUNK_MASK) * RECORD_SIZE + NAME_OFFSET_OFFSET);
+        return names[(int) (offset >>> NAME_CHUNK_SHIFT)];
+    }
+
+    private int nameStart(int id) {
+        long offset = records[id >>> RECORD_CHUNK_SHIFT].getLong((id & RECORD_CHUNK_MASK) * RECORD_SIZE + NAME_OFFSET_OFFSET);
+        return (int) (offset & (NAME_CHUNK_SIZE - 1));
+    }
+
+    private int nameLength(int id) {
+        return records[id >>> RECORD_CHUNK_SHIFT].getInt((id & RECORD_CHUNK_MASK) * RECORD_SIZE + NAME_LENGTH_OFFSET);
+    }
+
+    private long appendName(byte[] encoded) {
+        int position = (int) (nameEnd & (NAME_CHUNK_SIZE - 1));
+        if (names.length == 0 || position + encoded.length > NAME_CHUNK_SIZE) {
+            names = Arrays.copyOf(names, names.length + 1);
+            names[names.length - 1] = allocate(NAME_CHUNK_SIZE);
+            nameEnd = (long) (names.length - 1) << NAME_CHUNK_SHIFT;
+            position = 0;
+        }
+        long offset = nameEnd;
+        names[names.length - 1].put(position, encoded);
+        nameEnd += encoded.length;
+        return offset;
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -5,19 +5,27 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Represents a player in the Number Guesser game.
  * Implements Externalizable for custom serialization.
+ *
+ * <p>The counters are held in one immutable {@link PlayerScore}, which {@link #recordGame(int, int)}
+ * replaces with a lock-free compare-and-set, so concurrent sessions can record results for the same player
+ * without losing updates, and {@link #getScore()} always returns counters that belong together. The
+ * individual setters are not atomic with {@link #recordGame(int, int)}; they are meant for filling in a
+ * player before it is shared. Every change marks the player dirty until the scoreboard store writes it to a
+ * full snapshot, so that saves in between only need to write the dirty players.</p>
  */
 public class Player implements Externalizable {
+    private static final AtomicReferenceFieldUpdater<Player, PlayerScore> SCORE =
+            AtomicReferenceFieldUpdater.newUpdater(Player.class, PlayerScore.class, "score");
+
     private String name;
-    private int count1 = 0;
-    private int count2 = 0;
-    private int count3 = 0;
-    private int points1 = 0;
-    private int points2 = 0;
-    private int points3 = 0;
+    // Written and read through PlayerCodec by writeExternal and readExternal
+    private transient volatile PlayerScore score;
+    private volatile boolean dirty = true;
 
     //CONSTRUCTORS
 
@@ -25,13 +33,7 @@ public class Player implements Externalizable {
      * Default constructor initializing a guest player with default values.
      */
     public Player() {
-        this.name = "guest";
-        this.count1 = 0;
-        this.count2 = 0;
-        this.count3 = 0;
-        this.points1 = 0;
-        this.points2 = 0;
-        this.points3 = 0;
+        this("guest");
     }
 
     /**
@@ -40,44 +42,106 @@ public class Player implements Externalizable {
      * @param name The name of the player
      */
     public Player(String name) {
+        this(name, PlayerScore.empty(name));
+    }
+
+    /**
+     * Constructs a Player with a specified name and score.
+     *
+     * @param name The name of the player
+     * @param score The player's score, or null for a subclass that keeps its score elsewhere
+     */
+    Player(String name, PlayerScore score) {
         this.name = name;
+        this.score = score;
     }
 
     //SERIALIZATION
 
     /**
-     * Serializes the player object to the specified ObjectOutput.
+     * Serializes the player object to the specified ObjectOutput as a versioned {@link PlayerCodec} record.
      *
      * @param out The ObjectOutput to write the player data to
      * @throws IOException If an I/O error occurs
      */
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
-        out.writeObject(this.name);
-        out.writeObject(this.count1);
-        out.writeObject(this.count2);
-        out.writeObject(this.count3);
-        out.writeObject(this.points1);
-        out.writeObject(this.points2);
-        out.writeObject(this.points3);
+        out.writeByte(PlayerCodec.VERSION);
+        PlayerCodec.write(out, this);
     }
 
     /**
-     * Deserializes the player object from the specified ObjectInput.
+     * Deserializes the player object from a versioned {@link PlayerCodec} record in the specified ObjectInput.
      *
      * @param in The ObjectInput to read the player data from
-     * @throws IOException            If an I/O error occurs
-     * @throws ClassNotFoundException If the class of a serialized object cannot be found
+     * @throws IOException If an I/O error occurs or the record version is not supported
      */
     @Override
-    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-        name = (String) in.readObject();
-        count1 = (Integer) in.readObject();
-        count2 = (Integer) in.readObject();
-        count3 = (Integer) in.readObject();
-        points1 = (Integer) in.readObject();
-        points2 = (Integer) in.readObject();
-        points3 = (Integer) in.readObject();
+    public void readExternal(ObjectInput in) throws IOException {
+        PlayerCodec.readVersion(in);
+        PlayerCodec.readInto(in, this);
+    }
+
+    //SCORING
+
+    /**
+     * Records a finished game, atomically incrementing the count and adding the points for its difficulty.
+     *
+     * @param difficulty The difficulty level of the game (1-3); other values are ignored
+     * @param points The points won in the game
+     */
+    public void recordGame(int difficulty, int points) {
+        PlayerScore current;
+        do {
+            current = score;
+        } while (!SCORE.compareAndSet(this, current, current.plus(difficulty, points)));
+        dirty = true;
+    }
+
+    /**
+     * Checks whether the player changed since it was last written to a full scoreboard snapshot. New
+     * players are dirty until they are first written.
+     *
+     * @return true if the player must be included in the next save, false otherwise
+     */
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Records that the player's current score is held by a full scoreboard snapshot.
+     */
+    void markClean() {
+        dirty = false;
+    }
+
+    /**
+     * Gets the player's games and points on every difficulty level as one consistent, immutable copy.
+     *
+     * @return The player's score
+     */
+    public PlayerScore getScore() {
+        return score;
+    }
+
+    /**
+     * Replaces all of the player's counters at once. Only used when decoding a serialized player.
+     *
+     * @param score The score to take the counters from; its name is ignored
+     */
+    void setScore(PlayerScore score) {
+        this.score = new PlayerScore(name, score.easyCount(), score.mediumCount(), score.hardCount(),
+                score.easyPoints(), score.mediumPoints(), score.hardPoints());
+    }
+
+    /**
+     * Replaces the player's score with a changed copy and marks the player dirty. Used by the setters.
+     *
+     * @param changed The new score
+     */
+    void changeScore(PlayerScore changed) {
+        score = changed;
+        dirty = true;
     }
 
     @Override
@@ -106,13 +170,23 @@ public class Player implements Externalizable {
         return name;
     }
 
+    /**
+     * Sets the name of the player. Only used when decoding a serialized player.
+     *
+     * @param name The player's name
+     */
+    void setName(String name) {
+        this.name = name;
+        setScore(score);
+    }
+
     /**
      * Gets the count for the first difficulty level.
      *
      * @return The count for difficulty level 1
      */
     public int getEasyCount() {
-        return count1;
+        return getScore().easyCount();
     }
 
     /**
@@ -121,7 +195,8 @@ public class Player implements Externalizable {
      * @param count1 The count to set for difficulty level 1
      */
     public void setEasyCount(int count1) {
-        this.count1 = count1;
+        PlayerScore s = getScore();
+        changeScore(new PlayerScore(s.name(), count1, s.mediumCount(), s.hardCount(), s.easyPoints(), s.mediumPoints(), s.hardPoints()));
     }
 
     /**
@@ -130,7 +205,7 @@ public class Player implements Externalizable {
      * @return The count for difficulty level 2
      */
     public int getMediumCount() {
-        return count2;
+        return getScore().mediumCount();
     }
 
     /**
@@ -139,7 +214,8 @@ public class Player implements Externalizable {
      * @param count2 The count to set for difficulty level 2
      */
     public void setMediumCount(int count2) {
-        this.count2 = count2;
+        PlayerScore s = getScore();
+        changeScore(new PlayerScore(s.name(), s.easyCount(), count2, s.hardCount(), s.easyPoints(), s.mediumPoints(), s.hardPoints()));
     }
 
     /**
@@ -148,7 +224,7 @@ public class Player implements Externalizable {
      * @return The count for difficulty level 3
      */
     public int getHardCount() {
-        return count3;
+        return getScore().hardCount();
     }
 
     /**
@@ -157,7 +233,8 @@ public class Player implements Externalizable {
      * @param count3 The count to set for difficulty level 3
      */
     public void setHardCount(int count3) {
-        this.count3 = count3;
+        PlayerScore s = getScore();
+        changeScore(new PlayerScore(s.name(), s.easyCount(), s.mediumCount(), count3, s.easyPoints(), s.mediumPoints(), s.hardPoints()));
     }
 
     /**
@@ -166,7 +243,7 @@ public class Player implements Externalizable {
      * @return The points for difficulty level 1
      */
     public int getEasyPoints() {
-        return points1;
+        return getScore().easyPoints();
     }
 
     /**
@@ -175,7 +252,8 @@ public class Player implements Externalizable {
      * @param points1 The points to set for difficulty level 1
      */
     public void setEasyPoints(int points1) {
-        this.points1 = points1;
+        PlayerScore s = getScore();
+        changeScore(new PlayerScore(s.name(), s.easyCount(), s.mediumCount(), s.hardCount(), points1, s.mediumPoints(), s.hardPoints()));
     }
 
     /**
@@ -184,7 +262,7 @@ public class Player implements Externalizable {
      * @return The points for difficulty level 2
      */
     public int getMediumPoints() {
-        return points2;
+        return getScore().mediumPoints();
     }
 
     /**
@@ -193,7 +271,8 @@ public class Player implements Externalizable {
      * @param points2 The points to set for difficulty level 2
      */
     public void setMediumPoints(int points2) {
-        this.points2 = points2;
+        PlayerScore s = getScore();
+        changeScore(new PlayerScore(s.name(), s.easyCount(), s.mediumCount(), s.hardCount(), s.easyPoints(), points2, s.hardPoints()));
     }
 
     /**
@@ -202,7 +281,7 @@ public class Player implements Externalizable {
      * @return The points for difficulty level 3
      */
     public int getHardPoints() {
-        return points3;
+        return getScore().hardPoints();
     }
 
     /**
@@ -211,6 +290,7 @@ public class Player implements Externalizable {
      * @param points3 The points to set for difficulty level 3
      */
     public void setHardPoints(int points3) {
-        this.points3 = points3;
+        PlayerScore s = getScore();
+        changeScore(new PlayerScore(s.name(), s.easyCount(), s.mediumCount(), s.hardCount(), s.easyPoints(), s.mediumPoints(), points3));
     }
 }
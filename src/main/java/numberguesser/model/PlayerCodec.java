@@ -0,0 +1,149 @@
+package numberguesser.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The `PlayerCodec` class encodes players in a compact binary record format.
+ *
+ * <p>A record is the player's name as length-prefixed UTF-8 (an unsigned 16-bit byte count followed by the
+ * bytes) and the six counters as fixed-width 32-bit ints, in the order easy, medium and hard count followed
+ * by easy, medium and hard points. The same layout is used for {@link DataOutput} streams (which includes
+ * {@link java.io.ObjectOutput}) and for {@link ByteBuffer}s, so a record written by one path can be read by
+ * the other.</p>
+ *
+ * <p>Files and standalone records are prefixed with {@link #VERSION} so the layout can evolve.</p>
+ */
+public final class PlayerCodec {
+    /**
+     * The current version of the record layout.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The maximum length of an encoded name, in bytes.
+     */
+    public static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private static final int COUNTERS_SIZE = 6 * Integer.BYTES;
+
+    private PlayerCodec() {
+    }
+
+    /**
+     * Calculates the number of bytes the record for a player occupies.
+     *
+     * @param player the player to measure
+     * @return the encoded size in bytes
+     */
+    public static int encodedSize(Player player) {
+        return Short.BYTES + encodeName(player.getName()).length + COUNTERS_SIZE;
+    }
+
+    /**
+     * Writes a player's record to a data output.
+     *
+     * @param out the output to write to
+     * @param player the player to write
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(DataOutput out, Player player) throws IOException {
+        PlayerScore score = player.getScore();
+        byte[] name = encodeName(player.getName());
+        out.writeShort(name.length);
+        out.write(name);
+        out.writeInt(score.easyCount());
+        out.writeInt(score.mediumCount());
+        out.writeInt(score.hardCount());
+        out.writeInt(score.easyPoints());
+        out.writeInt(score.mediumPoints());
+        out.writeInt(score.hardPoints());
+    }
+
+    /**
+     * Reads a player's record from a data input into an existing player.
+     *
+     * @param in the input to read from
+     * @param player the player to populate
+     * @throws IOException if an I/O error occurs
+     */
+    public static void readInto(DataInput in, Player player) throws IOException {
+        byte[] name = new byte[in.readUnsignedShort()];
+        in.readFully(name);
+        player.setName(new String(name, StandardCharsets.UTF_8));
+        player.setScore(new PlayerScore(player.getName(), in.readInt(), in.readInt(), in.readInt(),
+                in.readInt(), in.readInt(), in.readInt()));
+    }
+
+    /**
+     * Reads a player's record from a data input.
+     *
+     * @param in the input to read from
+     * @return the decoded player
+     * @throws IOException if an I/O error occurs
+     */
+    public static Player read(DataInput in) throws IOException {
+        Player player = new Player();
+        readInto(in, player);
+        return player;
+    }
+
+    /**
+     * Writes a player's record at the buffer's current position.
+     *
+     * @param buffer the buffer to write to
+     * @param player the player to write
+     */
+    public static void write(ByteBuffer buffer, Player player) {
+        PlayerScore score = player.getScore();
+        byte[] name = encodeName(player.getName());
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        buffer.putInt(score.easyCount());
+        buffer.putInt(score.mediumCount());
+        buffer.putInt(score.hardCount());
+        buffer.putInt(score.easyPoints());
+        buffer.putInt(score.mediumPoints());
+        buffer.putInt(score.hardPoints());
+    }
+
+    /**
+     * Reads a player's record from the buffer's current position.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded player
+     */
+    public static Player read(ByteBuffer buffer) {
+        byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(name);
+        Player player = new Player(new String(name, StandardCharsets.UTF_8));
+        player.setScore(new PlayerScore(player.getName(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.getInt(), buffer.getInt(), buffer.getInt()));
+        return player;
+    }
+
+    /**
+     * Reads and checks a version header.
+     *
+     * @param in the input to read from
+     * @throws IOException if an I/O error occurs or the version is not supported
+     */
+    public static void readVersion(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException("Unsupported player record version " + version);
+        }
+    }
+
+    private static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Player name exceeds " + MAX_NAME_BYTES + " bytes");
+        }
+        return bytes;
+    }
+}
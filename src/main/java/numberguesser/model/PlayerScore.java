@@ -0,0 +1,55 @@
+package numberguesser.model;
+
+/**
+ * The `PlayerScore` record is an immutable copy of a player's games and points on each difficulty level.
+ *
+ * <p>A {@link Player} holds its score as one of these and replaces it atomically on every finished game,
+ * so a score read from a player or from a {@link ScoreboardSnapshot} is always one the player really had,
+ * never a count from one game mixed with the points of another.</p>
+ *
+ * @param name the player's name
+ * @param easyCount the games played on the easy difficulty
+ * @param mediumCount the games played on the medium difficulty
+ * @param hardCount the games played on the hard difficulty
+ * @param easyPoints the points won on the easy difficulty
+ * @param mediumPoints the points won on the medium difficulty
+ * @param hardPoints the points won on the hard difficulty
+ */
+public record PlayerScore(String name, int easyCount, int mediumCount, int hardCount,
+                          int easyPoints, int mediumPoints, int hardPoints) {
+
+    /**
+     * Creates the score of a player who has not played yet.
+     *
+     * @param name the player's name
+     * @return the empty score
+     */
+    static PlayerScore empty(String name) {
+        return new PlayerScore(name, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Adds a finished game.
+     *
+     * @param difficulty the difficulty level of the game (1-3); other values leave the score unchanged
+     * @param points the points won in the game
+     * @return the new score
+     */
+    PlayerScore plus(int difficulty, int points) {
+        return switch (difficulty) {
+            case 1 -> new PlayerScore(name, easyCount + 1, mediumCount, hardCount, easyPoints + points, mediumPoints, hardPoints);
+            case 2 -> new PlayerScore(name, easyCount, mediumCount + 1, hardCount, easyPoints, mediumPoints + points, hardPoints);
+            case 3 -> new PlayerScore(name, easyCount, mediumCount, hardCount + 1, easyPoints, mediumPoints, hardPoints + points);
+            default -> this;
+        };
+    }
+
+    /**
+     * Retrieves the points won over every difficulty level.
+     *
+     * @return the total points
+     */
+    public long totalPoints() {
+        return (long) easyPoints + mediumPoints + hardPoints;
+    }
+}
@@ -0,0 +1,133 @@
+package numberguesser.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The `PlayerTable` interface describes a table of players kept outside the Java heap, in direct memory by an
+ * {@link OffHeapPlayerTable} or in a memory-mapped file by a {@link MappedPlayerTable}.
+ *
+ * <p>Players are numbered densely from 0 in the order they are added, and a player keeps its number for the
+ * life of the table, so a number can stand for a player in indexes built over the table. Players are never
+ * removed. Each player's counters can be read and changed by many threads at once; every read returns
+ * counters that belong together. A number below {@link #size()} may be passed to any method from any thread
+ * that read the size.</p>
+ */
+interface PlayerTable {
+
+    /**
+     * Retrieves the number of players.
+     *
+     * @return the player count
+     */
+    int size();
+
+    /**
+     * Looks up a player's number.
+     *
+     * @param name the player's name
+     * @return the player's number, or -1 if the player is not in the table
+     */
+    int find(String name);
+
+    /**
+     * Adds a player unless one with the same name is already in the table.
+     *
+     * @param name the player's name
+     * @param score the player's initial counters
+     * @param dirty true if the player still has to be written to a full snapshot
+     * @return the number of the added player, or the complement ({@code ~}) of the existing one's
+     */
+    int add(String name, PlayerScore score, boolean dirty);
+
+    /**
+     * Decodes a player's name.
+     *
+     * @param id the player's number
+     * @return the name
+     */
+    String name(int id);
+
+    /**
+     * Reads a player's counters as one consistent copy.
+     *
+     * @param id the player's number
+     * @param name the player's name, for the returned score
+     * @return the score
+     */
+    PlayerScore score(int id, String name);
+
+    /**
+     * Copies a player's counters as one consistent copy of six {@code int}s, in the order of the
+     * {@link PlayerScore} components, without creating a score.
+     *
+     * @param id the player's number
+     * @param target the buffer to copy the counters to
+     * @param offset the position of the first counter in the buffer
+     */
+    void copyCounters(int id, ByteBuffer target, int offset);
+
+    /**
+     * Records a finished game on a player and marks it dirty.
+     *
+     * @param id the player's number
+     * @param difficulty the difficulty level of the game (1-3); other values leave the counters unchanged
+     * @param points the points won in the game
+     */
+    void recordGame(int id, int difficulty, int points);
+
+    /**
+     * Replaces all of a player's counters at once.
+     *
+     * @param id the player's number
+     * @param score the new counters
+     * @param dirty true if the player still has to be written to a full snapshot
+     */
+    void setScore(int id, PlayerScore score, boolean dirty);
+
+    /**
+     * Replaces all of a player's counters at once if they are still the expected ones, and marks it dirty.
+     *
+     * @param id the player's number
+     * @param expected the counters the player must have; the name is ignored
+     * @param score the new counters
+     * @return true if the counters were replaced, false if the player had other counters
+     */
+    boolean replaceScore(int id, PlayerScore expected, PlayerScore score);
+
+    /**
+     * Checks whether a player changed since it was last written to a full snapshot. A table that is itself
+     * the store's copy of the players has nothing to write, and its players are never dirty.
+     *
+     * @param id the player's number
+     * @return true if the player is dirty
+     */
+    boolean isDirty(int id);
+
+    /**
+     * Records that a player's current counters are held by a full snapshot.
+     *
+     * @param id the player's number
+     */
+    void markClean(int id);
+
+    /**
+     * Compares two players' names in the order of {@link String#compareTo(String)}, without decoding them.
+     *
+     * @param id the first player's number
+     * @param other the second player's number
+     * @return a negative number, zero or a positive number as the first name is less than, equal to or
+     *         greater than the second
+     */
+    int compareNames(int id, int other);
+
+    /**
+     * Compares a player's name with a name in the order of {@link String#compareTo(String)}, without
+     * decoding it.
+     *
+     * @param id the player's number
+     * @param name the name to compare it with
+     * @return a negative number, zero or a positive number as the player's name is less than, equal to or
+     *         greater than {@code name}
+     */
+    int compareName(int id, String name);
+}
@@ -1,40 +1,78 @@
 package numberguesser.model;
 //RANDOM NUMBER GENERATOR CLASS
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * The `RNG` class is responsible for generating a random integer within a specified range.
+ * The `RNG` class is responsible for generating a random integer within a specified range, which may span
+ * the whole {@code long} range.
+ *
+ * <p>An `RNG` is an immutable range that draws from a {@link RandomGenerator} passed in by the caller, so
+ * one instance per difficulty level serves every game and drawing a secret number allocates nothing.
+ * Unseeded games draw from {@link ThreadLocalRandom}, which has no shared seed for threads to contend on;
+ * seeded games use a {@link SplittableRandom} from {@link #seeded(long)} so their secret numbers can be
+ * reproduced exactly.</p>
  */
 public class RNG {
-    private int result;
-    private int min;
-    private int max;
+    private final long min;
+    private final long max;
 
     /**
      * Constructs an `RNG` object with a specified minimum and maximum range.
-     * A random integer is generated within this range and stored in the `result` field.
      *
      * @param min the minimum value (inclusive) of the range
      * @param max the maximum value (inclusive) of the range
      */
-    public RNG(int min, int max) {
-        Random r = new Random();
-        this.result = r.nextInt((max - min) + 1) + min;
+    public RNG(long min, long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
         this.min = min;
         this.max = max;
     }
 
-    public int getResult() {
-        return result;
+    /**
+     * Creates a generator whose sequence of numbers is fully determined by the seed.
+     *
+     * @param seed the seed
+     * @return a new seeded generator
+     */
+    public static RandomGenerator seeded(long seed) {
+        return new SplittableRandom(seed);
+    }
+
+    /**
+     * Draws a random integer within the range from the calling thread's {@link ThreadLocalRandom}.
+     *
+     * @return a number between min and max, inclusive
+     */
+    public long next() {
+        return next(ThreadLocalRandom.current());
     }
 
-    public int getMin() {
+    /**
+     * Draws a random integer within the range from the specified generator.
+     *
+     * @param generator the generator to draw from
+     * @return a number between min and max, inclusive
+     */
+    public long next(RandomGenerator generator) {
+        if (max < Long.MAX_VALUE) {
+            return generator.nextLong(min, max + 1);
+        } else if (min > Long.MIN_VALUE) {
+            return generator.nextLong(min - 1, max) + 1;
+        } else {
+            return generator.nextLong();
+        }
+    }
+
+    public long getMin() {
         return min;
     }
 
-    public int getMax() {
+    public long getMax() {
         return max;
     }
 }
-
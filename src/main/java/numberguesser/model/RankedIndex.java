@@ -0,0 +1,321 @@
+package numberguesser.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * The `RankedIndex` class is an immutable order-statistic tree of {@link PlayerScore}s, kept in the order
+ * of a comparator.
+ *
+ * <p>It is a treap whose nodes also track the size of their subtree, so inserting, removing, finding the
+ * rank of an entry and fetching the entry at a rank all take expected O(log n) time. It is persistent:
+ * {@link #with(PlayerScore)} and {@link #without(PlayerScore)} copy only the O(log n) nodes on the path
+ * they change and share the rest with the original, which stays valid and unchanged. An index can therefore
+ * be read by any number of threads without locking while newer versions are built from it. Node
+ * priorities are a seeded 64-bit hash of the player's name, so the same entries always give the same tree
+ * within a run.</p>
+ */
+final class RankedIndex implements Iterable<PlayerScore> {
+    private static final long PRIORITY_SEED = new SplittableRandom().nextLong();
+
+    private final Comparator<PlayerScore> order;
+    private final Node root;
+
+    private static final class Node {
+        // Only written while a new tree is built, before it is published
+        final PlayerScore value;
+        final int priority;
+        int size;
+        Node left;
+        Node right;
+
+        Node(PlayerScore value, int priority, Node left, Node right) {
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        Node withChildren(Node left, Node right) {
+            return left == this.left && right == this.right ? this : new Node(value, priority, left, right);
+        }
+    }
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param order the order of the entries; entries comparing equal are the same entry
+     */
+    RankedIndex(Comparator<PlayerScore> order) {
+        this(order, null);
+    }
+
+    private RankedIndex(Comparator<PlayerScore> order, Node root) {
+        this.order = order;
+        this.root = root;
+    }
+
+    /**
+     * Retrieves the number of entries.
+     *
+     * @return the entry count
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns an index with an entry added. No entry comparing equal to it may be present.
+     *
+     * @param value the entry
+     * @return the new index
+     */
+    RankedIndex with(PlayerScore value) {
+        return new RankedIndex(order, insert(root, value, priorityOf(value)));
+    }
+
+    /**
+     * Returns an index without the entry comparing equal to the given one.
+     *
+     * @param value the entry, or one comparing equal to it
+     * @return the new index, or this index if there is no such entry
+     */
+    RankedIndex without(PlayerScore value) {
+        Node removed = remove(root, value);
+        return removed == root ? this : new RankedIndex(order, removed);
+    }
+
+    /**
+     * Finds the entry comparing equal to the given one.
+     *
+     * @param probe the entry to look for
+     * @return the entry, or null if there is none
+     */
+    PlayerScore find(PlayerScore probe) {
+        Node node = root;
+        while (node != null) {
+            int c = order.compare(probe, node.value);
+            if (c == 0) {
+                return node.value;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the rank of an entry.
+     *
+     * @param value the entry, or one comparing equal to it
+     * @return the 0-based rank, or -1 if there is no such entry
+     */
+    int rankOf(PlayerScore value) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int c = order.compare(value, node.value);
+            if (c == 0) {
+                return rank + size(node.left);
+            } else if (c < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the entries ordered before a value, which need not be in the index.
+     *
+     * @param value the value to compare the entries with
+     * @return the number of entries less than the value, which is also the rank it would get if added
+     */
+    int countBefore(PlayerScore value) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (order.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the entry at a rank.
+     *
+     * @param rank the 0-based rank, less than {@link #size()}
+     * @return the entry
+     */
+    PlayerScore get(int rank) {
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank == leftSize) {
+                return node.value;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Builds an index of the given entries in O(n log n) for the sort plus O(n) for the tree, instead of
+     * n separate inserts.
+     *
+     * @param values the entries, none comparing equal to another; the array is sorted in place
+     * @return the new index
+     */
+    RankedIndex rebuild(PlayerScore[] values) {
+        Arrays.sort(values, order);
+
+        // Build the Cartesian tree of the sorted entries on their priorities with a stack of the right spine
+        Node[] spine = new Node[values.length];
+        int depth = 0;
+        for (PlayerScore value : values) {
+            Node node = new Node(value, priorityOf(value), null, null);
+            Node last = null;
+            while (depth > 0 && outranks(node, spine[depth - 1])) {
+                last = spine[--depth];
+            }
+            node.left = last;
+            if (depth > 0) {
+                spine[depth - 1].right = node;
+            }
+            spine[depth++] = node;
+        }
+        Node built = depth > 0 ? spine[0] : null;
+        updateSizes(built);
+        return new RankedIndex(order, built);
+    }
+
+    /**
+     * Iterates over the entries in order.
+     *
+     * @return an iterator over the entries
+     */
+    @Override
+    public Iterator<PlayerScore> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node> path = new ArrayDeque<>();
+            private Node next = root;
+
+            @Override
+            public boolean hasNext() {
+                return next != null || !path.isEmpty();
+            }
+
+            @Override
+            public PlayerScore next() {
+                while (next != null) {
+                    path.push(next);
+                    next = next.left;
+                }
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = path.pop();
+                next = node.right;
+                return node.value;
+            }
+        };
+    }
+
+    private Node insert(Node tree, PlayerScore value, int priority) {
+        if (tree == null) {
+            return new Node(value, priority, null, null);
+        }
+        if (order.compare(value, tree.value) < 0) {
+            Node left = insert(tree.left, value, priority);
+            return outranks(left, tree)
+                    ? left.withChildren(left.left, tree.withChildren(left.right, tree.right))
+                    : tree.withChildren(left, tree.right);
+        }
+        Node right = insert(tree.right, value, priority);
+        return outranks(right, tree)
+                ? right.withChildren(tree.withChildren(tree.left, right.left), right.right)
+                : tree.withChildren(tree.left, right);
+    }
+
+    private Node remove(Node tree, PlayerScore value) {
+        if (tree == null) {
+            return null;
+        }
+        int c = order.compare(value, tree.value);
+        if (c == 0) {
+            return merge(tree.left, tree.right);
+        } else if (c < 0) {
+            return tree.withChildren(remove(tree.left, value), tree.right);
+        }
+        return tree.withChildren(tree.left, remove(tree.right, value));
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (outranks(left, right)) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static int updateSizes(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        node.size = updateSizes(node.left) + updateSizes(node.right) + 1;
+        return node.size;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Checks whether a node belongs above another in the heap order: it has the higher priority, or the same
+     * priority and the smaller name, so that the order is strict even when two priorities collide.
+     */
+    private static boolean outranks(Node node, Node other) {
+        return node.priority > other.priority
+                || node.priority == other.priority && node.value.name().compareTo(other.value.name()) < 0;
+    }
+
+    /**
+     * Hashes every character of the name into 64 bits with a seed drawn once per run, so that priorities
+     * look random but the same name always gets the same one. Unlike {@link String#hashCode()}, whose
+     * collisions are easy to build ("Aa" and "BB"), names cannot be chosen to share a priority and turn
+     * the treap into a chain. Only the upper half is kept, so that a node stays at 32 bytes; the few
+     * priorities that still collide by chance are ordered by {@link #outranks(Node, Node)}.
+     */
+    private static int priorityOf(PlayerScore value) {
+        String name = value.name();
+        long h = PRIORITY_SEED ^ name.length();
+        for (int i = 0; i < name.length(); i++) {
+            h = (h ^ name.charAt(i)) * 0x100000001B3L;
+        }
+        // Finalizer of MurmurHash3, spreading every input bit over the whole priority
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return (int) ((h ^ (h >>> 33)) >>> 32);
+    }
+}
@@ -0,0 +1,150 @@
+package numberguesser.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The `RankedSnapshot` class is a {@link ScoreboardSnapshot} held on the heap, in one {@link RankedIndex}
+ * in name order and one per {@link Leaderboard.Ranking}.
+ *
+ * <p>Each finished game publishes a new snapshot that shares all but O(log n) of its nodes with the
+ * previous one, so publishing one copies only a few paths of the underlying indexes. Ranking ties are
+ * broken by name.</p>
+ */
+final class RankedSnapshot extends ScoreboardSnapshot {
+    private static final Comparator<PlayerScore> BY_NAME = Comparator.comparing(PlayerScore::name);
+    private static final Leaderboard.Ranking[] RANKINGS = Leaderboard.Ranking.values();
+
+    /** The snapshot of an empty scoreboard. */
+    static final RankedSnapshot EMPTY = new RankedSnapshot(0, new RankedIndex(BY_NAME), emptyRankings());
+
+    private final RankedIndex byName;
+    private final RankedIndex[] rankings;
+
+    private RankedSnapshot(long version, RankedIndex byName, RankedIndex[] rankings) {
+        super(version);
+        this.byName = byName;
+        this.rankings = rankings;
+    }
+
+    /**
+     * Builds a snapshot of the given players.
+     *
+     * @param version the version of the snapshot
+     * @param players the players, with distinct names
+     * @return the new snapshot
+     */
+    static RankedSnapshot of(long version, Collection<Player> players) {
+        List<PlayerScore> scores = new ArrayList<>(players.size());
+        for (Player player : players) {
+            scores.add(player.getScore());
+        }
+        return of(version, scores.toArray(new PlayerScore[0]));
+    }
+
+    /**
+     * Builds a snapshot of the given scores. The indexes are independent, so they are built in parallel.
+     *
+     * @param version the version of the snapshot
+     * @param scores the scores, with distinct names
+     * @return the new snapshot
+     */
+    static RankedSnapshot of(long version, PlayerScore[] scores) {
+        // Index 0 is the name index, the others are the rankings
+        RankedIndex[] rebuilt = new RankedIndex[EMPTY.rankings.length + 1];
+        IntStream.range(0, rebuilt.length)
+                .parallel()
+                .forEach(i -> rebuilt[i] = EMPTY.indexOf(i == 0 ? null : RANKINGS[i - 1]).rebuild(scores.clone()));
+        return new RankedSnapshot(version, rebuilt[0], Arrays.copyOfRange(rebuilt, 1, rebuilt.length));
+    }
+
+    @Override
+    RankedSnapshot with(PlayerScore score) {
+        PlayerScore old = byName.find(score);
+        RankedIndex[] updated = rankings.clone();
+        for (int r = 0; r < updated.length; r++) {
+            updated[r] = (old != null ? updated[r].without(old) : updated[r]).with(score);
+        }
+        RankedIndex names = old != null ? byName.without(old) : byName;
+        return new RankedSnapshot(getVersion() + 1, names.with(score), updated);
+    }
+
+    /**
+     * Retrieves the index of a ranking, or the name index, for a {@link TableSnapshot} that keeps its recent
+     * changes in a snapshot of this class.
+     *
+     * @param ranking the ranking, or null for name order
+     * @return the index
+     */
+    RankedIndex indexOf(Leaderboard.Ranking ranking) {
+        return ranking == null ? byName : rankings[ranking.ordinal()];
+    }
+
+    @Override
+    public int size() {
+        return byName.size();
+    }
+
+    @Override
+    public PlayerScore get(String name) {
+        return byName.find(PlayerScore.empty(name));
+    }
+
+    @Override
+    public List<PlayerScore> scores(Leaderboard.Ranking ranking, int from, int count) {
+        RankedIndex index = indexOf(ranking);
+        int start = Math.max(0, from);
+        int end = (int) Math.min(index.size(), (long) start + Math.max(0, count));
+        List<PlayerScore> scores = new ArrayList<>(Math.max(0, end - start));
+        for (int position = start; position < end; position++) {
+            scores.add(index.get(position));
+        }
+        return scores;
+    }
+
+    @Override
+    public int positionOf(Leaderboard.Ranking ranking, String name) {
+        PlayerScore score = get(name);
+        return score == null ? -1 : indexOf(ranking).rankOf(score);
+    }
+
+    /**
+     * Retrieves the names starting with a prefix, in name order, by one O(log n) descent of the name index
+     * to the first name not before the prefix and O(log n) per match from there.
+     *
+     * @param prefix the start of the name; the empty prefix matches every name
+     * @param count the maximum number of names
+     * @return up to {@code count} names starting with {@code prefix}
+     */
+    @Override
+    public List<String> completions(String prefix, int count) {
+        List<String> names = new ArrayList<>(Math.max(0, Math.min(count, 16)));
+        for (int rank = byName.countBefore(PlayerScore.empty(prefix)); rank < byName.size() && names.size() < count; rank++) {
+            String name = byName.get(rank).name();
+            if (!name.startsWith(prefix)) {
+                break;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    @Override
+    public Iterator<PlayerScore> iterator() {
+        return byName.iterator();
+    }
+
+    private static RankedIndex[] emptyRankings() {
+        RankedIndex[] empty = new RankedIndex[RANKINGS.length];
+        for (Leaderboard.Ranking ranking : RANKINGS) {
+            empty[ranking.ordinal()] = new RankedIndex(
+                    Comparator.<PlayerScore>comparingLong(ranking::scoreOf).reversed().thenComparing(PlayerScore::name));
+        }
+        return empty;
+    }
+}
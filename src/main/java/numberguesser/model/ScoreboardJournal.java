@@ -0,0 +1,184 @@
+package numberguesser.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * The `ScoreboardJournal` class is an append-only log of scoreboard updates.
+ *
+ * <p>Instead of rewriting the whole scoreboard after every game, each finished game appends one small
+ * record (player name, difficulty, points won) to the journal. The journal header carries the generation
+ * of the snapshot it applies to, so a journal left behind by an interrupted compaction is recognised as
+ * stale and ignored instead of being replayed twice.</p>
+ */
+final class ScoreboardJournal implements Closeable {
+    private static final int MAGIC = 0x4E474A4C; // "NGJL"
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private FileOutputStream file;
+    private DataOutputStream out;
+    private volatile long generation;
+    private int recordCount;
+
+    /**
+     * Constructs a journal backed by the specified file. The file is not opened until it is replayed.
+     *
+     * @param path the journal file
+     */
+    ScoreboardJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Replays the journal on top of a freshly loaded snapshot and opens it for appending.
+     *
+     * <p>Records are only applied when the journal belongs to the snapshot's generation. A torn record at
+     * the end of the file (left by a crash mid-append) is dropped and truncated away.</p>
+     *
+     * @param snapshotGeneration the generation of the loaded snapshot
+     * @param players the players loaded from the snapshot keyed by name, updated in place
+     * @throws IOException if an I/O error occurs while reading or opening the journal
+     */
+    void replay(long snapshotGeneration, Map<String, Player> players) throws IOException {
+        close();
+        this.generation = snapshotGeneration;
+        this.recordCount = 0;
+
+        if (Files.notExists(path) || Files.size(path) < HEADER_SIZE) {
+            reset(snapshotGeneration);
+            return;
+        }
+
+        // The journal is bounded by the compaction threshold, so it is read in one go
+        byte[] bytes = Files.readAllBytes(path);
+        ByteArrayInputStream source = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(source);
+        boolean stale = in.readInt() != MAGIC || in.readLong() != snapshotGeneration;
+        long validLength = HEADER_SIZE;
+        if (!stale) {
+            try {
+                while (true) {
+                    String name = in.readUTF();
+                    int difficulty = in.readByte();
+                    int points = in.readInt();
+                    Player player = players.computeIfAbsent(name, Player::new);
+                    player.recordGame(difficulty, points);
+                    validLength = bytes.length - source.available();
+                    recordCount++;
+                }
+            } catch (EOFException ignored) {
+                // End of the journal, or a torn record at its tail
+            }
+        }
+
+        if (stale) {
+            reset(snapshotGeneration);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > validLength) {
+                channel.truncate(validLength);
+            }
+        }
+        open();
+    }
+
+    /**
+     * Appends one update record. The record is buffered until {@link #flush(boolean)}.
+     *
+     * @param player the player that finished a game
+     * @param difficulty the difficulty level of the game
+     * @param points the points won in the game
+     * @throws IOException if an I/O error occurs while writing
+     */
+    void append(Player player, int difficulty, int points) throws IOException {
+        if (out == null) {
+            if (Files.notExists(path) || Files.size(path) < HEADER_SIZE) {
+                reset(generation);
+            } else {
+                open();
+            }
+        }
+        out.writeUTF(player.getName());
+        out.writeByte(difficulty);
+        out.writeInt(points);
+        recordCount++;
+    }
+
+    /**
+     * Hands the appended records to the operating system and, if asked to, forces them to the storage device.
+     *
+     * @param sync true to force the journal file to the storage device
+     * @throws IOException if an I/O error occurs while writing
+     */
+    void flush(boolean sync) throws IOException {
+        if (out != null) {
+            out.flush();
+            if (sync) {
+                file.getChannel().force(false);
+            }
+        }
+    }
+
+    /**
+     * Discards all records and starts a new, empty journal for the given snapshot generation.
+     *
+     * @param snapshotGeneration the generation of the snapshot the new journal applies to
+     * @throws IOException if an I/O error occurs while writing
+     */
+    void reset(long snapshotGeneration) throws IOException {
+        close();
+        try (DataOutputStream header = new DataOutputStream(Files.newOutputStream(path))) {
+            header.writeInt(MAGIC);
+            header.writeLong(snapshotGeneration);
+        }
+        this.generation = snapshotGeneration;
+        this.recordCount = 0;
+        open();
+    }
+
+    /**
+     * Retrieves the generation of the snapshot this journal applies to.
+     *
+     * @return the snapshot generation
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Retrieves the number of records currently held in the journal.
+     *
+     * @return the record count
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            file = null;
+        }
+    }
+
+    private void open() throws IOException {
+        file = new FileOutputStream(path.toFile(), true);
+        out = new DataOutputStream(new BufferedOutputStream(file));
+    }
+}
@@ -0,0 +1,55 @@
+package numberguesser.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * The `ScoreboardResharder` class rewrites a journal-store scoreboard into a different number of segments.
+ *
+ * <p>It is an offline tool: nothing else may be using the scoreboard while it runs. The old layout is
+ * loaded with its journals applied, written out in full in the new layout, and only deleted once the new
+ * layout is complete, so an interrupted reshard leaves the old scoreboard intact.</p>
+ */
+public final class ScoreboardResharder {
+
+    private ScoreboardResharder() {
+    }
+
+    /**
+     * Rewrites the scoreboard in the given directory from one number of segments to another.
+     *
+     * @param directory the directory holding the scoreboard files
+     * @param fromShards the number of segments the scoreboard is stored in now; 1 for the unsharded files
+     * @param toShards the number of segments to store it in
+     * @return the number of players rewritten
+     * @throws IOException if the scoreboard cannot be read or written, or the new layout already holds players
+     */
+    public static int reshard(Path directory, int fromShards, int toShards) throws IOException {
+        if (fromShards < 1 || toShards < 1) {
+            throw new IllegalArgumentException("Scoreboard shards must be positive: " + fromShards + " -> " + toShards);
+        }
+        if (fromShards == toShards) {
+            return 0;
+        }
+        if (ShardedScoreboardStore.holdsPlayers(directory, toShards)) {
+            throw new IOException("The scoreboard in '" + directory.toAbsolutePath() + "' already holds players in "
+                    + toShards + " shards");
+        }
+
+        Map<String, Player> players;
+        try (ScoreboardStore source = ScoreboardStore.openJournal(directory, fromShards)) {
+            players = source.load();
+        }
+        try (ScoreboardStore target = ScoreboardStore.openJournal(directory, toShards)) {
+            target.load();
+            target.save(players.values());
+            target.flush(true);
+        }
+        for (Path file : ShardedScoreboardStore.files(directory, fromShards)) {
+            Files.deleteIfExists(file);
+        }
+        return players.size();
+    }
+}
@@ -0,0 +1,167 @@
+package numberguesser.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The `ScoreboardSnapshot` class is an immutable version of the scoreboard: every player's
+ * {@link PlayerScore} and their places on each {@link Leaderboard.Ranking}.
+ *
+ * <p>A snapshot never changes once it is published, so it can be iterated, searched and ranked by any
+ * number of threads without locking, and everything read from one snapshot is consistent with everything
+ * else read from it. Each finished game publishes a new snapshot that shares nearly everything with the
+ * previous one, so taking a snapshot is a single volatile read and publishing one copies only O(log n) of
+ * it. A scoreboard held on the heap is a {@link RankedSnapshot}; one held in a {@link PlayerTable} is a
+ * {@link TableSnapshot}, whose indexes are kept outside the heap as well.</p>
+ */
+public abstract class ScoreboardSnapshot implements Iterable<PlayerScore> {
+    private static final int ITERATION_PAGE = 256;
+
+    private final long version;
+
+    /**
+     * Constructs a snapshot.
+     *
+     * @param version the version of the snapshot
+     */
+    ScoreboardSnapshot(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns a snapshot with a player's score added or replaced.
+     *
+     * @param score the player's new score
+     * @return the new snapshot, one version after this one
+     */
+    abstract ScoreboardSnapshot with(PlayerScore score);
+
+    /**
+     * Retrieves the version of this snapshot, which grows by one with every published change.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves the number of players.
+     *
+     * @return the player count
+     */
+    public abstract int size();
+
+    /**
+     * Looks up a player's score.
+     *
+     * @param name the player's name
+     * @return the score, or null if the player is not on the scoreboard
+     */
+    public abstract PlayerScore get(String name);
+
+    /**
+     * Retrieves the best players on a ranking.
+     *
+     * @param ranking the ranking to read
+     * @param count the maximum number of entries
+     * @return up to {@code count} entries, best first
+     */
+    public List<Leaderboard.Entry> top(Leaderboard.Ranking ranking, int count) {
+        return page(ranking, 0, count);
+    }
+
+    /**
+     * Retrieves a page of a ranking.
+     *
+     * @param ranking the ranking to read
+     * @param from the 0-based position of the first entry
+     * @param count the maximum number of entries
+     * @return up to {@code count} entries starting at {@code from}
+     */
+    public List<Leaderboard.Entry> page(Leaderboard.Ranking ranking, int from, int count) {
+        int rank = Math.max(0, from);
+        List<PlayerScore> scores = scores(ranking, rank, count);
+        List<Leaderboard.Entry> entries = new ArrayList<>(scores.size());
+        for (PlayerScore score : scores) {
+            entries.add(new Leaderboard.Entry(score.name(), ranking.scoreOf(score), ++rank));
+        }
+        return entries;
+    }
+
+    /**
+     * Retrieves a page of the players' scores in the order of a ranking, or in name order, for views that
+     * show the scoreboard a screenful at a time.
+     *
+     * @param ranking the ranking to read, or null for name order
+     * @param from the 0-based position of the first score
+     * @param count the maximum number of scores
+     * @return up to {@code count} scores starting at {@code from}
+     */
+    public abstract List<PlayerScore> scores(Leaderboard.Ranking ranking, int from, int count);
+
+    /**
+     * Retrieves a player's position in the order of a ranking, or in name order.
+     *
+     * @param ranking the ranking to read, or null for name order
+     * @param name the player's name
+     * @return the 0-based position, or -1 if the player is not on the scoreboard
+     */
+    public abstract int positionOf(Leaderboard.Ranking ranking, String name);
+
+    /**
+     * Retrieves a player's position on a ranking.
+     *
+     * @param ranking the ranking to read
+     * @param name the player's name
+     * @return the 1-based rank, or 0 if the player is not ranked
+     */
+    public int rankOf(Leaderboard.Ranking ranking, String name) {
+        return positionOf(ranking, name) + 1;
+    }
+
+    /**
+     * Retrieves the names starting with a prefix, in name order. The names are kept sorted, so the matches
+     * are found by one O(log n) search for the first name not before the prefix and a walk from there,
+     * however many players there are.
+     *
+     * @param prefix the start of the name; the empty prefix matches every name
+     * @param count the maximum number of names
+     * @return up to {@code count} names starting with {@code prefix}
+     */
+    public abstract List<String> completions(String prefix, int count);
+
+    /**
+     * Iterates over the players' scores in name order, reading them a page at a time.
+     *
+     * @return an iterator over the scores
+     */
+    @Override
+    public Iterator<PlayerScore> iterator() {
+        return new Iterator<>() {
+            private List<PlayerScore> page = List.of();
+            private int next;
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                if (next == page.size() && position < size()) {
+                    page = scores(null, position, ITERATION_PAGE);
+                    position += page.size();
+                    next = 0;
+                }
+                return next < page.size();
+            }
+
+            @Override
+            public PlayerScore next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(next++);
+            }
+        };
+    }
+}
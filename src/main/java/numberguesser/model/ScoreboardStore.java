@@ -0,0 +1,162 @@
+package numberguesser.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The `ScoreboardStore` interface describes where and how the scoreboard is persisted.
+ *
+ * <p>Every store returns all of its players from {@link #load()}: the journal stores read them into a
+ * registry, while the mapped store returns a view of its file that reads each player from the file as it is
+ * needed. The store in use is picked by the
+ * {@code numberguesser.scoreboard.store} system property: {@code journal} (the default) or {@code mapped}.
+ * Its files are kept in the directory named by {@code numberguesser.scoreboard.dir}, the working directory
+ * by default. The journal store is split into {@code numberguesser.scoreboard.shards} segments by player
+ * name, one by default; see {@link ShardedScoreboardStore}.</p>
+ */
+interface ScoreboardStore extends Closeable {
+
+    /**
+     * Opens the store selected by the {@code numberguesser.scoreboard.store} system property.
+     *
+     * @return the configured store
+     */
+    static ScoreboardStore open() {
+        String type = System.getProperty("numberguesser.scoreboard.store", "journal");
+        Path directory = Path.of(System.getProperty("numberguesser.scoreboard.dir", ""));
+        return switch (type) {
+            case "mapped" -> new MappedScoreboardStore(directory.resolve(MappedScoreboardStore.DEFAULT_PATH));
+            case "journal" -> {
+                int shards = Integer.getInteger("numberguesser.scoreboard.shards", 1);
+                ShardedScoreboardStore.checkLayout(directory, shards);
+                yield openJournal(directory, shards);
+            }
+            default -> throw new IllegalStateException("Unknown scoreboard store: " + type);
+        };
+    }
+
+    /**
+     * Opens a journal store split into the given number of segments.
+     *
+     * @param directory the directory holding the store's files
+     * @param shards the number of segments; 1 for the single, unsharded snapshot and journal
+     * @return the store
+     */
+    static ScoreboardStore openJournal(Path directory, int shards) {
+        if (shards == 1) {
+            return new JournalScoreboardStore(directory.resolve(JournalScoreboardStore.DEFAULT_SNAPSHOT_PATH),
+                    directory.resolve(JournalScoreboardStore.DEFAULT_JOURNAL_PATH));
+        }
+        return new ShardedScoreboardStore(directory, shards);
+    }
+
+    /**
+     * Loads every player on the scoreboard.
+     *
+     * @return the loaded players keyed by name in a map that is safe for concurrent use, never null
+     * @throws IOException if an I/O error occurs during loading
+     */
+    Map<String, Player> load() throws IOException;
+
+    /**
+     * Loads every player on the scoreboard into a registry supplied by the caller,
+     * such as an {@link OffHeapPlayerRegistry}. Players are added with {@link Map#put} and, for journal
+     * replay, {@link Map#computeIfAbsent}, and must be looked up again after being added.
+     *
+     * @param players the registry to add the players to, safe for concurrent use
+     * @throws IOException if an I/O error occurs during loading
+     */
+    default void loadInto(Map<String, Player> players) throws IOException {
+        players.putAll(load());
+    }
+
+    /**
+     * Checks whether {@link #load()} returns a registry that keeps the players outside the heap already, in
+     * which case they are not to be copied into an {@link OffHeapPlayerRegistry} with {@link #loadInto(Map)}.
+     *
+     * @return true if the loaded players are kept outside the heap, false otherwise
+     */
+    default boolean keepsPlayersOffHeap() {
+        return false;
+    }
+
+    /**
+     * Persists the result of a finished game. The player has already been updated in memory.
+     * Implementations must allow concurrent calls, and may buffer the result until {@link #flush(boolean)}.
+     *
+     * @param player the updated player
+     * @param difficulty the difficulty level of the game
+     * @param points the points won in the game
+     * @throws IOException if an I/O error occurs during writing
+     */
+    void record(Player player, int difficulty, int points) throws IOException;
+
+    /**
+     * Hands every recorded result to the operating system and, if asked to, forces it to the storage device.
+     *
+     * @param sync true to force the recorded results to the storage device
+     * @throws IOException if an I/O error occurs during writing
+     */
+    void flush(boolean sync) throws IOException;
+
+    /**
+     * Checks whether enough has been recorded that the store wants a full {@link #save(Collection)}.
+     *
+     * @return true if a full save is due, false otherwise
+     */
+    boolean isCompactionDue();
+
+    /**
+     * Persists the full state of the given players.
+     *
+     * @param playerList the players to save
+     * @throws IOException if an I/O error occurs during saving
+     */
+    void save(Collection<Player> playerList) throws IOException;
+
+    /**
+     * Rewrites whatever {@link #isCompactionDue()} asked for. By default this is a full {@link #save(Collection)};
+     * a store made of several files may rewrite only the ones that are due.
+     *
+     * @param playerList every player on the scoreboard
+     * @throws IOException if an I/O error occurs during saving
+     */
+    default void compact(Collection<Player> playerList) throws IOException {
+        save(playerList);
+    }
+
+    /**
+     * Checks whether the store can hold a player with the given name. Names it cannot hold must be turned away
+     * before the player logs in, since a result that cannot be {@link #record(Player, int, int) recorded} is
+     * lost.
+     *
+     * @param name the player's name
+     * @return true if the name can be stored, false otherwise
+     */
+    default boolean acceptsName(String name) {
+        return true;
+    }
+
+    /**
+     * Retrieves the generation of the full copy that holds a player. It changes whenever that copy is
+     * rewritten, so a result applied in memory before the rewrite is known to be in the copy already and is
+     * not {@link #record(Player, int, int) recorded} again.
+     *
+     * @param name the player's name
+     * @return the generation, or 0 if the store does not rewrite its copy
+     */
+    default long getGeneration(String name) {
+        return 0;
+    }
+
+    /**
+     * Retrieves the size of the store's full copy of the scoreboard on disk.
+     *
+     * @return the size in bytes, or 0 if nothing has been written yet
+     * @throws IOException if an I/O error occurs while reading the size
+     */
+    long getSnapshotBytes() throws IOException;
+}
@@ -0,0 +1,297 @@
+package numberguesser.model;
+
+import numberguesser.ErrorLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * The `ScoreboardWriter` class persists finished games on a background thread with group commit.
+ *
+ * <p>{@link GameModel#updateList(Player, int, int)} updates the player in memory and hands the result to
+ * this writer, so no game thread (in particular not the JavaFX application thread) waits for the disk.
+ * The writer collects the results that arrive within a short commit window and writes them to the
+ * {@link ScoreboardStore} with a single flush. It is configured by system properties:</p>
+ * <ul>
+ *   <li>{@code numberguesser.scoreboard.durability} - when commits are forced to the storage device:
+ *       {@code every-commit}, {@code interval} (the default) or {@code on-shutdown}</li>
+ *   <li>{@code numberguesser.scoreboard.syncIntervalMs} - the interval for {@code interval}, 1000 by default</li>
+ *   <li>{@code numberguesser.scoreboard.commitWindowMs} - how long a commit waits for more results, 10 by default</li>
+ *   <li>{@code numberguesser.scoreboard.queueCapacity} - the number of pending results before
+ *       {@link #submit(Player, int, int, long, long)} blocks the caller, 4096 by default</li>
+ * </ul>
+ *
+ * <p>Each result carries the epoch it was applied in and the store generation of the player's snapshot at
+ * the time. A full save advances the epoch and a compaction changes the generation of the snapshots it
+ * rewrites, and results from an earlier epoch or generation are dropped because the rewritten snapshot
+ * already holds them. Pending results are written and
+ * forced to disk by {@link #close()}, which also runs from a shutdown hook.</p>
+ */
+final class ScoreboardWriter implements Closeable {
+    private static final Update STOP = new Update(null, 0, 0, -1, -1);
+
+    private final ScoreboardStore store;
+    private final ReadWriteLock scoreboardLock;
+    private final Runnable compactor;
+    private final BlockingQueue<Update> queue;
+    private final int maxBatchSize;
+    private final Durability durability;
+    private final long commitWindowNanos;
+    private final long syncIntervalNanos;
+    private final Thread thread;
+    private volatile long epoch;
+    private volatile boolean closed;
+
+    /**
+     * The `Durability` enum lists when committed results are forced to the storage device.
+     */
+    enum Durability {
+        /** Every commit is forced before the next one starts. */
+        EVERY_COMMIT,
+        /** Commits are forced at most once per sync interval. */
+        INTERVAL,
+        /** Commits are only handed to the operating system, and forced when the writer is closed. */
+        ON_SHUTDOWN
+    }
+
+    private record Update(Player player, int difficulty, int points, long epoch, long generation) {
+    }
+
+    /**
+     * Constructs a writer. The writer thread is not started until {@link #start()}.
+     *
+     * @param store the store to write to
+     * @param scoreboardLock the lock whose exclusive side is held by full saves
+     * @param compactor the action that runs a full save once the store asks for one
+     * @param durability when commits are forced to the storage device
+     * @param commitWindowMillis how long a commit waits for more results
+     * @param syncIntervalMillis the minimum time between forced commits for {@link Durability#INTERVAL}
+     * @param queueCapacity the number of pending results before submitting blocks
+     */
+    ScoreboardWriter(ScoreboardStore store, ReadWriteLock scoreboardLock, Runnable compactor, Durability durability,
+                     long commitWindowMillis, long syncIntervalMillis, int queueCapacity) {
+        this.store = store;
+        this.scoreboardLock = scoreboardLock;
+        this.compactor = compactor;
+        this.durability = durability;
+        this.commitWindowNanos = TimeUnit.MILLISECONDS.toNanos(commitWindowMillis);
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = queueCapacity;
+        this.thread = Thread.ofPlatform().name("scoreboard-writer").daemon().unstarted(this::run);
+    }
+
+    /**
+     * Creates a writer configured by the {@code numberguesser.scoreboard.*} system properties, starts it and
+     * registers a shutdown hook that closes it.
+     *
+     * @param store the store to write to
+     * @param scoreboardLock the lock whose exclusive side is held by full saves
+     * @param compactor the action that runs a full save once the store asks for one
+     * @return the started writer
+     */
+    static ScoreboardWriter start(ScoreboardStore store, ReadWriteLock scoreboardLock, Runnable compactor) {
+        Durability durability = Durability.valueOf(System.getProperty("numberguesser.scoreboard.durability", "interval")
+                .toUpperCase(Locale.ROOT).replace('-', '_'));
+        ScoreboardWriter writer = new ScoreboardWriter(store, scoreboardLock, compactor, durability,
+                Long.getLong("numberguesser.scoreboard.commitWindowMs", 10),
+                Long.getLong("numberguesser.scoreboard.syncIntervalMs", 1000),
+                Integer.getInteger("numberguesser.scoreboard.queueCapacity", 4096));
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "scoreboard-writer-shutdown"));
+        return writer;
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Retrieves the current epoch. Callers read it under the shared side of the scoreboard lock, in the same
+     * critical section that applies the result in memory.
+     *
+     * @return the current epoch
+     */
+    long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Starts a new epoch after a full save. Must be called under the exclusive side of the scoreboard lock.
+     */
+    void advanceEpoch() {
+        epoch++;
+    }
+
+    /**
+     * Queues a finished game for writing, blocking while the queue is full. Once the writer is closed the
+     * result is written on the caller's thread instead.
+     *
+     * @param player the updated player
+     * @param difficulty the difficulty level of the game
+     * @param points the points won in the game
+     * @param epoch the epoch the result was applied in
+     * @param generation the store generation of the player's snapshot when the result was applied
+     */
+    void submit(Player player, int difficulty, int points, long epoch, long generation) {
+        Update update = new Update(player, difficulty, points, epoch, generation);
+        if (closed || !enqueue(update)) {
+            commit(List.of(update), true);
+        } else if (closed && !thread.isAlive()) {
+            // The writer stopped while the update was being queued
+            commitRemaining();
+        }
+    }
+
+    /**
+     * Writes every pending result, forces it to disk and stops the writer thread.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        enqueue(STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        commitRemaining();
+    }
+
+    /**
+     * Writes the results queued by callers that raced with closing.
+     */
+    private void commitRemaining() {
+        List<Update> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        commit(remaining, true);
+    }
+
+    private void run() {
+        List<Update> batch = new ArrayList<>();
+        long lastSync = System.nanoTime();
+        boolean unsynced = false;
+        boolean stopping = false;
+
+        while (!stopping) {
+            try {
+                Update first = unsynced && durability == Durability.INTERVAL
+                        ? queue.poll(lastSync + syncIntervalNanos - System.nanoTime(), TimeUnit.NANOSECONDS)
+                        : queue.take();
+                if (first != null) {
+                    batch.add(first);
+                    stopping = first == STOP || collect(batch);
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+
+            long now = System.nanoTime();
+            boolean sync = switch (durability) {
+                case EVERY_COMMIT -> true;
+                case INTERVAL -> now - lastSync >= syncIntervalNanos;
+                case ON_SHUTDOWN -> false;
+            } || stopping;
+            if (!batch.isEmpty() || (sync && unsynced)) {
+                commit(batch, sync);
+                unsynced = !sync;
+                if (sync) {
+                    lastSync = now;
+                }
+            }
+            batch.clear();
+
+            if (!stopping && store.isCompactionDue()) {
+                compactor.run();
+            }
+        }
+    }
+
+    /**
+     * Adds the results that arrive within the commit window to the batch.
+     *
+     * @return true if the writer was asked to stop
+     */
+    private boolean collect(List<Update> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + commitWindowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.get(batch.size() - 1) == STOP) {
+                return true;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Update next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch.contains(STOP);
+    }
+
+    /**
+     * Writes a batch with one flush. The shared side of the scoreboard lock keeps a full save from
+     * resetting the store in the middle of the batch.
+     */
+    private void commit(List<Update> batch, boolean sync) {
+        scoreboardLock.readLock().lock();
+        try {
+            long current = epoch;
+            for (Update update : batch) {
+                if (update != STOP && update.epoch() == current
+                        && update.generation() == store.getGeneration(update.player().getName())) {
+                    store.record(update.player(), update.difficulty(), update.points());
+                }
+            }
+            store.flush(sync);
+        } catch (IOException e) {
+            ErrorLog.log(e);
+        } finally {
+            scoreboardLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts an update on the queue, waiting while it is full unless the writer thread has stopped.
+     *
+     * @return false if the writer thread stopped before the update could be queued
+     */
+    private boolean enqueue(Update update) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (queue.offer(update, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (closed && !thread.isAlive()) {
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package numberguesser.model;
+
+import numberguesser.ErrorLog;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The `SessionRecorder` class appends every finished game to a compact replay journal, so that games can
+ * be reproduced exactly by a {@link SessionReplayer}.
+ *
+ * <p>Recording is off unless the {@code numberguesser.replay.path} system property names the journal file.
+ * The file starts with a magic number and a format version, followed by tagged entries whose numbers are
+ * all unsigned LEB128 varints, signed ones zigzag-encoded first:</p>
+ * <ul>
+ *   <li>{@code 0} - a segment start, written each time the file is opened; it resets the player table</li>
+ *   <li>{@code 1} - a game: the player's id in the segment's player table (0 for none), followed by the
+ *       UTF-8 name when the id is new; the difficulty level; the secret number; the number of guesses;
+ *       each guess as its distance from the secret; and the {@link GuessOutcome}</li>
+ * </ul>
+ * <p>A typical game takes under ten bytes. Entries are buffered and written in blocks; the buffer is flushed
+ * when the recorder is closed, which also runs from a shutdown hook.</p>
+ */
+final class SessionRecorder implements Closeable {
+    static final int MAGIC = 0x4E47524A; // "NGRJ"
+    static final int VERSION = 1;
+    static final int TAG_SEGMENT = 0;
+    static final int TAG_GAME = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final OutputStream out;
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean closed;
+
+    /**
+     * Opens the journal for appending and starts a new segment.
+     *
+     * @param path the journal file
+     * @throws IOException if the file cannot be opened
+     */
+    SessionRecorder(Path path) throws IOException {
+        boolean isNew = Files.notExists(path) || Files.size(path) == 0;
+        this.out = new FileOutputStream(path.toFile(), true);
+        if (isNew) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+        }
+        writeVarLong(TAG_SEGMENT);
+    }
+
+    /**
+     * Opens the recorder named by the {@code numberguesser.replay.path} system property, and registers a
+     * shutdown hook that closes it.
+     *
+     * @return the recorder, or null if recording is off or the journal cannot be opened
+     */
+    static SessionRecorder open() {
+        String path = System.getProperty("numberguesser.replay.path");
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            SessionRecorder recorder = new SessionRecorder(Path.of(path));
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "replay-recorder-shutdown"));
+            return recorder;
+        } catch (IOException e) {
+            ErrorLog.log(e);
+            return null;
+        }
+    }
+
+    /**
+     * Appends a finished game.
+     *
+     * @param player the player, or null
+     * @param difficulty the difficulty level
+     * @param secret the secret number
+     * @param guesses the guesses in the order they were made
+     * @param guessCount the number of guesses
+     * @param outcome the outcome of the last guess
+     */
+    synchronized void record(Player player, int difficulty, long secret, long[] guesses, int guessCount,
+                             GuessOutcome outcome) {
+        if (closed) {
+            return;
+        }
+        try {
+            writeVarLong(TAG_GAME);
+            writePlayer(player);
+            writeVarLong(difficulty);
+            writeVarLong(zigzag(secret));
+            writeVarLong(guessCount);
+            for (int i = 0; i < guessCount; i++) {
+                writeVarLong(zigzag(guesses[i] - secret));
+            }
+            writeVarLong(outcome.ordinal());
+        } catch (IOException e) {
+            ErrorLog.log(e);
+        }
+    }
+
+    /**
+     * Writes the buffered games to the file and closes it.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            drain();
+        } catch (IOException e) {
+            ErrorLog.log(e);
+        }
+    }
+
+    private void writePlayer(Player player) throws IOException {
+        if (player == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer id = playerIds.get(player.getName());
+        if (id != null) {
+            writeVarLong(id);
+            return;
+        }
+        id = playerIds.size() + 1;
+        playerIds.put(player.getName(), id);
+        byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(id);
+        writeVarLong(name.length);
+        if (position + name.length > buffer.length) {
+            drain();
+        }
+        if (name.length > buffer.length) {
+            out.write(name);
+        } else {
+            System.arraycopy(name, 0, buffer, position, name.length);
+            position += name.length;
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        if (position + MAX_VARINT_BYTES > buffer.length) {
+            drain();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    /**
+     * Maps a signed number to an unsigned one so that numbers close to zero get short varints.
+     *
+     * @param value the signed number
+     * @return the zigzag-encoded number
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigzag(long)}.
+     *
+     * @param value the zigzag-encoded number
+     * @return the signed number
+     */
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
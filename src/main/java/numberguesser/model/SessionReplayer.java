@@ -0,0 +1,178 @@
+package numberguesser.model;
+
+import numberguesser.HandledException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `SessionReplayer` class re-plays the games of a replay journal written by {@link SessionRecorder}.
+ *
+ * <p>Each recorded game is started again with its recorded secret number and played guess by guess through
+ * a {@link GameSession}, and every outcome is checked against the recording. Optionally the results are
+ * recorded on the scoreboard as well, exactly as the original games did. The journal is decoded straight
+ * from a reused buffer, and each player name is decoded once per segment, so replaying allocates almost
+ * nothing per game.</p>
+ */
+public final class SessionReplayer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+
+    private final GameModel model;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private InputStream in;
+    private int position;
+    private int limit;
+
+    /**
+     * The totals of a replay.
+     *
+     * @param games the number of games replayed
+     * @param guesses the number of guesses replayed
+     * @param mismatches the number of games whose replayed outcome differed from the recording
+     */
+    public record Result(long games, long guesses, long mismatches) {
+    }
+
+    /**
+     * Constructs a replayer that plays on the given model.
+     *
+     * @param model the game model
+     */
+    public SessionReplayer(GameModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Replays every game in a journal. A torn game at the end of the journal is ignored.
+     *
+     * @param journal the replay journal
+     * @param updateScoreboard true to record each replayed result on the scoreboard
+     * @return the totals of the replay
+     * @throws IOException if the journal cannot be read or is not a replay journal
+     * @throws HandledException if the journal refers to a difficulty level that does not exist
+     */
+    public Result replay(Path journal, boolean updateScoreboard) throws IOException, HandledException {
+        GameSession session = model.newSession();
+        session.disableRecording();
+        List<Player> players = new ArrayList<>();
+        long games = 0;
+        long guesses = 0;
+        long mismatches = 0;
+
+        try (InputStream input = Files.newInputStream(journal)) {
+            this.in = input;
+            this.position = 0;
+            this.limit = 0;
+            if (readInt() != SessionRecorder.MAGIC) {
+                throw new InvalidObjectException("Not a replay journal: " + journal);
+            }
+            int version = readByte();
+            if (version != SessionRecorder.VERSION) {
+                throw new InvalidObjectException("Unsupported replay journal version: " + version);
+            }
+
+            while (true) {
+                int tag;
+                try {
+                    tag = (int) readVarLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (tag == SessionRecorder.TAG_SEGMENT) {
+                    players.clear();
+                    continue;
+                } else if (tag != SessionRecorder.TAG_GAME) {
+                    throw new InvalidObjectException("Corrupt replay journal entry: " + tag);
+                }
+
+                try {
+                    Player player = readPlayer(players);
+                    int difficulty = (int) readVarLong();
+                    long secret = SessionRecorder.unzigzag(readVarLong());
+                    int guessCount = (int) readVarLong();
+
+                    session.setPlayer(player);
+                    session.resetGame();
+                    session.replayGame(difficulty, secret);
+                    GuessOutcome outcome = GuessOutcome.INVALID;
+                    for (int i = 0; i < guessCount; i++) {
+                        outcome = session.play(secret + SessionRecorder.unzigzag(readVarLong()));
+                    }
+                    guesses += guessCount;
+                    games++;
+                    long recorded = readVarLong();
+                    if (recorded >= OUTCOMES.length || OUTCOMES[(int) recorded] != outcome) {
+                        mismatches++;
+                    }
+
+                    if (updateScoreboard && player != null && outcome.isGameOver()) {
+                        if (outcome == GuessOutcome.WIN) {
+                            session.setPointsWon(session.getTriesLeft());
+                        }
+                        session.recordResult();
+                    }
+                } catch (EOFException e) {
+                    // A torn game at the end of the journal
+                    break;
+                }
+            }
+        } finally {
+            this.in = null;
+        }
+        return new Result(games, guesses, mismatches);
+    }
+
+    private Player readPlayer(List<Player> players) throws IOException {
+        int id = (int) readVarLong();
+        if (id == 0) {
+            return null;
+        }
+        if (id <= players.size()) {
+            return players.get(id - 1);
+        }
+        int length = (int) readVarLong();
+        byte[] name = new byte[length];
+        for (int i = 0; i < length; i++) {
+            name[i] = (byte) readByte();
+        }
+        Player player = model.playerExists(new Player(new String(name, StandardCharsets.UTF_8)));
+        players.add(player);
+        return player;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidObjectException("Malformed varint in replay journal");
+    }
+
+    private int readInt() throws IOException {
+        return readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new EOFException();
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
@@ -0,0 +1,318 @@
+package numberguesser.model;
+
+import numberguesser.ErrorLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The `ShardedScoreboardStore` class splits the scoreboard into segments by the hash of the player's name,
+ * each kept as its own {@link JournalScoreboardStore} snapshot and journal.
+ *
+ * <p>A finished game is appended to the journal of the one segment that owns the player, and once that
+ * journal is full only that segment's snapshot is rewritten. The segments are loaded in parallel on the
+ * common fork-join pool, so startup time drops with the number of cores as long as there are at least as
+ * many segments. Segment {@code i} of {@code n} is stored as {@code scoreboard-i-of-n.dat} and
+ * {@code scoreboard-i-of-n.journal}; since the owner of a player depends on {@code n}, changing the number
+ * of segments needs the scoreboard to be rewritten with {@link ScoreboardResharder}.</p>
+ */
+final class ShardedScoreboardStore implements ScoreboardStore {
+    private static final Pattern SEGMENT_FILE = Pattern.compile("scoreboard-\\d+-of-(\\d+)\\.(dat|dat\\.delta|dat\\.prev|journal)");
+
+    private final JournalScoreboardStore[] segments;
+    private final AtomicIntegerArray unsynced;
+
+    /**
+     * Constructs a store over the segment files in the given directory.
+     *
+     * @param directory the directory holding the segment files
+     * @param shards the number of segments
+     */
+    ShardedScoreboardStore(Path directory, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Scoreboard shards must be positive: " + shards);
+        }
+        this.segments = new JournalScoreboardStore[shards];
+        this.unsynced = new AtomicIntegerArray(shards);
+        for (int i = 0; i < shards; i++) {
+            segments[i] = new JournalScoreboardStore(segmentPath(directory, i, shards, "dat"),
+                    segmentPath(directory, i, shards, "journal"));
+        }
+    }
+
+    /**
+     * Loads every segment, in parallel.
+     *
+     * @return every stored player keyed by name
+     * @throws IOException if an I/O error occurs while loading any segment
+     */
+    @Override
+    public Map<String, Player> load() throws IOException {
+        Map<String, Player> players = new ConcurrentHashMap<>();
+        loadInto(players);
+        return players;
+    }
+
+    /**
+     * Loads every segment into the given map, in parallel.
+     *
+     * @param players the map to add the players to, safe for concurrent use
+     * @throws IOException if an I/O error occurs while loading any segment
+     */
+    @Override
+    public void loadInto(Map<String, Player> players) throws IOException {
+        try {
+            IntStream.range(0, segments.length)
+                    .parallel()
+                    .forEach(i -> {
+                        try {
+                            segments[i].loadInto(players);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void record(Player player, int difficulty, int points) throws IOException {
+        int shard = shardOf(player.getName(), segments.length);
+        unsynced.set(shard, 1);
+        segments[shard].record(player, difficulty, points);
+    }
+
+    /**
+     * Flushes every segment, and forces to the storage device only the segments written since they were
+     * last forced.
+     *
+     * @param sync true to force the recorded results to the storage device
+     * @throws IOException if an I/O error occurs during writing
+     */
+    @Override
+    public void flush(boolean sync) throws IOException {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].flush(sync && unsynced.getAndSet(i, 0) == 1);
+        }
+    }
+
+    @Override
+    public boolean isCompactionDue() {
+        for (JournalScoreboardStore segment : segments) {
+            if (segment.isCompactionDue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rewrites the snapshots of the segments whose journals are full, and leaves the others alone.
+     *
+     * @param playerList every player on the scoreboard
+     * @throws IOException if an I/O error occurs during saving
+     */
+    @Override
+    public void compact(Collection<Player> playerList) throws IOException {
+        List<List<Player>> parts = partition(playerList);
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].isCompactionDue()) {
+                segments[i].save(parts.get(i));
+            }
+        }
+    }
+
+    /**
+     * Rewrites the snapshot of every segment, in parallel.
+     *
+     * @param playerList the players to save
+     * @throws IOException if an I/O error occurs while saving any segment
+     */
+    @Override
+    public void save(Collection<Player> playerList) throws IOException {
+        List<List<Player>> parts = partition(playerList);
+        try {
+            IntStream.range(0, segments.length)
+                    .parallel()
+                    .forEach(i -> {
+                        try {
+                            segments[i].save(parts.get(i));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public long getGeneration(String name) {
+        return segments[shardOf(name, segments.length)].getGeneration(name);
+    }
+
+    @Override
+    public long getSnapshotBytes() throws IOException {
+        long bytes = 0;
+        for (JournalScoreboardStore segment : segments) {
+            bytes += segment.getSnapshotBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (JournalScoreboardStore segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Retrieves the segment that owns a player. {@link String#hashCode()} is specified by the language, so
+     * a player stays in the same segment across runs and JVMs.
+     *
+     * @param name the player's name
+     * @param shards the number of segments
+     * @return the segment index
+     */
+    static int shardOf(String name, int shards) {
+        return Math.floorMod(name.hashCode(), shards);
+    }
+
+    /**
+     * Retrieves every file of a journal store split into the given number of segments, whether or not it
+     * exists: the snapshots, deltas, previous snapshots and journals.
+     *
+     * @param directory the directory holding the store's files
+     * @param shards the number of segments; 1 for the single, unsharded snapshot and journal
+     * @return the store's files
+     */
+    static List<Path> files(Path directory, int shards) {
+        List<Path> files = new ArrayList<>();
+        if (shards == 1) {
+            addFiles(files, directory.resolve(JournalScoreboardStore.DEFAULT_SNAPSHOT_PATH),
+                    directory.resolve(JournalScoreboardStore.DEFAULT_JOURNAL_PATH));
+            return files;
+        }
+        for (int i = 0; i < shards; i++) {
+            addFiles(files, segmentPath(directory, i, shards, "dat"), segmentPath(directory, i, shards, "journal"));
+        }
+        return files;
+    }
+
+    private static void addFiles(List<Path> files, Path snapshot, Path journal) {
+        files.add(snapshot);
+        files.add(snapshot.resolveSibling(snapshot.getFileName() + ".delta"));
+        files.add(snapshot.resolveSibling(snapshot.getFileName() + ".prev"));
+        files.add(journal);
+    }
+
+    /**
+     * Checks whether any file of the given layout holds players: a non-empty snapshot or delta, or a journal
+     * with at least one record.
+     *
+     * @param directory the directory holding the store's files
+     * @param shards the number of segments
+     * @return true if the layout holds players, false otherwise
+     * @throws IOException if a file size cannot be read
+     */
+    static boolean holdsPlayers(Path directory, int shards) throws IOException {
+        for (Path file : files(directory, shards)) {
+            long emptySize = file.toString().endsWith(".journal") ? ScoreboardJournal.HEADER_SIZE : 0;
+            if (Files.exists(file) && Files.size(file) > emptySize) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes sure the scoreboard is not stored in a different number of segments than the one configured,
+     * which would otherwise start an empty scoreboard next to the real one.
+     *
+     * @param directory the directory holding the store's files
+     * @param shards the configured number of segments
+     * @throws IllegalStateException if the players are only found in another layout
+     */
+    static void checkLayout(Path directory, int shards) {
+        try {
+            if (holdsPlayers(directory, shards)) {
+                return;
+            }
+            for (int stored : storedLayouts(directory)) {
+                if (stored != shards && holdsPlayers(directory, stored)) {
+                    throw new IllegalStateException("The scoreboard in '" + directory.toAbsolutePath() + "' is stored in "
+                            + stored + " shards, not " + shards + "; run numberguesser.ReshardMain " + stored + " " + shards);
+                }
+            }
+        } catch (IOException e) {
+            // Only a safety check; the store itself reports errors reading its files
+            ErrorLog.log(e);
+        }
+    }
+
+    /**
+     * Lists the numbers of segments that have files in the directory, 1 standing for the unsharded files.
+     */
+    private static TreeSet<Integer> storedLayouts(Path directory) throws IOException {
+        TreeSet<Integer> layouts = new TreeSet<>();
+        Path listed = directory.toString().isEmpty() ? Path.of(".") : directory;
+        if (!Files.isDirectory(listed)) {
+            return layouts;
+        }
+        try (Stream<Path> files = Files.list(listed)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SEGMENT_FILE.matcher(name);
+                if (matcher.matches()) {
+                    layouts.add(Integer.parseInt(matcher.group(1)));
+                } else if (file.getFileName().equals(JournalScoreboardStore.DEFAULT_SNAPSHOT_PATH)
+                        || file.getFileName().equals(JournalScoreboardStore.DEFAULT_JOURNAL_PATH)) {
+                    layouts.add(1);
+                }
+            }
+        }
+        return layouts;
+    }
+
+    private List<List<Player>> partition(Collection<Player> playerList) {
+        List<List<Player>> parts = new ArrayList<>(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            parts.add(new ArrayList<>(playerList.size() / segments.length + 1));
+        }
+        for (Player player : playerList) {
+            parts.get(shardOf(player.getName(), segments.length)).add(player);
+        }
+        return parts;
+    }
+
+    private static Path segmentPath(Path directory, int shard, int shards, String extension) {
+        return directory.resolve("scoreboard-" + shard + "-of-" + shards + "." + extension);
+    }
+}
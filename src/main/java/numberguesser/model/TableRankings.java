@@ -0,0 +1,340 @@
+package numberguesser.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The `TableRankings` class is the immutable, off-heap part of a {@link TableSnapshot}: the counters of the
+ * players of a {@link PlayerTable} as they were at one point, and the players' numbers sorted in name order
+ * and in the order of every {@link Leaderboard.Ranking}.
+ *
+ * <p>The counters are copied into a buffer of {@value #CAPTURE_SIZE} bytes per player number, six counters
+ * and a flag telling whether the player is ranked, so that the orders stay sorted however the table changes
+ * afterwards. Each order is a buffer of {@code int} player numbers. A player costs
+ * {@value #CAPTURE_SIZE} bytes plus 4 per order, all of it outside the heap; names are compared in place in
+ * the table's UTF-8 bytes. The first rankings are built by a merge sort over direct buffers, and later ones
+ * by merging the changes collected on the heap into the previous ones in a single pass.</p>
+ */
+final class TableRankings {
+    private static final Leaderboard.Ranking[] RANKINGS = Leaderboard.Ranking.values();
+    private static final int ORDERS = RANKINGS.length + 1;
+    private static final int CAPTURE_SIZE = 28;
+    private static final int POINTS_OFFSET = 12;
+    private static final int RANKED_OFFSET = 24;
+    // Runs this short are insertion-sorted before they are merged
+    private static final int RUN = 32;
+    private static final int MIN_MERGE = 1 << 12;
+    private static final int MAX_MERGE = 1 << 16;
+
+    private final PlayerTable table;
+    private final int limit;
+    private final int size;
+    private final ByteBuffer captured;
+    // Index 0 is name order, the others follow the rankings
+    private final IntBuffer[] orders;
+
+    private TableRankings(PlayerTable table, int limit, int size, ByteBuffer captured, IntBuffer[] orders) {
+        this.table = table;
+        this.limit = limit;
+        this.size = size;
+        this.captured = captured;
+        this.orders = orders;
+    }
+
+    /**
+     * Ranks every player in a table. The orders are independent, so they are sorted in parallel.
+     *
+     * @param table the table
+     * @return the rankings of the players in the table when it is called
+     */
+    static TableRankings build(PlayerTable table) {
+        int limit = table.size();
+        ByteBuffer captured = allocate(limit);
+        for (int id = 0; id < limit; id++) {
+            table.copyCounters(id, captured, id * CAPTURE_SIZE);
+            captured.putInt(id * CAPTURE_SIZE + RANKED_OFFSET, 1);
+        }
+        IntBuffer[] orders = new IntBuffer[ORDERS];
+        // Only used for its comparisons while the orders are sorted
+        TableRankings unsorted = new TableRankings(table, limit, 0, captured, orders);
+        IntStream.range(0, ORDERS)
+                .parallel()
+                .forEach(o -> orders[o] = unsorted.sort(rankingOf(o), limit));
+        return new TableRankings(table, limit, limit, captured, orders);
+    }
+
+    /**
+     * Builds the rankings that follow from this one once some players have changed, in one pass over each
+     * order.
+     *
+     * @param removed the scores captured here of the changed players that are ranked here
+     * @param added the current scores of the changed players, which must all be in the table
+     * @return the new rankings
+     */
+    TableRankings merge(RankedSnapshot removed, RankedSnapshot added) {
+        // The changed players' numbers, looked up once for every order
+        Map<String, Integer> ids = new HashMap<>(added.size() * 2);
+        int limit = this.limit;
+        for (PlayerScore score : added) {
+            int id = table.find(score.name());
+            if (id < 0) {
+                throw new IllegalStateException("Ranked player is not in the table: " + score.name());
+            }
+            ids.put(score.name(), id);
+            limit = Math.max(limit, id + 1);
+        }
+
+        ByteBuffer captured = allocate(limit);
+        captured.put(0, this.captured, 0, this.limit * CAPTURE_SIZE);
+        for (PlayerScore score : added) {
+            int at = ids.get(score.name()) * CAPTURE_SIZE;
+            captured.putInt(at, score.easyCount());
+            captured.putInt(at + 4, score.mediumCount());
+            captured.putInt(at + 8, score.hardCount());
+            captured.putInt(at + 12, score.easyPoints());
+            captured.putInt(at + 16, score.mediumPoints());
+            captured.putInt(at + 20, score.hardPoints());
+            captured.putInt(at + RANKED_OFFSET, 1);
+        }
+        int size = this.size - removed.size() + added.size();
+        IntBuffer[] orders = new IntBuffer[ORDERS];
+        IntStream.range(0, ORDERS)
+                .parallel()
+                .forEach(o -> orders[o] = mergeOrder(rankingOf(o), removed, added, ids, size));
+        return new TableRankings(table, limit, size, captured, orders);
+    }
+
+    /**
+     * Retrieves the table the players are in.
+     *
+     * @return the table
+     */
+    PlayerTable getTable() {
+        return table;
+    }
+
+    /**
+     * Retrieves the number of ranked players.
+     *
+     * @return the player count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of changed players worth merging into new rankings: a 256th of the ranked players,
+     * but at least {@value #MIN_MERGE} and at most {@value #MAX_MERGE}, so that merges are rare and the changes
+     * held on the heap until then stay bounded however many players there are.
+     *
+     * @return the number of changed players
+     */
+    int getMergeThreshold() {
+        return Math.max(MIN_MERGE, Math.min(MAX_MERGE, size >>> 8));
+    }
+
+    /**
+     * Looks up the score of a ranked player as it was captured.
+     *
+     * @param name the player's name
+     * @return the score, or null if the player is not ranked
+     */
+    PlayerScore get(String name) {
+        int id = table.find(name);
+        return id >= 0 && id < limit && captured.getInt(id * CAPTURE_SIZE + RANKED_OFFSET) != 0 ? score(id, name) : null;
+    }
+
+    /**
+     * Retrieves the captured score of the player at a position.
+     *
+     * @param ranking the ranking, or null for name order
+     * @param position the 0-based position, less than {@link #size()}
+     * @return the score
+     */
+    PlayerScore scoreAt(Leaderboard.Ranking ranking, int position) {
+        int id = idAt(ranking, position);
+        return score(id, table.name(id));
+    }
+
+    /**
+     * Counts the ranked players ordered before a score, by binary search.
+     *
+     * @param ranking the ranking, or null for name order
+     * @param score the score to compare the players with, which need not be ranked
+     * @return the number of players ordered before it, which is its position if it is ranked
+     */
+    int countBefore(Leaderboard.Ranking ranking, PlayerScore score) {
+        IntBuffer order = orders[orderOf(ranking)];
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(ranking, score, order.get(middle)) > 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares a score with the player at a position.
+     *
+     * @param ranking the ranking, or null for name order
+     * @param score the score
+     * @param position the 0-based position, less than {@link #size()}
+     * @return a negative number, zero or a positive number as the score is ordered before, with or after the
+     *         player
+     */
+    int compareAt(Leaderboard.Ranking ranking, PlayerScore score, int position) {
+        return compare(ranking, score, idAt(ranking, position));
+    }
+
+    private int idAt(Leaderboard.Ranking ranking, int position) {
+        return orders[orderOf(ranking)].get(position);
+    }
+
+    private PlayerScore score(int id, String name) {
+        int at = id * CAPTURE_SIZE;
+        return new PlayerScore(name, captured.getInt(at), captured.getInt(at + 4), captured.getInt(at + 8),
+                captured.getInt(at + 12), captured.getInt(at + 16), captured.getInt(at + 20));
+    }
+
+    private long scoreOf(Leaderboard.Ranking ranking, int id) {
+        int at = id * CAPTURE_SIZE + POINTS_OFFSET;
+        return switch (ranking) {
+            case TOTAL -> (long) captured.getInt(at) + captured.getInt(at + 4) + captured.getInt(at + 8);
+            case EASY -> captured.getInt(at);
+            case MEDIUM -> captured.getInt(at + 4);
+            case HARD -> captured.getInt(at + 8);
+        };
+    }
+
+    /**
+     * Compares a score with a player in the order of a ranking: higher scores first, then by name.
+     */
+    private int compare(Leaderboard.Ranking ranking, PlayerScore score, int id) {
+        if (ranking != null) {
+            long points = ranking.scoreOf(score);
+            long other = scoreOf(ranking, id);
+            if (points != other) {
+                return points > other ? -1 : 1;
+            }
+        }
+        return -table.compareName(id, score.name());
+    }
+
+    private int compareIds(Leaderboard.Ranking ranking, int id, int other) {
+        if (ranking != null) {
+            long points = scoreOf(ranking, id);
+            long otherPoints = scoreOf(ranking, other);
+            if (points != otherPoints) {
+                return points > otherPoints ? -1 : 1;
+            }
+        }
+        return table.compareNames(id, other);
+    }
+
+    /**
+     * Sorts the player numbers below {@code count}: runs of {@value #RUN} by insertion, then bottom-up merges
+     * between two buffers.
+     */
+    private IntBuffer sort(Leaderboard.Ranking ranking, int count) {
+        IntBuffer sorted = allocateInts(count);
+        IntBuffer spare = allocateInts(count);
+        for (int id = 0; id < count; id++) {
+            sorted.put(id, id);
+        }
+        for (int low = 0; low < count; low += RUN) {
+            int high = Math.min(count, low + RUN);
+            for (int i = low + 1; i < high; i++) {
+                int id = sorted.get(i);
+                int j = i;
+                while (j > low && compareIds(ranking, sorted.get(j - 1), id) > 0) {
+                    sorted.put(j, sorted.get(j - 1));
+                    j--;
+                }
+                sorted.put(j, id);
+            }
+        }
+        for (long width = RUN; width < count; width *= 2) {
+            for (long low = 0; low < count; low += 2 * width) {
+                mergeRuns(ranking, sorted, spare, (int) low, (int) Math.min(count, low + width),
+                        (int) Math.min(count, low + 2 * width));
+            }
+            IntBuffer swap = sorted;
+            sorted = spare;
+            spare = swap;
+        }
+        return sorted;
+    }
+
+    private void mergeRuns(Leaderboard.Ranking ranking, IntBuffer from, IntBuffer to, int low, int middle, int high) {
+        int left = low;
+        int right = middle;
+        for (int at = low; at < high; at++) {
+            if (right >= high || left < middle && compareIds(ranking, from.get(left), from.get(right)) <= 0) {
+                to.put(at, from.get(left++));
+            } else {
+                to.put(at, from.get(right++));
+            }
+        }
+    }
+
+    /**
+     * Merges the changed players into one order, leaving out the positions of the ones that are ranked here.
+     * The removed scores are visited in order, so their positions come up in order as well.
+     */
+    private IntBuffer mergeOrder(Leaderboard.Ranking ranking, RankedSnapshot removed, RankedSnapshot added,
+                                 Map<String, Integer> ids, int count) {
+        IntBuffer merged = allocateInts(count);
+        IntBuffer order = orders[orderOf(ranking)];
+        Iterator<PlayerScore> gone = removed.indexOf(ranking).iterator();
+        Iterator<PlayerScore> changed = added.indexOf(ranking).iterator();
+        int skipped = gone.hasNext() ? countBefore(ranking, gone.next()) : size;
+        PlayerScore next = changed.hasNext() ? changed.next() : null;
+        int at = 0;
+        for (int position = 0; position < size; position++) {
+            if (position == skipped) {
+                skipped = gone.hasNext() ? countBefore(ranking, gone.next()) : size;
+                continue;
+            }
+            int id = order.get(position);
+            while (next != null && compare(ranking, next, id) < 0) {
+                merged.put(at++, ids.get(next.name()));
+                next = changed.hasNext() ? changed.next() : null;
+            }
+            merged.put(at++, id);
+        }
+        while (next != null) {
+            merged.put(at++, ids.get(next.name()));
+            next = changed.hasNext() ? changed.next() : null;
+        }
+        return merged;
+    }
+
+    private static int orderOf(Leaderboard.Ranking ranking) {
+        return ranking == null ? 0 : ranking.ordinal() + 1;
+    }
+
+    private static Leaderboard.Ranking rankingOf(int order) {
+        return order == 0 ? null : RANKINGS[order - 1];
+    }
+
+    private static ByteBuffer allocate(int players) {
+        if ((long) players * CAPTURE_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many players to rank: " + players);
+        }
+        return ByteBuffer.allocateDirect(players * CAPTURE_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    private static IntBuffer allocateInts(int count) {
+        return ByteBuffer.allocateDirect(count * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
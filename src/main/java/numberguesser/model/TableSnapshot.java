@@ -0,0 +1,223 @@
+package numberguesser.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `TableSnapshot` class is a {@link ScoreboardSnapshot} of the players in a {@link PlayerTable}, whose
+ * indexes are kept outside the heap like the players themselves.
+ *
+ * <p>It is made of immutable off-heap {@link TableRankings} built from the table, and of the players that
+ * changed since, held on the heap in two small {@link RankedSnapshot}s: their current scores, and the scores
+ * the rankings captured for them, which no longer count. Every read combines the three: a position is the
+ * number of players before it in the rankings, less the ones that no longer count, plus the changed ones
+ * before it, each found by binary search, and a page is a merge of the rankings and the changed players from
+ * there. A finished game only touches the heap part, in O(log n). Once enough players have changed,
+ * {@link #merge()} folds them into new rankings in one pass, which the {@link Leaderboard} does on a
+ * background thread; the heap part therefore stays bounded however many players there are.</p>
+ */
+final class TableSnapshot extends ScoreboardSnapshot {
+    private final TableRankings rankings;
+    // The scores captured by the rankings of the changed players that are ranked there
+    private final RankedSnapshot removed;
+    // The current scores of the players that changed since the rankings were built
+    private final RankedSnapshot added;
+
+    /**
+     * Constructs a snapshot of the rankings alone.
+     *
+     * @param version the version of the snapshot
+     * @param rankings the rankings of the table
+     */
+    TableSnapshot(long version, TableRankings rankings) {
+        this(version, rankings, RankedSnapshot.EMPTY, RankedSnapshot.EMPTY);
+    }
+
+    private TableSnapshot(long version, TableRankings rankings, RankedSnapshot removed, RankedSnapshot added) {
+        super(version);
+        this.rankings = rankings;
+        this.removed = removed;
+        this.added = added;
+    }
+
+    @Override
+    TableSnapshot with(PlayerScore score) {
+        RankedSnapshot removed = this.removed;
+        if (added.get(score.name()) == null) {
+            PlayerScore captured = rankings.get(score.name());
+            if (captured != null) {
+                removed = removed.with(captured);
+            }
+        }
+        return new TableSnapshot(getVersion() + 1, rankings, removed, added.with(score));
+    }
+
+    /**
+     * Checks whether enough players have changed since the rankings were built to {@link #merge()} them.
+     *
+     * @return true if a merge is due, false otherwise
+     */
+    boolean isMergeDue() {
+        return added.size() >= rankings.getMergeThreshold();
+    }
+
+    /**
+     * Builds new rankings with every change in this snapshot folded in. Takes O(n) and does not change the
+     * snapshot.
+     *
+     * @return the new rankings
+     */
+    TableRankings merge() {
+        return rankings.merge(removed, added);
+    }
+
+    /**
+     * Checks whether this snapshot is built on the same rankings as another.
+     *
+     * @param other the other snapshot
+     * @return true if both have the same rankings
+     */
+    boolean sharesRankingsWith(TableSnapshot other) {
+        return rankings == other.rankings;
+    }
+
+    /**
+     * Moves this snapshot onto the rankings merged from an earlier one with the same rankings. The changes
+     * that were merged are dropped; the ones made since are kept on top of the new rankings. A change is
+     * recognized as merged when this snapshot still holds the very score that was merged.
+     *
+     * @param merged the earlier snapshot the rankings were merged from
+     * @param mergedRankings the rankings {@link #merge()} returned for it
+     * @return the new snapshot, one version after this one
+     */
+    TableSnapshot rebase(TableSnapshot merged, TableRankings mergedRankings) {
+        List<PlayerScore> changed = new ArrayList<>();
+        List<PlayerScore> replaced = new ArrayList<>();
+        for (PlayerScore score : added) {
+            PlayerScore mergedScore = merged.added.get(score.name());
+            if (mergedScore == score) {
+                continue;
+            }
+            changed.add(score);
+            // What the merged rankings captured: the merged change, or else what the old ones had
+            PlayerScore captured = mergedScore != null ? mergedScore : removed.get(score.name());
+            if (captured != null) {
+                replaced.add(captured);
+            }
+        }
+        // The versions of the heap parts are never read
+        return new TableSnapshot(getVersion() + 1, mergedRankings,
+                RankedSnapshot.of(0, replaced.toArray(new PlayerScore[0])),
+                RankedSnapshot.of(0, changed.toArray(new PlayerScore[0])));
+    }
+
+    @Override
+    public int size() {
+        return rankings.size() - removed.size() + added.size();
+    }
+
+    @Override
+    public PlayerScore get(String name) {
+        PlayerScore score = added.get(name);
+        return score != null ? score : rankings.get(name);
+    }
+
+    @Override
+    public List<PlayerScore> scores(Leaderboard.Ranking ranking, int from, int count) {
+        int start = Math.max(0, from);
+        int end = (int) Math.min(size(), (long) start + Math.max(0, count));
+        List<PlayerScore> scores = new ArrayList<>(Math.max(0, end - start));
+        if (start >= end) {
+            return scores;
+        }
+        RankedIndex changed = added.indexOf(ranking);
+        RankedIndex gone = removed.indexOf(ranking);
+
+        // The changed players before the start, found by binary search on their positions
+        int low = 0;
+        int high = changed.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rankedBefore(ranking, changed.get(middle)) + middle < start) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int next = low;
+        // The position in the rankings of the player that has as many counted players before it as the start
+        // has ranked ones: the removed ones before it are skipped over
+        int wanted = start - next;
+        low = 0;
+        high = gone.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rankings.countBefore(ranking, gone.get(middle)) - middle <= wanted) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int skip = low;
+        int position = wanted + skip;
+        int skipped = skip < gone.size() ? rankings.countBefore(ranking, gone.get(skip)) : rankings.size();
+
+        while (scores.size() < end - start) {
+            while (position == skipped) {
+                position++;
+                skip++;
+                skipped = skip < gone.size() ? rankings.countBefore(ranking, gone.get(skip)) : rankings.size();
+            }
+            PlayerScore nextChanged = next < changed.size() ? changed.get(next) : null;
+            if (nextChanged != null && (position >= rankings.size() || rankings.compareAt(ranking, nextChanged, position) < 0)) {
+                scores.add(nextChanged);
+                next++;
+            } else {
+                scores.add(rankings.scoreAt(ranking, position++));
+            }
+        }
+        return scores;
+    }
+
+    @Override
+    public int positionOf(Leaderboard.Ranking ranking, String name) {
+        PlayerScore score = get(name);
+        return score == null ? -1 : rankedBefore(ranking, score) + added.indexOf(ranking).countBefore(score);
+    }
+
+    /**
+     * Retrieves the names starting with a prefix, in name order, by one O(log n) search for the first name not
+     * before the prefix and a merge of the rankings and the changed players from there.
+     *
+     * @param prefix the start of the name; the empty prefix matches every name
+     * @param count the maximum number of names
+     * @return up to {@code count} names starting with {@code prefix}
+     */
+    @Override
+    public List<String> completions(String prefix, int count) {
+        List<String> names = new ArrayList<>(Math.max(0, Math.min(count, 16)));
+        // A prefix typed up to the first half of a surrogate pair is looked up as the first such pair, since
+        // the stored names have no lone surrogates to be compared with it
+        String first = !prefix.isEmpty() && Character.isHighSurrogate(prefix.charAt(prefix.length() - 1))
+                ? prefix + Character.MIN_LOW_SURROGATE : prefix;
+        if (!NameBytes.isWellFormed(first)) {
+            return names;
+        }
+        PlayerScore probe = PlayerScore.empty(first);
+        int start = rankedBefore(null, probe) + added.indexOf(null).countBefore(probe);
+        for (PlayerScore score : scores(null, start, count)) {
+            if (!score.name().startsWith(prefix)) {
+                break;
+            }
+            names.add(score.name());
+        }
+        return names;
+    }
+
+    /**
+     * Counts the players of the rankings that still count and are ordered before a score.
+     */
+    private int rankedBefore(Leaderboard.Ranking ranking, PlayerScore score) {
+        return rankings.countBefore(ranking, score) - removed.indexOf(ranking).countBefore(score);
+    }
+}
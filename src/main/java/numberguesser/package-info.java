@@ -9,7 +9,8 @@ package numberguesser;
  * <ul>
  *   <li>{@link numberguesser.Main} - Application entry point and JavaFX initialization</li>
  *   <li>{@link numberguesser.controller.GameController} - Handles game logic and user interactions</li>
- *   <li>{@link numberguesser.model.GameModel} - Manages game state and data persistence</li>
+ *   <li>{@link numberguesser.model.GameModel} - Manages shared game settings and data persistence</li>
+ *   <li>{@link numberguesser.model.GameSession} - Holds the state of a single game</li>
  *   <li>{@link numberguesser.view.GameView} - Implements the UI components and scenes</li>
  *   <li>{@link numberguesser.model.Player} - Player entity with serialization support</li>
  *   <li>{@link numberguesser.model.RNG} - Random number generation utility</li>
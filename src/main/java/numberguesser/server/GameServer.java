@@ -0,0 +1,254 @@
+package numberguesser.server;
+
+import numberguesser.ErrorLog;
+import numberguesser.HandledException;
+import numberguesser.controller.GameController;
+import numberguesser.metrics.GameMetrics;
+import numberguesser.model.GameSession;
+import numberguesser.model.GuessOutcome;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The `GameServer` class serves the Number Guesser game over a line-based TCP protocol.
+ *
+ * <p>Every connection runs on its own virtual thread with its own {@link GameSession}, driven through a
+ * shared {@link GameController}, so the same login / difficulty / guess / result flow as the JavaFX view
+ * is available to any number of concurrent clients. Commands and replies are single UTF-8 lines:</p>
+ * <ul>
+ *   <li>{@code NAME <name>} - log in; replies {@code OK <score summary>}</li>
+ *   <li>{@code DIFFICULTY <level>} - start a game; replies {@code OK <min> <max> <tries>}</li>
+ *   <li>{@code GUESS <number>} - replies {@code HIGHER <tries left>}, {@code LOWER <tries left>},
+ *       {@code WIN <points won>} or {@code LOST <secret number>}</li>
+ *   <li>{@code SCORE} - replies {@code OK <score summary>}</li>
+ *   <li>{@code TOP} - replies {@code OK <top 10 players by total points>}</li>
+ *   <li>{@code METRICS} - replies {@code OK <the metrics of the server, separated by " | ">}</li>
+ *   <li>{@code QUIT} - replies {@code BYE} and closes the connection</li>
+ * </ul>
+ * <p>Invalid commands or commands sent out of order are answered with {@code ERR <message>}.
+ * The server greets each new connection with {@code READY}. A line longer than {@value #MAX_LINE_BYTES} bytes
+ * is answered with {@code ERR Line too long}; the rest of it is skipped without being buffered, so a client
+ * cannot make a connection hold more than that many bytes.</p>
+ */
+public class GameServer implements Closeable {
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final int MAX_LINE_BYTES = 1024;
+    private final GameController controller;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Thread acceptor;
+
+    /**
+     * Constructs a server bound to the specified address. Connections are not accepted until {@link #start()}.
+     *
+     * @param controller the controller shared by all connections
+     * @param address the address to bind to; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(GameController controller, InetSocketAddress address) throws IOException {
+        this.controller = controller;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(address);
+        this.connections = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-connection-", 0).factory());
+        this.acceptor = Thread.ofPlatform().name("game-acceptor").daemon().unstarted(this::acceptLoop);
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Retrieves the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits until the server has been closed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * Stops accepting connections and closes every open connection.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // The server socket was closed
+            } catch (IOException e) {
+                ErrorLog.log(e);
+            }
+        }
+    }
+
+    /**
+     * Runs the protocol for one connection until the client quits or disconnects.
+     *
+     * @param socket the client connection
+     */
+    private void serve(Socket socket) {
+        GameSession session = controller.newSession();
+        byte[] line = new byte[MAX_LINE_BYTES];
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            reply(out, "READY");
+            int length;
+            while ((length = readLine(in, line)) >= 0) {
+                String reply = length > line.length ? "ERR Line too long"
+                        : handleCommand(session, new String(line, 0, length, StandardCharsets.UTF_8).strip());
+                reply(out, reply);
+                if (reply.equals("BYE")) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The client disconnected
+        }
+    }
+
+    /**
+     * Reads one line into the connection's buffer, without its line feed. A line cut off by the end of the
+     * stream counts as a whole line. A line that does not fit in the buffer is read to its end and dropped.
+     *
+     * @param in the connection's input
+     * @param line the buffer to read into
+     * @return the number of bytes read, -1 at the end of the stream, or more than the buffer holds if the
+     *         line did not fit in it
+     * @throws IOException if the connection fails
+     */
+    private static int readLine(InputStream in, byte[] line) throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (length < line.length) {
+                line[length] = (byte) b;
+            }
+            length = Math.min(length + 1, line.length + 1);
+        }
+        return b < 0 && length == 0 ? -1 : length;
+    }
+
+    /**
+     * Handles a single command line and returns the reply line.
+     *
+     * @param session the connection's session
+     * @param line the command line
+     * @return the reply
+     */
+    String handleCommand(GameSession session, String line) {
+        int space = line.indexOf(' ');
+        String command = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+        String argument = space < 0 ? "" : line.substring(space + 1).strip();
+
+        try {
+            return switch (command) {
+                case "NAME" -> handleName(session, argument);
+                case "DIFFICULTY" -> handleDifficulty(session, argument);
+                case "GUESS" -> handleGuess(session, argument);
+                case "SCORE" -> session.getPlayer() == null ? "ERR Send NAME first" : "OK " + score(session, true);
+                case "TOP" -> "OK " + GameController.showLeaderboard(session.getPlayer(), LEADERBOARD_SIZE)
+                        .strip().replaceAll("\\R+", " | ");
+                case "METRICS" -> "OK " + GameMetrics.get().dump().strip().replaceAll("\\R+", " | ");
+                case "QUIT" -> "BYE";
+                default -> "ERR Unknown command";
+            };
+        } catch (HandledException | IOException e) {
+            return "ERR " + e.getMessage();
+        } catch (NumberFormatException e) {
+            return "ERR Please enter a whole number";
+        }
+    }
+
+    private String handleName(GameSession session, String name) throws IOException {
+        if (!controller.validateNameInput(name)) {
+            return "ERR Please enter a valid name.";
+        }
+        controller.setCurrentPlayer(session, name);
+        session.resetGame();
+        return "OK " + score(session, false);
+    }
+
+    private String handleDifficulty(GameSession session, String input) throws HandledException {
+        if (session.getPlayer() == null) {
+            return "ERR Send NAME first";
+        }
+        if (!controller.validateDifficultyInput(input)) {
+            return "ERR Please enter a valid difficulty (" + controller.getDifficultyChoices() + ")";
+        }
+        session.resetGame();
+        controller.setGameDifficulty(session, NumberUtils.createInteger(input));
+        return "OK " + session.getMin() + " " + session.getMax() + " " + session.getTriesLeft();
+    }
+
+    private String handleGuess(GameSession session, String input) {
+        if (!session.isInProgress()) {
+            return "ERR Send DIFFICULTY first";
+        }
+        GuessOutcome outcome = controller.guess(session, input);
+        return switch (outcome) {
+            case INVALID -> "ERR Please enter a number between " + session.getMin() + " and " + session.getMax();
+            case WIN -> {
+                controller.setGamePointsWon(session);
+                controller.updateListCall(session);
+                int points = session.getPointsWon();
+                session.resetGame();
+                yield "WIN " + points;
+            }
+            case LOST -> {
+                controller.updateListCall(session);
+                long secret = session.getResult();
+                session.resetGame();
+                yield "LOST " + secret;
+            }
+            case HIGHER, LOWER -> outcome.name() + " " + session.getTriesLeft();
+        };
+    }
+
+    private static String score(GameSession session, boolean isRetry) throws IOException {
+        return GameController.showPlayerScore(session.getPlayer(), isRetry).strip().replaceAll("\\R+", " | ");
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+    }
+}
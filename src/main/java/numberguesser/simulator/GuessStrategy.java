@@ -0,0 +1,24 @@
+package numberguesser.simulator;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The `GuessStrategy` interface describes how a simulated player picks its next guess.
+ *
+ * <p>The simulator narrows the range after every HIGHER or LOWER hint, so the secret number always lies
+ * between {@code low} and {@code high}. Strategies must be stateless; each simulation worker passes its own
+ * generator.</p>
+ */
+@FunctionalInterface
+public interface GuessStrategy {
+
+    /**
+     * Picks the next guess.
+     *
+     * @param low the lowest number the secret can still be, inclusive
+     * @param high the highest number the secret can still be, inclusive
+     * @param random the worker's generator
+     * @return the guess
+     */
+    long nextGuess(long low, long high, RandomGenerator random);
+}
@@ -0,0 +1,148 @@
+package numberguesser.simulator;
+
+/**
+ * The `LevelStats` class accumulates the simulated games of one difficulty level: how many were played and
+ * won, the points won, and how many tries each won game took.
+ *
+ * <p>Each simulation worker fills its own instance, and the instances are merged once the workers are
+ * done, so no counter is shared between threads.</p>
+ */
+public final class LevelStats {
+    private final int level;
+    private final String name;
+    private final long[] winsByTries;
+    private long games;
+    private long wins;
+    private long points;
+
+    /**
+     * Constructs empty statistics for a difficulty level.
+     *
+     * @param level the difficulty level
+     * @param name the level's name
+     * @param tries the level's number of tries
+     */
+    LevelStats(int level, String name, int tries) {
+        this.level = level;
+        this.name = name;
+        this.winsByTries = new long[tries + 1];
+    }
+
+    /**
+     * Records a won game.
+     *
+     * @param triesUsed the number of guesses the game took
+     * @param pointsWon the points won
+     */
+    void recordWin(int triesUsed, int pointsWon) {
+        games++;
+        wins++;
+        points += pointsWon;
+        winsByTries[triesUsed]++;
+    }
+
+    /**
+     * Records a lost game.
+     */
+    void recordLoss() {
+        games++;
+    }
+
+    /**
+     * Adds another worker's statistics for the same level to these.
+     *
+     * @param other the statistics to add
+     * @return these statistics
+     */
+    LevelStats merge(LevelStats other) {
+        games += other.games;
+        wins += other.wins;
+        points += other.points;
+        for (int i = 0; i < winsByTries.length; i++) {
+            winsByTries[i] += other.winsByTries[i];
+        }
+        return this;
+    }
+
+    /**
+     * Retrieves the difficulty level.
+     *
+     * @return the difficulty level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Retrieves the name of the difficulty level.
+     *
+     * @return the level's name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of games played.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Retrieves the number of games won.
+     *
+     * @return the number of wins
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    /**
+     * Retrieves the points won over all games.
+     *
+     * @return the total points
+     */
+    public long getPoints() {
+        return points;
+    }
+
+    /**
+     * Retrieves the share of games won.
+     *
+     * @return the win rate between 0 and 1
+     */
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * Retrieves the average points won per game played, lost games counting as zero.
+     *
+     * @return the expected points per game
+     */
+    public double getExpectedPoints() {
+        return games == 0 ? 0 : (double) points / games;
+    }
+
+    /**
+     * Retrieves the share of games won with the given number of guesses.
+     *
+     * @param triesUsed the number of guesses, from 1 to the level's tries
+     * @return the share of all games played, between 0 and 1
+     */
+    public double getWinShare(int triesUsed) {
+        return games == 0 ? 0 : (double) winsByTries[triesUsed] / games;
+    }
+
+    /**
+     * Retrieves the level's number of tries.
+     *
+     * @return the number of tries
+     */
+    public int getTries() {
+        return winsByTries.length - 1;
+    }
+}
@@ -0,0 +1,119 @@
+package numberguesser.simulator;
+
+import numberguesser.HandledException;
+import numberguesser.model.DifficultyRegistry;
+import numberguesser.model.GameModel;
+import numberguesser.model.GameSession;
+import numberguesser.model.GuessOutcome;
+import numberguesser.model.RNG;
+
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+
+/**
+ * The `Simulator` class plays simulated games on the model's difficulty levels to measure how a
+ * {@link GuessStrategy} fares: the win rate, the expected points per game and how many tries the wins take.
+ *
+ * <p>Games are played through real {@link GameSession}s, so the simulation uses the same secret numbers,
+ * tries and points as the game. The games of each level are split into fixed-size chunks that run as a
+ * parallel stream on the common fork-join pool. Each chunk has its own session, its own generators
+ * derived from the seed and its chunk index, and its own {@link LevelStats}, which are merged at the end.
+ * Nothing mutable is shared between workers, and a run gives the same result for the same seed however
+ * many cores it runs on.</p>
+ */
+public final class Simulator {
+    private static final long CHUNK_SIZE = 1 << 20;
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final GameModel model;
+
+    /**
+     * Constructs a simulator over the model's difficulty levels.
+     *
+     * @param model the game model
+     */
+    public Simulator(GameModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Simulates games on every difficulty level.
+     *
+     * @param strategy the strategy of the simulated player
+     * @param gamesPerLevel the number of games to play on each level
+     * @param seed the seed the secret numbers and the strategy's choices are derived from
+     * @return the statistics of each level, in level order
+     */
+    public LevelStats[] run(GuessStrategy strategy, long gamesPerLevel, long seed) {
+        DifficultyRegistry difficulties = model.getDifficulties();
+        LevelStats[] results = new LevelStats[difficulties.getLevelCount()];
+        for (int level = 1; level <= results.length; level++) {
+            results[level - 1] = run(strategy, level, gamesPerLevel, seed);
+        }
+        return results;
+    }
+
+    /**
+     * Simulates games on one difficulty level.
+     *
+     * @param strategy the strategy of the simulated player
+     * @param level the difficulty level
+     * @param games the number of games to play
+     * @param seed the seed the secret numbers and the strategy's choices are derived from
+     * @return the statistics of the level
+     */
+    public LevelStats run(GuessStrategy strategy, int level, long games, long seed) {
+        long chunks = (games + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return LongStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> playChunk(strategy, level, chunk, Math.min(CHUNK_SIZE, games - chunk * CHUNK_SIZE), seed))
+                .reduce(LevelStats::merge)
+                .orElseGet(() -> emptyStats(level));
+    }
+
+    /**
+     * Plays one chunk of games on a fresh session.
+     */
+    private LevelStats playChunk(GuessStrategy strategy, int level, long chunk, long games, long seed) {
+        long chunkSeed = seed + (level * 31L + chunk + 1) * SEED_GAMMA;
+        GameSession session = model.newSession(chunkSeed);
+        RandomGenerator random = RNG.seeded(~chunkSeed);
+        LevelStats stats = emptyStats(level);
+        int tries = stats.getTries();
+
+        try {
+            for (long game = 0; game < games; game++) {
+                session.resetGame();
+                session.setDifficulty(level);
+                long low = session.getMin();
+                long high = session.getMax();
+                GuessOutcome outcome;
+                do {
+                    long guess = strategy.nextGuess(low, high, random);
+                    outcome = session.play(guess);
+                    if (outcome == GuessOutcome.HIGHER) {
+                        low = guess + 1;
+                    } else if (outcome == GuessOutcome.LOWER) {
+                        high = guess - 1;
+                    }
+                } while (!outcome.isGameOver());
+
+                if (outcome == GuessOutcome.WIN) {
+                    int triesLeft = session.getTriesLeft();
+                    session.setPointsWon(triesLeft);
+                    stats.recordWin(tries - triesLeft + 1, session.getPointsWon());
+                } else {
+                    stats.recordLoss();
+                }
+            }
+        } catch (HandledException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return stats;
+    }
+
+    private LevelStats emptyStats(int level) {
+        DifficultyRegistry difficulties = model.getDifficulties();
+        return new LevelStats(level, difficulties.getName(level), difficulties.getTries(level));
+    }
+}
@@ -0,0 +1,51 @@
+package numberguesser.simulator;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * The `StandardStrategy` enum holds the built-in simulated players.
+ */
+public enum StandardStrategy implements GuessStrategy {
+    /** Guesses uniformly at random within the range that is still possible. */
+    RANDOM {
+        @Override
+        public long nextGuess(long low, long high, RandomGenerator random) {
+            if (high < Long.MAX_VALUE) {
+                return random.nextLong(low, high + 1);
+            } else if (low > Long.MIN_VALUE) {
+                return random.nextLong(low - 1, high) + 1;
+            } else {
+                return random.nextLong();
+            }
+        }
+    },
+    /** Guesses the middle of the range that is still possible, the best a player can do. */
+    BINARY_SEARCH {
+        @Override
+        public long nextGuess(long low, long high, RandomGenerator random) {
+            return low + ((high - low) >>> 1);
+        }
+    },
+    /**
+     * Guesses the lowest number that is still possible, the worst a player that follows the hints can do.
+     * It bounds how generous a level's points are towards players who probe one number at a time.
+     */
+    ADVERSARIAL {
+        @Override
+        public long nextGuess(long low, long high, RandomGenerator random) {
+            return low;
+        }
+    };
+
+    /**
+     * Looks up a strategy by name, ignoring case and accepting dashes for underscores.
+     *
+     * @param name the strategy name, such as "binary-search"
+     * @return the strategy
+     * @throws IllegalArgumentException if there is no such strategy
+     */
+    public static StandardStrategy of(String name) {
+        return valueOf(name.strip().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
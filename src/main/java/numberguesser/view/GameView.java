@@ -1,6 +1,9 @@
 package numberguesser.view;
 
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -9,24 +12,41 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import numberguesser.HandledException;
 import numberguesser.controller.GameController;
+import numberguesser.events.SceneTransitionEvent;
 import numberguesser.model.GameModel;
+import numberguesser.model.GuessOutcome;
+import numberguesser.model.Leaderboard;
 import numberguesser.model.Player;
+import numberguesser.model.PlayerScore;
 import org.apache.commons.lang3.math.NumberUtils;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The `GameView` class is responsible for managing the user interface of the Number Guesser game.
  * It constructs and transitions between different scenes, such as the initial scene, scoreboard scene,
  * game scene, and end scenes (win/lose). This class interacts with the `GameController` to process user inputs
  * and update the game state accordingly. It also handles displaying alerts and messages to the user.
+ * Each scene transition, from building the new scene until it is shown, is timed by a Flight Recorder
+ * {@link SceneTransitionEvent}. The initial scene suggests the names of registered players as they are typed,
+ * and the leaderboard scene lists the whole scoreboard.
  */
 public class GameView {
+    private static final int LEADERBOARD_SIZE = 10;
+    private static final int NAME_SUGGESTIONS = 8;
     private final BorderPane root;
     private final GameController controller;
     private final Stage primaryStage;
@@ -52,11 +72,12 @@ public class GameView {
     public Scene buildInitialScene() {
         Label nameLabel = new Label("Enter your name:");
         TextField nameInput = new TextField();
+        ListView<String> suggestions = buildNameSuggestions(nameInput);
         Button submitButton = new Button("Submit");
 
         submitButton.setOnAction(event -> handleNameInput(nameInput, nameLabel));
 
-        VBox vbox = new VBox(10, nameLabel, nameInput, submitButton);
+        VBox vbox = new VBox(10, nameLabel, nameInput, suggestions, submitButton);
         vbox.setAlignment(Pos.TOP_CENTER);
         vbox.setPadding(new Insets(20));
 
@@ -66,6 +87,61 @@ public class GameView {
         return new Scene(root, 800, 600);
     }
 
+    /**
+     * Builds the list of registered names shown under the name field as the player types. The list is
+     * refilled on every change of the field from the scoreboard's name index, which answers without waiting
+     * on the scoreboard, and is hidden while nothing matches. Clicking a name, or pressing Enter on it after
+     * moving down from the field, puts it in the field.
+     *
+     * @param nameInput the text field for name input
+     * @return the suggestion list
+     */
+    private ListView<String> buildNameSuggestions(TextField nameInput) {
+        ListView<String> suggestions = new ListView<>();
+        suggestions.setFixedCellSize(24);
+        suggestions.setPrefHeight(24 * NAME_SUGGESTIONS + 2);
+        suggestions.setMaxWidth(Double.MAX_VALUE);
+        suggestions.visibleProperty().bind(Bindings.isNotEmpty(suggestions.getItems()));
+        suggestions.managedProperty().bind(suggestions.visibleProperty());
+
+        nameInput.textProperty().addListener((observable, oldText, newText) -> {
+            List<String> names = controller.suggestPlayerNames(newText, NAME_SUGGESTIONS);
+            // Nothing left to suggest once the full name of a player has been picked or typed
+            if (names.size() == 1 && names.get(0).equals(newText)) {
+                names = List.of();
+            }
+            suggestions.getItems().setAll(names);
+        });
+        nameInput.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.DOWN && !suggestions.getItems().isEmpty()) {
+                suggestions.requestFocus();
+                suggestions.getSelectionModel().selectFirst();
+            }
+        });
+        suggestions.setOnMouseClicked(event -> pickSuggestion(suggestions, nameInput));
+        suggestions.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ENTER) {
+                pickSuggestion(suggestions, nameInput);
+            }
+        });
+        return suggestions;
+    }
+
+    /**
+     * Puts the selected suggestion in the name field.
+     *
+     * @param suggestions the suggestion list
+     * @param nameInput the text field for name input
+     */
+    private void pickSuggestion(ListView<String> suggestions, TextField nameInput) {
+        String name = suggestions.getSelectionModel().getSelectedItem();
+        if (name != null) {
+            nameInput.setText(name);
+            nameInput.requestFocus();
+            nameInput.end();
+        }
+    }
+
     /**
      * Handles the name input and transitions to the scoreboard scene.
      *
@@ -74,11 +150,12 @@ public class GameView {
      */
     private void handleNameInput(TextField nameInput, Label nameLabel) {
         String playerName = nameInput.getText();
-        if (!playerName.isEmpty()) {
+        if (controller.validateNameInput(playerName)) {
             controller.setCurrentPlayer(playerName);
             try {
+                SceneTransitionEvent transition = beginTransition();
                 Scene scoreboardScene = buildScoreboardScene(controller.getGamePlayer(), false);
-                primaryStage.setScene(scoreboardScene);
+                showScene(transition, "scoreboard", scoreboardScene);
             } catch (IOException e) {
                 nameLabel.setText("Error loading scoreboard.");
             }
@@ -100,13 +177,15 @@ public class GameView {
         if (!isTrue) playerScore = GameController.showPlayerScore(player, isTrue);
 
         Label scoreboardLabel = new Label(playerScore);
-        Label difficultyLabel = new Label("Enter difficulty (1-3):");
+        Label difficultyLabel = new Label("Enter difficulty (" + controller.getDifficultyChoices() + "):");
         TextField difficultyInput = new TextField();
         Button submitButton = new Button("Start!");
+        Button leaderboardButton = new Button("Full Leaderboard");
 
         submitButton.setOnAction(event -> handleDifficultyInput(difficultyInput, difficultyLabel));
+        leaderboardButton.setOnAction(event -> handleLeaderboardButton());
 
-        VBox vbox = new VBox(10, scoreboardLabel, difficultyLabel, difficultyInput, submitButton);
+        VBox vbox = new VBox(10, scoreboardLabel, difficultyLabel, difficultyInput, submitButton, leaderboardButton);
         vbox.setAlignment(Pos.TOP_CENTER);
         vbox.setPadding(new Insets(20));
 
@@ -127,17 +206,18 @@ public class GameView {
         try {
             if (!input.isEmpty()) {
                 if (!controller.validateDifficultyInput(input)) {
-                    showAlert(AlertType.WARNING, "Invalid Input", "Please enter a valid difficulty (1-3)");
+                    showAlert(AlertType.WARNING, "Invalid Input", "Please enter a valid difficulty (" + controller.getDifficultyChoices() + ")");
                 }
 
                 if (controller.validateDifficultyInput(input)) {
                     int difficulty = NumberUtils.createInteger(input);
+                    SceneTransitionEvent transition = beginTransition();
                     Scene gameScene = buildGameScene(controller.getGamePlayer(), difficulty);
-                    primaryStage.setScene(gameScene);
+                    showScene(transition, "game", gameScene);
                 }
 
             } else {
-                showAlert(AlertType.WARNING, "Invalid Input", "Please enter a valid difficulty (1-3)");
+                showAlert(AlertType.WARNING, "Invalid Input", "Please enter a valid difficulty (" + controller.getDifficultyChoices() + ")");
             }
         } catch (HandledException e) {
             difficultyLabel.setText(e.getMessage());
@@ -154,8 +234,8 @@ public class GameView {
      */
     public Scene buildGameScene(Player player, int difficulty) throws HandledException {
         controller.setGameDifficulty(difficulty);
-        int min = controller.getGameMin();
-        int max = controller.getGameMax();
+        long min = controller.getGameMin();
+        long max = controller.getGameMax();
         int tries = controller.getGameTries();
         String difficultyString = controller.getGameDifficultyString();
 
@@ -185,44 +265,38 @@ public class GameView {
      */
     private void handleGuessInput(TextField guessInput) {
         String input = guessInput.getText();
-        int min = controller.getGameMin();
-        int max = controller.getGameMax();
+        long min = controller.getGameMin();
+        long max = controller.getGameMax();
         Player player = controller.getGamePlayer();
         int difficulty = controller.getGameDifficultyInt();
 
         try {
-            if (!input.isEmpty()) {
-                if (!controller.validateGuessInput(input)) {
-                    showAlert(Alert.AlertType.WARNING, "Invalid Input", String.format("Please enter a number between %d and %d", min, max));
-                } else {
-                    int guess = NumberUtils.createInteger(input);
-                    String result = controller.handleGuess(guess);
-
-                    int triesLeft = controller.getGameTries();
-                    triesLabel.setText(String.format("TRIES LEFT: %d", triesLeft));
-
-                    switch (result) {
-                        case "WIN" -> {
-                            showAlert(Alert.AlertType.INFORMATION, "Congratulations!", String.format("CONGRATULATIONS!!! %d WAS THE CORRECT NUMBER", controller.getGameResult()));
-                            controller.setGamePointsWon();
-                            int points = controller.getGamePointsWon();
-                            controller.updateListCall(player, difficulty, points);
-                            Scene endScene = buildWinScene(controller.getGamePlayer());
-                            primaryStage.setScene(endScene);
-                        }
-                        case "LOST" -> {
-                            showAlert(Alert.AlertType.INFORMATION, "Game Over", "You've run out of tries!");
-                            controller.updateListCall(player, difficulty, 0);
-                            Scene endScene = buildLoseScene();
-                            primaryStage.setScene(endScene);
-                        }
-                        case "HIGHER" -> showAlert(Alert.AlertType.INFORMATION, "Wrong", String.format("The result is higher than %d", guess));
-                        case "LOWER" -> showAlert(Alert.AlertType.INFORMATION, "Wrong", String.format("The result is lower than %d", guess));
-                    }
-                }
+            GuessOutcome outcome = controller.guess(input);
+            if (outcome != GuessOutcome.INVALID) {
+                int triesLeft = controller.getGameTries();
+                triesLabel.setText(String.format("TRIES LEFT: %d", triesLeft));
+            }
 
-            } else {
-                showAlert(Alert.AlertType.WARNING, "Invalid Input", String.format("Please enter a number between %d and %d", min, max));
+            switch (outcome) {
+                case WIN -> {
+                    showAlert(Alert.AlertType.INFORMATION, "Congratulations!", String.format("CONGRATULATIONS!!! %d WAS THE CORRECT NUMBER", controller.getGameResult()));
+                    controller.setGamePointsWon();
+                    int points = controller.getGamePointsWon();
+                    controller.updateListCall(player, difficulty, points);
+                    SceneTransitionEvent transition = beginTransition();
+                    Scene endScene = buildWinScene(controller.getGamePlayer());
+                    showScene(transition, "win", endScene);
+                }
+                case LOST -> {
+                    showAlert(Alert.AlertType.INFORMATION, "Game Over", "You've run out of tries!");
+                    controller.updateListCall(player, difficulty, 0);
+                    SceneTransitionEvent transition = beginTransition();
+                    Scene endScene = buildLoseScene();
+                    showScene(transition, "lose", endScene);
+                }
+                case HIGHER -> showAlert(Alert.AlertType.INFORMATION, "Wrong", String.format("The result is higher than %s", input));
+                case LOWER -> showAlert(Alert.AlertType.INFORMATION, "Wrong", String.format("The result is lower than %s", input));
+                case INVALID -> showAlert(Alert.AlertType.WARNING, "Invalid Input", String.format("Please enter a number between %d and %d", min, max));
             }
 
         } catch (HandledException | IOException e) {
@@ -252,6 +326,7 @@ public class GameView {
         Label pointsWonLabel = new Label(String.format("You've won %d points!!", points));
         Label scoreboardTitleLabel = new Label("YOUR POST MATCH SCORES: ");
         Label scoreboardLabel = new Label(String.format(playerScore));
+        Label leaderboardLabel = new Label(GameController.showLeaderboard(player, LEADERBOARD_SIZE));
         Label playAgainLabel = new Label(String.format("Would you like to play again %s?", player.getName()));
 
         playButton.setOnAction(event -> {
@@ -268,8 +343,10 @@ public class GameView {
         });
 
         exitButton.setOnAction(event -> handleExitButton());
+        Button leaderboardButton = new Button("Full Leaderboard");
+        leaderboardButton.setOnAction(event -> handleLeaderboardButton());
 
-        VBox vbox = new VBox(10, diffLevelLabel, winTriesLabel, pointsWonLabel, scoreboardTitleLabel, scoreboardLabel, playAgainLabel, playButton, exitButton);
+        VBox vbox = new VBox(10, diffLevelLabel, winTriesLabel, pointsWonLabel, scoreboardTitleLabel, scoreboardLabel, leaderboardLabel, leaderboardButton, playAgainLabel, playButton, exitButton);
         vbox.setAlignment(Pos.TOP_CENTER);
         vbox.setPadding(new Insets(20));
 
@@ -297,6 +374,7 @@ public class GameView {
         Label loseLabel = new Label(String.format("Oh no %s! YOU LOSE", player.getName()));
         Label scoreboardTitleLabel = new Label("YOUR POST MATCH SCORES: ");
         Label scoreboardLabel = new Label(String.format(playerScore));
+        Label leaderboardLabel = new Label(GameController.showLeaderboard(player, LEADERBOARD_SIZE));
         Label playAgainLabel = new Label(String.format("Would you like to play again %s?", player.getName()));
 
         playButton.setOnAction(event -> {
@@ -313,8 +391,10 @@ public class GameView {
         });
 
         exitButton.setOnAction(event -> handleExitButton());
+        Button leaderboardButton = new Button("Full Leaderboard");
+        leaderboardButton.setOnAction(event -> handleLeaderboardButton());
 
-        VBox vbox = new VBox(10, diffLevelLabel, scoreboardTitleLabel, scoreboardLabel, playAgainLabel, playButton, exitButton);
+        VBox vbox = new VBox(10, diffLevelLabel, scoreboardTitleLabel, scoreboardLabel, leaderboardLabel, leaderboardButton, playAgainLabel, playButton, exitButton);
         vbox.setAlignment(Pos.TOP_CENTER);
         vbox.setPadding(new Insets(20));
 
@@ -324,6 +404,136 @@ public class GameView {
         return new Scene(root, 800, 600);
     }
 
+    /**
+     * Builds the leaderboard scene, which lists every player on the scoreboard in a table that can be sorted
+     * by name or by the points on any difficulty level, and scrolled to any player.
+     *
+     * <p>The table is virtualized: it only creates cells for the visible rows, and its {@link LeaderboardRows}
+     * fetch those rows from one scoreboard snapshot a page at a time, so the scene opens and scrolls just as
+     * fast with a million players as with ten. Sorting asks the snapshot for another of its orders instead of
+     * sorting the rows. The snapshot stays the same, and the ranks consistent, until Refresh is pressed.</p>
+     *
+     * @param previous the scene to go back to
+     * @return the leaderboard scene
+     */
+    public Scene buildLeaderboardScene(Scene previous) {
+        LeaderboardRows rows = new LeaderboardRows(controller.getCurrentScoreboard());
+        TableView<PlayerScore> table = new TableView<>(rows);
+        table.setFixedCellSize(24);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.setPlaceholder(new Label("No games have been played yet."));
+
+        TableColumn<PlayerScore, Number> rankColumn = new TableColumn<>("#");
+        rankColumn.setSortable(false);
+        rankColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : Integer.toString(rows.rankOf(getIndex())));
+            }
+        });
+        TableColumn<PlayerScore, String> nameColumn = new TableColumn<>("Player");
+        nameColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().name()));
+        TableColumn<PlayerScore, Number> totalColumn = scoreColumn("Total", Leaderboard.Ranking.TOTAL);
+        table.getColumns().addAll(List.of(rankColumn, nameColumn, totalColumn,
+                scoreColumn("Easy", Leaderboard.Ranking.EASY),
+                scoreColumn("Medium", Leaderboard.Ranking.MEDIUM),
+                scoreColumn("Hard", Leaderboard.Ranking.HARD)));
+
+        Label statusLabel = new Label();
+        table.setSortPolicy(sorted -> {
+            applyLeaderboardOrder(sorted, rows, statusLabel);
+            return true;
+        });
+        totalColumn.setSortType(TableColumn.SortType.DESCENDING);
+        table.getSortOrder().add(totalColumn);
+
+        TextField findInput = new TextField();
+        findInput.setPromptText("Player name");
+        Button findButton = new Button("Find");
+        Button refreshButton = new Button("Refresh");
+        Button backButton = new Button("Back");
+
+        findButton.setOnAction(event -> {
+            int row = rows.rowOf(findInput.getText());
+            if (row < 0) {
+                statusLabel.setText(String.format("No player named %s", findInput.getText()));
+                return;
+            }
+            table.scrollTo(row);
+            table.getSelectionModel().clearAndSelect(row);
+            table.requestFocus();
+        });
+        findInput.setOnAction(findButton.getOnAction());
+        refreshButton.setOnAction(event -> {
+            rows.refresh(controller.getCurrentScoreboard());
+            applyLeaderboardOrder(table, rows, statusLabel);
+        });
+        backButton.setOnAction(event -> {
+            SceneTransitionEvent transition = beginTransition();
+            showScene(transition, "back", previous);
+        });
+
+        HBox toolbar = new HBox(10, findInput, findButton, refreshButton, backButton);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        VBox vbox = new VBox(10, new Label("LEADERBOARD"), toolbar, table, statusLabel);
+        vbox.setPadding(new Insets(20));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        BorderPane root = new BorderPane();
+        root.setCenter(vbox);
+
+        return new Scene(root, 800, 600);
+    }
+
+    /**
+     * Builds a leaderboard column showing, and sorting by, the points of one ranking. A column sorted in
+     * descending order lists the best players first.
+     *
+     * @param title the column title
+     * @param ranking the ranking whose points the column shows
+     * @return the column
+     */
+    private static TableColumn<PlayerScore, Number> scoreColumn(String title, Leaderboard.Ranking ranking) {
+        TableColumn<PlayerScore, Number> column = new TableColumn<>(title);
+        column.setUserData(ranking);
+        column.setSortType(TableColumn.SortType.DESCENDING);
+        column.setCellValueFactory(cell -> new ReadOnlyLongWrapper(ranking.scoreOf(cell.getValue())));
+        return column;
+    }
+
+    /**
+     * Shows the leaderboard rows in the order of the table's first sort column: a ranking for a points
+     * column, name order for the player column, and best total first when the table is not sorted.
+     *
+     * @param table the leaderboard table
+     * @param rows the table's rows
+     * @param statusLabel the label showing the number of players
+     */
+    private static void applyLeaderboardOrder(TableView<PlayerScore> table, LeaderboardRows rows, Label statusLabel) {
+        Leaderboard.Ranking ranking = Leaderboard.Ranking.TOTAL;
+        boolean reversed = false;
+        if (!table.getSortOrder().isEmpty()) {
+            TableColumn<PlayerScore, ?> column = table.getSortOrder().get(0);
+            ranking = (Leaderboard.Ranking) column.getUserData();
+            // Rankings are kept best first and names A to Z; the other direction reads them back to front
+            TableColumn.SortType natural = ranking == null ? TableColumn.SortType.ASCENDING : TableColumn.SortType.DESCENDING;
+            reversed = column.getSortType() != natural;
+        }
+        rows.reorder(ranking, reversed);
+        statusLabel.setText(String.format("%d players", rows.size()));
+    }
+
+    /**
+     * Handles the leaderboard button action, showing the leaderboard scene and coming back to the current
+     * scene from it.
+     */
+    private void handleLeaderboardButton() {
+        SceneTransitionEvent transition = beginTransition();
+        Scene leaderboardScene = buildLeaderboardScene(primaryStage.getScene());
+        showScene(transition, "leaderboard", leaderboardScene);
+    }
+
     /**
      * Handles the restart button action, transitioning back to the scoreboard scene.
      *
@@ -331,8 +541,36 @@ public class GameView {
      */
     private void handleRestartButton() throws IOException {
         controller.resetGame();
+        SceneTransitionEvent transition = beginTransition();
         Scene scoreboardScene = buildScoreboardScene(controller.getGamePlayer(), true);
-        primaryStage.setScene(scoreboardScene);
+        showScene(transition, "scoreboard", scoreboardScene);
+    }
+
+    /**
+     * Starts timing a scene transition for Flight Recorder.
+     *
+     * @return the started transition event
+     */
+    private static SceneTransitionEvent beginTransition() {
+        SceneTransitionEvent transition = new SceneTransitionEvent();
+        transition.begin();
+        return transition;
+    }
+
+    /**
+     * Shows a scene on the primary stage and ends the transition event timing it.
+     *
+     * @param transition the transition event started before the scene was built
+     * @param name the name of the scene
+     * @param scene the scene to show
+     */
+    private void showScene(SceneTransitionEvent transition, String name, Scene scene) {
+        primaryStage.setScene(scene);
+        transition.end();
+        if (transition.shouldCommit()) {
+            transition.scene = name;
+            transition.commit();
+        }
     }
 
     /**
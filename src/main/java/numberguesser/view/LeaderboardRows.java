@@ -0,0 +1,138 @@
+package numberguesser.view;
+
+import javafx.collections.ObservableListBase;
+import numberguesser.model.Leaderboard;
+import numberguesser.model.PlayerScore;
+import numberguesser.model.ScoreboardSnapshot;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `LeaderboardRows` class is the item list of the leaderboard table: every player on a
+ * {@link ScoreboardSnapshot}, in the order of a ranking or of their names, fetched from the snapshot a page at
+ * a time as the table asks for rows.
+ *
+ * <p>The table only asks for the rows it shows, so only the pages around them are ever fetched, and only the
+ * {@value #MAX_PAGES} most recently used pages are kept. Memory therefore depends on the size of the window,
+ * not of the scoreboard; the snapshot itself shares its nodes with the live scoreboard. Changing the order
+ * or taking a newer snapshot replaces every row in a single change. Like the table, it is only used on the
+ * JavaFX application thread.</p>
+ */
+final class LeaderboardRows extends ObservableListBase<PlayerScore> {
+    private static final int PAGE_SIZE = 64;
+    private static final int MAX_PAGES = 16;
+
+    private Rows rows;
+
+    /**
+     * Constructs the rows of a snapshot, best total first.
+     *
+     * @param snapshot the scoreboard to show
+     */
+    LeaderboardRows(ScoreboardSnapshot snapshot) {
+        this.rows = new Rows(snapshot, Leaderboard.Ranking.TOTAL, false);
+    }
+
+    @Override
+    public PlayerScore get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Retrieves the rank shown on a row: its 1-based place in the order of the ranking, or of the names,
+     * counted from the best even when the rows are shown back to front.
+     *
+     * @param row the 0-based row
+     * @return the rank
+     */
+    int rankOf(int row) {
+        return rows.reversed ? rows.size() - row : row + 1;
+    }
+
+    /**
+     * Shows the players in another order.
+     *
+     * @param ranking the ranking to order by, best first, or null for name order
+     * @param reversed true to show the order back to front
+     */
+    void reorder(Leaderboard.Ranking ranking, boolean reversed) {
+        replace(new Rows(rows.snapshot, ranking, reversed));
+    }
+
+    /**
+     * Shows a newer snapshot of the scoreboard in the same order.
+     *
+     * @param snapshot the scoreboard to show
+     */
+    void refresh(ScoreboardSnapshot snapshot) {
+        replace(new Rows(snapshot, rows.ranking, rows.reversed));
+    }
+
+    /**
+     * Finds the row of a player.
+     *
+     * @param name the player's name
+     * @return the 0-based row, or -1 if the player is not on the snapshot
+     */
+    int rowOf(String name) {
+        int position = rows.snapshot.positionOf(rows.ranking, name);
+        if (position < 0) {
+            return -1;
+        }
+        return rows.reversed ? rows.size() - 1 - position : position;
+    }
+
+    private void replace(Rows replacement) {
+        Rows replaced = rows;
+        rows = replacement;
+        beginChange();
+        nextReplace(0, replacement.size(), replaced);
+        endChange();
+    }
+
+    /**
+     * One order of one snapshot, with its own page cache, so the rows replaced by a change can still be read
+     * by the change's listeners.
+     */
+    private static final class Rows extends AbstractList<PlayerScore> {
+        private final ScoreboardSnapshot snapshot;
+        private final Leaderboard.Ranking ranking;
+        private final boolean reversed;
+        private final Map<Integer, List<PlayerScore>> pages = new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<PlayerScore>> eldest) {
+                return size() > MAX_PAGES;
+            }
+        };
+
+        Rows(ScoreboardSnapshot snapshot, Leaderboard.Ranking ranking, boolean reversed) {
+            this.snapshot = snapshot;
+            this.ranking = ranking;
+            this.reversed = reversed;
+        }
+
+        @Override
+        public PlayerScore get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int position = reversed ? size() - 1 - index : index;
+            List<PlayerScore> page = pages.computeIfAbsent(position / PAGE_SIZE,
+                    number -> snapshot.scores(ranking, number * PAGE_SIZE, PAGE_SIZE));
+            return page.get(position % PAGE_SIZE);
+        }
+
+        @Override
+        public int size() {
+            return snapshot.size();
+        }
+    }
+}
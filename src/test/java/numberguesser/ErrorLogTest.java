@@ -0,0 +1,131 @@
+package numberguesser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ErrorLog}.
+ */
+class ErrorLogTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final long NEVER = Long.MAX_VALUE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rotatesBySizeAndKeepsMaxFiles() throws Exception {
+        ErrorLog log = open(300, NEVER, 2);
+        for (int i = 0; i < 20; i++) {
+            log.log(START, "TEST", "record " + i);
+        }
+        log.close();
+
+        assertTrue(Files.exists(file(1)));
+        assertTrue(Files.exists(file(2)));
+        assertFalse(Files.exists(file(3)));
+        List<String> kept = new ArrayList<>();
+        for (int i = 2; i >= 0; i--) {
+            List<String> lines = lines(file(i));
+            assertTrue(Files.size(file(i)) < 300 + lines.get(0).length() + 2, file(i) + " is past its size");
+            kept.addAll(lines);
+        }
+        // The newest records are kept, in order, and the oldest ones went with the deleted files
+        assertTrue(kept.size() < 20);
+        for (int i = 0; i < kept.size(); i++) {
+            assertTrue(kept.get(i).endsWith("message=record " + (20 - kept.size() + i)), kept.get(i));
+        }
+    }
+
+    @Test
+    void rotatesByAge() throws Exception {
+        ErrorLog log = open(NEVER, TimeUnit.MINUTES.toMillis(1), 5);
+        log.log(START, "TEST", "first");
+        log.log(START + TimeUnit.SECONDS.toMillis(30), "TEST", "second");
+        log.log(START + TimeUnit.MINUTES.toMillis(2), "TEST", "third");
+        log.close();
+
+        List<String> rotated = lines(file(1));
+        assertEquals(2, rotated.size());
+        assertTrue(rotated.get(0).endsWith("message=first"));
+        assertTrue(rotated.get(1).endsWith("message=second"));
+        List<String> current = lines(file(0));
+        assertEquals(1, current.size());
+        assertTrue(current.get(0).endsWith("message=third"));
+        assertFalse(Files.exists(file(2)));
+    }
+
+    @Test
+    void deletesTheFileWhenNoRotatedFilesAreKept() throws Exception {
+        ErrorLog log = open(1, NEVER, 0);
+        log.log(START, "TEST", "first");
+        log.log(START, "TEST", "second");
+        log.close();
+
+        assertEquals(List.of("second"), messages(file(0)));
+        assertFalse(Files.exists(file(1)));
+    }
+
+    @Test
+    void countsTheRecordsThatDoNotFit() throws Exception {
+        ErrorLog log = new ErrorLog(file(0), NEVER, NEVER, 1, new PrintStream(OutputStream.nullOutputStream()));
+        // Nothing is written until the writer starts, so the ring fills up
+        for (int i = 0; i < ErrorLog.CAPACITY + 10; i++) {
+            log.log(START, "TEST", "record " + i);
+        }
+        log.startWriter();
+        log.close();
+
+        List<String> lines = lines(file(0));
+        assertEquals(ErrorLog.CAPACITY + 1, lines.size());
+        assertTrue(lines.get(ErrorLog.CAPACITY - 1).endsWith("message=record " + (ErrorLog.CAPACITY - 1)));
+        assertTrue(lines.get(ErrorLog.CAPACITY).contains("code=LOG_OVERFLOW"));
+        assertTrue(lines.get(ErrorLog.CAPACITY).endsWith("message=10 records dropped"));
+    }
+
+    @Test
+    void writesRecordsLoggedAfterClosing() throws Exception {
+        ErrorLog log = open(NEVER, NEVER, 1);
+        log.log(START, "TEST", "before");
+        log.close();
+        log.log(START, "TEST", "after");
+
+        assertEquals(List.of("before", "after"), messages(file(0)));
+    }
+
+    private ErrorLog open(long maxBytes, long maxAgeMillis, int maxFiles) {
+        ErrorLog log = new ErrorLog(file(0), maxBytes, maxAgeMillis, maxFiles, new PrintStream(OutputStream.nullOutputStream()));
+        log.startWriter();
+        return log;
+    }
+
+    private Path file(int index) {
+        return directory.resolve(index == 0 ? "error.txt" : "error.txt." + index);
+    }
+
+    private static List<String> lines(Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> messages(Path file) throws IOException {
+        List<String> messages = new ArrayList<>();
+        for (String line : lines(file)) {
+            messages.add(line.substring(line.indexOf("message=") + "message=".length()));
+        }
+        return messages;
+    }
+}
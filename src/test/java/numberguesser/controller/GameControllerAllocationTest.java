@@ -0,0 +1,68 @@
+package numberguesser.controller;
+
+import com.sun.management.ThreadMXBean;
+import numberguesser.model.GameModel;
+import numberguesser.model.GameSession;
+import numberguesser.model.GuessOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the guess path of {@link GameController}, from the text of a guess to its outcome, does not
+ * allocate once it is compiled.
+ */
+class GameControllerAllocationTest {
+    private static final int WARMUP_GAMES = 200_000;
+    private static final int MEASURED_GAMES = 200_000;
+    private static final int ROUNDS = 5;
+    private static final int LEVEL = 1;
+
+    @Test
+    void guessAllocatesNothing() throws Exception {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GameController controller = new GameController(new GameModel());
+        GameSession session = controller.newSession(42);
+        controller.setGameDifficulty(session, LEVEL);
+        // The inputs are made up front, as a server's line buffer or a text field's content would be
+        String[] inputs = new String[(int) (session.getMax() - session.getMin() + 1)];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = Long.toString(session.getMin() + i);
+        }
+
+        // Lets the JIT compile the path and scalar-replace the unused Flight Recorder events
+        playGames(controller, session, inputs, WARMUP_GAMES);
+
+        // A round can still run code that is about to be recompiled, so the best round is the steady state
+        double perGuess = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && perGuess >= 0.5; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            long guesses = playGames(controller, session, inputs, MEASURED_GAMES);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            perGuess = Math.min(perGuess, (double) allocated / guesses);
+        }
+        assertTrue(perGuess < 0.5, perGuess + " bytes allocated per guess");
+    }
+
+    /**
+     * Plays games on the easy level, guessing upwards from its minimum until each game is over.
+     *
+     * @return the number of guesses made
+     */
+    private static long playGames(GameController controller, GameSession session, String[] inputs, int games)
+            throws Exception {
+        long guesses = 0;
+        for (int game = 0; game < games; game++) {
+            controller.setGameDifficulty(session, LEVEL);
+            int next = 0;
+            GuessOutcome outcome;
+            do {
+                outcome = controller.guess(session, inputs[next++]);
+                guesses++;
+            } while (!outcome.isGameOver());
+        }
+        return guesses;
+    }
+}
@@ -0,0 +1,70 @@
+package numberguesser.controller;
+
+import numberguesser.metrics.GameMetrics;
+import numberguesser.model.GameModel;
+import numberguesser.model.GameSession;
+import numberguesser.model.GuessOutcome;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link GameController}.
+ */
+class GameControllerTest {
+    private static GameController controller;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        controller = new GameController(new GameModel());
+    }
+
+    @Test
+    void acceptsEveryLevel() throws Exception {
+        assertTrue(controller.validateDifficultyInput("1"));
+        assertTrue(controller.validateDifficultyInput("2"));
+        assertTrue(controller.validateDifficultyInput("3"));
+    }
+
+    @Test
+    void rejectsInputOutsideTheLevels() throws Exception {
+        assertFalse(controller.validateDifficultyInput("0"));
+        assertFalse(controller.validateDifficultyInput("4"));
+        assertFalse(controller.validateDifficultyInput("-1"));
+        assertFalse(controller.validateDifficultyInput(""));
+        assertFalse(controller.validateDifficultyInput(null));
+    }
+
+    @Test
+    void rejectsInputThatWouldWrapOntoALevel() throws Exception {
+        // (int) -4294967295L == 1 and (int) 4294967297L == 1
+        assertFalse(controller.validateDifficultyInput("-4294967295"));
+        assertFalse(controller.validateDifficultyInput("4294967297"));
+        assertFalse(controller.validateDifficultyInput("1.5"));
+        assertFalse(controller.validateDifficultyInput("99999999999999999999999"));
+    }
+
+    @Test
+    void rejectsEmptyNames() {
+        assertTrue(controller.validateNameInput("Alice"));
+        assertFalse(controller.validateNameInput(""));
+        assertFalse(controller.validateNameInput(null));
+    }
+
+    @Test
+    void countsAWonGameOnce() throws Exception {
+        GameSession session = controller.newSession(1);
+        controller.setGameDifficulty(session, 1);
+        String secret = Long.toString(session.getResult());
+        long won = GameMetrics.get().getGamesWon()[1];
+
+        assertEquals(GuessOutcome.WIN, controller.guess(session, secret));
+        // The game is over, so guessing again neither wins nor counts
+        assertEquals(GuessOutcome.INVALID, controller.guess(session, secret));
+        assertEquals(GuessOutcome.INVALID, controller.handleGuess(session, session.getResult()));
+        assertEquals(won + 1, GameMetrics.get().getGamesWon()[1]);
+    }
+}
@@ -0,0 +1,85 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for concurrent scoreboard updates through {@link GameModel#updateList(Player, int, int)}.
+ */
+class GameModelConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int GAMES_PER_THREAD = 2_000;
+    private static final int LEVELS = 3;
+
+    @Test
+    void concurrentUpdatesAreNeitherLostNorDoubled() throws Exception {
+        GameModel model = new GameModel();
+        // The scoreboard outlives the run, so every run plays with players of its own
+        String prefix = "stress-" + UUID.randomUUID() + "-";
+        String shared = prefix + "shared";
+        long[][] sharedExpected = new long[2][LEVELS];
+        long[][][] ownExpected = new long[THREADS][2][LEVELS];
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < GAMES_PER_THREAD; i++) {
+                    boolean toShared = i % 2 == 0;
+                    String name = toShared ? shared : prefix + thread;
+                    int difficulty = 1 + i % LEVELS;
+                    int points = (i * 31 + thread) % 101;
+                    model.updateList(model.playerExists(new Player(name)), difficulty, points);
+                }
+                return null;
+            }));
+            for (int i = 0; i < GAMES_PER_THREAD; i++) {
+                long[][] expected = i % 2 == 0 ? sharedExpected : ownExpected[t];
+                expected[0][i % LEVELS]++;
+                expected[1][i % LEVELS] += (i * 31 + t) % 101;
+            }
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertTotals(model, shared, sharedExpected);
+        for (int t = 0; t < THREADS; t++) {
+            assertTotals(model, prefix + t, ownExpected[t]);
+        }
+
+        // Write every queued result, then read the scoreboard back from disk
+        GameModel.shutdown();
+        GameModel.load();
+        assertTotals(model, shared, sharedExpected);
+        for (int t = 0; t < THREADS; t++) {
+            assertTotals(model, prefix + t, ownExpected[t]);
+        }
+    }
+
+    private static void assertTotals(GameModel model, String name, long[][] expected) {
+        Player player = model.playerExists(new Player(name));
+        assertTrue(GameModel.isRegistered(player), name);
+        long[] counts = {player.getEasyCount(), player.getMediumCount(), player.getHardCount()};
+        long[] points = {player.getEasyPoints(), player.getMediumPoints(), player.getHardPoints()};
+        for (int level = 0; level < LEVELS; level++) {
+            assertEquals(expected[0][level], counts[level], name + " games on level " + (level + 1));
+            assertEquals(expected[1][level], points[level], name + " points on level " + (level + 1));
+        }
+    }
+}
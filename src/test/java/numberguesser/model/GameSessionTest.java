@@ -0,0 +1,142 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link GameSession}.
+ */
+class GameSessionTest {
+    private static GameModel defaults;
+    private static GameModel fullRange;
+
+    @BeforeAll
+    static void setUp(@TempDir Path directory) throws Exception {
+        defaults = new GameModel();
+
+        // One level whose secret number can be anywhere in the long range
+        Path config = directory.resolve("difficulty.properties");
+        Files.writeString(config, String.join("\n",
+                "levels=1",
+                "level.1.min=" + Long.MIN_VALUE,
+                "level.1.max=" + Long.MAX_VALUE,
+                "level.1.tries=1",
+                "level.1.points=1"));
+        System.setProperty("numberguesser.difficulty.config", config.toString());
+        try {
+            fullRange = new GameModel();
+        } finally {
+            System.clearProperty("numberguesser.difficulty.config");
+        }
+    }
+
+    @Test
+    void parsesTheWholeLongRange() throws Exception {
+        GameSession session = fullRange.newSession(1);
+        session.setDifficulty(1);
+
+        assertParses(session, "0", 0);
+        assertParses(session, "+42", 42);
+        assertParses(session, "-42", -42);
+        assertParses(session, "007", 7);
+        assertParses(session, Long.toString(Long.MAX_VALUE), Long.MAX_VALUE);
+        assertParses(session, Long.toString(Long.MIN_VALUE), Long.MIN_VALUE);
+        assertParses(session, "-0" + Long.toString(Long.MIN_VALUE).substring(1), Long.MIN_VALUE);
+    }
+
+    @Test
+    void rejectsSignsWithoutDigits() throws Exception {
+        GameSession session = fullRange.newSession(1);
+        session.setDifficulty(1);
+
+        assertFalse(session.parseGuess("+"));
+        assertFalse(session.parseGuess("-"));
+        assertFalse(session.parseGuess("+-1"));
+        assertFalse(session.parseGuess("--1"));
+        assertFalse(session.parseGuess(""));
+        assertFalse(session.parseGuess(null));
+    }
+
+    @Test
+    void rejectsNumbersThatOverflow() throws Exception {
+        GameSession session = fullRange.newSession(1);
+        session.setDifficulty(1);
+
+        // One past each end of the range, and each end with one more digit
+        assertFalse(session.parseGuess("9223372036854775808"));
+        assertFalse(session.parseGuess("-9223372036854775809"));
+        assertFalse(session.parseGuess(Long.MAX_VALUE + "0"));
+        assertFalse(session.parseGuess(Long.MIN_VALUE + "0"));
+        assertFalse(session.parseGuess("99999999999999999999"));
+    }
+
+    @Test
+    void rejectsAnythingButDigits() throws Exception {
+        GameSession session = fullRange.newSession(1);
+        session.setDifficulty(1);
+
+        assertFalse(session.parseGuess("1.5"));
+        assertFalse(session.parseGuess("1e3"));
+        assertFalse(session.parseGuess(" 1"));
+        assertFalse(session.parseGuess("1 "));
+        assertFalse(session.parseGuess("0x10"));
+        assertFalse(session.parseGuess("١"));
+    }
+
+    @Test
+    void rejectsNumbersOutsideTheGameRange() throws Exception {
+        GameSession session = defaults.newSession(1);
+        session.setDifficulty(1);
+
+        assertParses(session, Long.toString(session.getMin()), session.getMin());
+        assertParses(session, Long.toString(session.getMax()), session.getMax());
+        assertFalse(session.parseGuess(Long.toString(session.getMin() - 1)));
+        assertFalse(session.parseGuess(Long.toString(session.getMax() + 1)));
+        assertFalse(session.parseGuess(Long.toString(Long.MIN_VALUE)));
+        assertFalse(session.parseGuess(Long.toString(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void aWonGameTakesNoMoreGuesses() throws Exception {
+        GameSession session = defaults.newSession(1);
+        session.setDifficulty(1);
+        int tries = session.getTriesLeft();
+
+        assertEquals(GuessOutcome.WIN, session.guess(Long.toString(session.getResult())));
+        assertFalse(session.isInProgress());
+        assertEquals(GuessOutcome.INVALID, session.guess(Long.toString(session.getResult())));
+        assertEquals(GuessOutcome.INVALID, session.play(session.getResult()));
+        assertEquals(tries, session.getTriesLeft());
+
+        session.setDifficulty(1);
+        assertTrue(session.isInProgress());
+    }
+
+    @Test
+    void aLostGameTakesNoMoreGuesses() throws Exception {
+        GameSession session = defaults.newSession(1);
+        session.setDifficulty(1);
+        long wrong = session.getResult() == session.getMin() ? session.getMax() : session.getMin();
+
+        GuessOutcome outcome;
+        do {
+            outcome = session.play(wrong);
+        } while (!outcome.isGameOver());
+        assertEquals(GuessOutcome.LOST, outcome);
+        assertFalse(session.isInProgress());
+        assertEquals(GuessOutcome.INVALID, session.play(session.getResult()));
+    }
+
+    private static void assertParses(GameSession session, String input, long expected) {
+        assertTrue(session.parseGuess(input), input);
+        assertEquals(expected, session.getLastGuess(), input);
+    }
+}
@@ -0,0 +1,166 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for {@link JournalScoreboardStore}.
+ */
+class JournalScoreboardStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsPreviousSnapshotWhenMagicIsCorrupt() throws IOException {
+        Path snapshot = directory.resolve("scoreboard.dat");
+        Path previous = directory.resolve("scoreboard.dat.prev");
+        try (JournalScoreboardStore store = newStore()) {
+            store.load();
+            store.save(List.of(player("alice", 1, 10), player("bob", 2, 20)));
+            // Every player is dirty again, so this is a full snapshot that moves the first one to .prev
+            store.save(List.of(player("alice", 3, 30), player("bob", 4, 40)));
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            file.seek(1);
+            file.write(file.readByte() ^ 0x01);
+        }
+        byte[] previousBytes = Files.readAllBytes(previous);
+
+        try (JournalScoreboardStore store = newStore()) {
+            Map<String, Player> players = store.load();
+            assertEquals(2, players.size());
+            assertScore(players.get("alice"), 1, 10);
+            assertScore(players.get("bob"), 2, 20);
+
+            // The corrupt snapshot must not be moved over the good one on the next save
+            store.save(players.values());
+        }
+        assertArrayEquals(previousBytes, Files.readAllBytes(previous));
+    }
+
+    @Test
+    void loadsPreviousSnapshotWhenLegacyStreamIsCorrupt() throws IOException {
+        Path snapshot = directory.resolve("scoreboard.dat");
+        try (JournalScoreboardStore store = newStore()) {
+            store.load();
+            store.save(List.of(player("carol", 5, 50)));
+            store.save(List.of(player("carol", 6, 60)));
+        }
+        // A Java serialization header followed by garbage
+        Files.write(snapshot, new byte[] {(byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x7F, 0x7F, 0x7F, 0x7F});
+
+        try (JournalScoreboardStore store = newStore()) {
+            Map<String, Player> players = store.load();
+            assertScore(players.get("carol"), 5, 50);
+        }
+    }
+
+    @Test
+    void replaysTheJournalOnTopOfTheSnapshot() throws IOException {
+        try (JournalScoreboardStore store = newStore()) {
+            store.load();
+            store.save(List.of(player("alice", 1, 10)));
+            store.record(new Player("alice"), 1, 25);
+            store.record(new Player("dave"), 2, 30);
+            store.flush(true);
+        }
+
+        try (JournalScoreboardStore store = newStore()) {
+            Map<String, Player> players = store.load();
+            assertScore(players.get("alice"), 2, 35);
+            assertEquals(1, players.get("dave").getMediumCount());
+            assertEquals(30, players.get("dave").getMediumPoints());
+        }
+    }
+
+    @Test
+    void truncatesATornRecordAtTheEndOfTheJournal() throws IOException {
+        Path journal = directory.resolve("scoreboard.journal");
+        try (JournalScoreboardStore store = newStore()) {
+            store.load();
+            store.save(List.of(player("alice", 1, 10)));
+            store.record(new Player("alice"), 1, 25);
+            store.flush(true);
+        }
+        long intact = Files.size(journal);
+        try (JournalScoreboardStore store = newStore()) {
+            store.load();
+            store.record(new Player("erin"), 1, 50);
+            store.flush(true);
+        }
+        // A crash in the middle of the second record leaves only part of it behind
+        try (RandomAccessFile file = new RandomAccessFile(journal.toFile(), "rw")) {
+            file.setLength(Files.size(journal) - 2);
+        }
+
+        try (JournalScoreboardStore store = newStore()) {
+            Map<String, Player> players = store.load();
+            assertScore(players.get("alice"), 2, 35);
+            assertNull(players.get("erin"));
+            assertEquals(intact, Files.size(journal));
+
+            // Appends after the truncation are read back whole
+            store.record(new Player("alice"), 1, 100);
+            store.flush(true);
+        }
+        try (JournalScoreboardStore store = newStore()) {
+            assertScore(store.load().get("alice"), 3, 135);
+        }
+    }
+
+    @Test
+    void ignoresAJournalFromAnOlderGeneration() throws IOException {
+        Path journal = directory.resolve("scoreboard.journal");
+        Path stale = directory.resolve("stale.journal");
+        try (JournalScoreboardStore store = newStore()) {
+            store.load();
+            store.save(List.of(player("alice", 1, 10)));
+            store.record(new Player("alice"), 1, 25);
+            store.flush(true);
+            Files.copy(journal, stale);
+
+            // The next full save takes the journal's record in and starts a new journal
+            store.save(List.of(player("alice", 2, 35)));
+        }
+        // As left by a crash between writing the new snapshot and resetting the journal
+        Files.copy(stale, journal, StandardCopyOption.REPLACE_EXISTING);
+
+        try (JournalScoreboardStore store = newStore()) {
+            Map<String, Player> players = store.load();
+            assertScore(players.get("alice"), 2, 35);
+            assertEquals(ScoreboardJournal.HEADER_SIZE, Files.size(journal));
+        }
+    }
+
+    private JournalScoreboardStore newStore() {
+        return new JournalScoreboardStore(directory.resolve("scoreboard.dat"), directory.resolve("scoreboard.journal"));
+    }
+
+    private static Player player(String name, int easyCount, int easyPoints) {
+        Player player = new Player(name);
+        player.setEasyCount(easyCount);
+        player.setEasyPoints(easyPoints);
+        return player;
+    }
+
+    private static void assertScore(Player player, int easyCount, int easyPoints) {
+        assertNotNull(player);
+        assertEquals(easyCount, player.getEasyCount());
+        assertEquals(easyPoints, player.getEasyPoints());
+    }
+}
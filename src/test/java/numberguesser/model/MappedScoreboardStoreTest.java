@@ -0,0 +1,181 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MappedScoreboardStore}.
+ */
+class MappedScoreboardStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void acceptsOnlyNamesThatFitInARecord() throws Exception {
+        String longest = "a".repeat(MappedPlayerTable.MAX_NAME_BYTES);
+        // 'é' is two bytes of UTF-8, so this name is one byte too long although it has fewer chars
+        String tooLong = "é".repeat(MappedPlayerTable.MAX_NAME_BYTES / 2) + "a";
+
+        try (MappedScoreboardStore store = new MappedScoreboardStore(directory.resolve("scoreboard.map"))) {
+            store.load();
+            assertTrue(store.acceptsName(longest));
+            assertFalse(store.acceptsName(tooLong));
+            assertFalse(store.acceptsName(longest + "a"));
+            assertFalse(store.acceptsName("x\uD800"));
+
+            Player player = new Player(longest);
+            player.recordGame(1, 10);
+            store.record(player, 1, 10);
+            assertEquals(10, store.load().get(longest).getEasyPoints());
+        }
+    }
+
+    @Test
+    void keepsPlayersInPlaceAcrossReopening() throws Exception {
+        Path path = directory.resolve("scoreboard.map");
+        int players = 3000;
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            Player first = registry.computeIfAbsent("player-0", Player::new);
+            // Enough players to grow the file several times under the first one's record
+            for (int i = 1; i < players; i++) {
+                registry.computeIfAbsent("player-" + i, Player::new).recordGame(1 + i % 3, i);
+            }
+            first.recordGame(2, 7);
+            store.record(first, 2, 7);
+            store.flush(true);
+        }
+
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            assertEquals(players, registry.size());
+            assertEquals(7, registry.get("player-0").getMediumPoints());
+            assertEquals(players - 1, registry.get("player-" + (players - 1)).getScore().totalPoints());
+            assertFalse(registry.get("player-1").isDirty());
+        }
+    }
+
+    @Test
+    void ranksEveryPlayerInTheFileAtLoad() throws Exception {
+        Path path = directory.resolve("scoreboard.map");
+        int players = 2000;
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            for (int i = 0; i < players; i++) {
+                registry.computeIfAbsent("player-" + i, Player::new).recordGame(3, i);
+            }
+        }
+
+        // None of them plays after the file is reopened, and all of them are ranked
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            OffHeapPlayerRegistry registry = (OffHeapPlayerRegistry) store.load();
+            Leaderboard leaderboard = new Leaderboard();
+            leaderboard.rebuild(registry.getTable());
+            ScoreboardSnapshot snapshot = leaderboard.snapshot();
+            assertEquals(players, snapshot.size());
+            assertEquals(new Leaderboard.Entry("player-" + (players - 1), players - 1, 1),
+                    snapshot.top(Leaderboard.Ranking.HARD, 1).get(0));
+            assertEquals(players, snapshot.rankOf(Leaderboard.Ranking.TOTAL, "player-0"));
+            assertEquals(11, snapshot.rankOf(Leaderboard.Ranking.TOTAL, "player-" + (players - 11)));
+        }
+    }
+
+    @Test
+    void suggestsEveryNameInTheFileAtLoad() throws Exception {
+        Path path = directory.resolve("scoreboard.map");
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            for (String name : new String[] {"bob", "alice", "alfred", "albert", "carol"}) {
+                registry.computeIfAbsent(name, Player::new).recordGame(1, 1);
+            }
+        }
+
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            OffHeapPlayerRegistry registry = (OffHeapPlayerRegistry) store.load();
+            Leaderboard leaderboard = new Leaderboard();
+            leaderboard.rebuild(registry.getTable());
+            assertEquals(List.of("albert", "alfred", "alice"), leaderboard.snapshot().completions("al", 10));
+            assertEquals(List.of("albert", "alfred"), leaderboard.snapshot().completions("al", 2));
+            assertEquals(List.of("bob"), leaderboard.snapshot().completions("b", 10));
+            assertEquals(List.of(), leaderboard.snapshot().completions("d", 10));
+        }
+    }
+
+    @Test
+    void migratesAFileOfTheFirstVersion() throws Exception {
+        Path path = directory.resolve("scoreboard.map");
+        int capacity = 16;
+        ByteBuffer file = ByteBuffer.allocate(64 + capacity * MappedPlayerTable.RECORD_SIZE);
+        file.putInt(0, 0x4E474D50).putInt(4, 1).putInt(8, capacity).putInt(12, 2);
+        writeFirstVersionSlot(file, 3, "alice", 4, 40);
+        writeFirstVersionSlot(file, 11, "bob", 1, 5);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(file);
+        }
+
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            assertEquals(2, registry.size());
+            assertEquals(4, registry.get("alice").getEasyCount());
+            assertEquals(40, registry.get("alice").getEasyPoints());
+            assertEquals(5, registry.get("bob").getEasyPoints());
+            registry.computeIfAbsent("carol", Player::new).recordGame(3, 9);
+        }
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            assertEquals(9, store.load().get("carol").getHardPoints());
+        }
+    }
+
+    @Test
+    void leavesOutADamagedRecord() throws Exception {
+        Path path = directory.resolve("scoreboard.map");
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            for (String name : new String[] {"alice", "bob", "carol"}) {
+                registry.computeIfAbsent(name, Player::new).recordGame(1, name.length());
+            }
+        }
+        // Bob's record is the second after the 128-byte header; flip a bit of his easy points
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer points = ByteBuffer.allocate(4);
+            long at = 128 + MappedPlayerTable.RECORD_SIZE + 8 + 12;
+            channel.read(points, at);
+            channel.write(points.putInt(0, points.getInt(0) ^ 1 << 20).rewind(), at);
+        }
+
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            Map<String, Player> registry = store.load();
+            assertEquals(2, registry.size());
+            assertNull(registry.get("bob"));
+            assertEquals(5, registry.get("alice").getEasyPoints());
+            assertEquals(5, registry.get("carol").getEasyPoints());
+        }
+        // The file was rewritten without the record, so it is not reported again
+        try (MappedScoreboardStore store = new MappedScoreboardStore(path)) {
+            assertEquals(2, store.size());
+        }
+    }
+
+    private static void writeFirstVersionSlot(ByteBuffer file, int slot, String name, int easyCount, int easyPoints) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        int base = 64 + slot * MappedPlayerTable.RECORD_SIZE;
+        file.putInt(base, name.hashCode() | 1);
+        file.putShort(base + 4, (short) encoded.length);
+        file.putInt(base + 8, easyCount);
+        file.putInt(base + 20, easyPoints);
+        file.put(base + 32, encoded);
+    }
+}
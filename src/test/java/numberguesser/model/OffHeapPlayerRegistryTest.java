@@ -0,0 +1,99 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link OffHeapPlayerRegistry}.
+ */
+class OffHeapPlayerRegistryTest {
+
+    @Test
+    void serializesAViewAsAHeapPlayer() throws Exception {
+        OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+        Player view = registry.computeIfAbsent("Alice", Player::new);
+        view.recordGame(1, 10);
+        view.recordGame(3, 50);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(view);
+        }
+        Player copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Player) in.readObject();
+        }
+
+        assertSame(Player.class, copy.getClass());
+        assertEquals(view.getScore(), copy.getScore());
+    }
+
+    @Test
+    void findsNamesOfEveryEncodedLength() {
+        // One to four bytes per code point, and a lone surrogate, which is stored as '?'
+        List<String> names = List.of("a", "é", "€uro", "\uD83D\uDE00", "x\uD800y", "Aa", "BB");
+        OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+        for (int i = 0; i < 5000; i++) {
+            registry.computeIfAbsent("player-" + i, Player::new);
+        }
+        for (String name : names) {
+            registry.computeIfAbsent(name, Player::new).recordGame(1, name.length());
+        }
+
+        for (String name : names) {
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            assertEquals(NameBytes.hash(name), NameBytes.hash(ByteBuffer.wrap(encoded), 0, encoded.length), name);
+            Player player = registry.get(name);
+            assertNotNull(player, name);
+            assertEquals(name.length(), player.getEasyPoints(), name);
+        }
+        // A name is stored as its UTF-8 bytes, in which the lone surrogate already is a '?'
+        assertEquals(registry.get("x\uD800y").getScore().easyPoints(), registry.get("x?y").getEasyPoints());
+        assertNull(registry.get("éa"));
+        assertNull(registry.get("€"));
+        assertEquals(5000 + names.size(), registry.size());
+    }
+
+    @Test
+    void replacesOnlyTheExpectedCounters() {
+        OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+        Player view = registry.computeIfAbsent("Alice", Player::new);
+        Player before = new Player("Alice", view.getScore());
+        view.recordGame(2, 20);
+        Player after = new Player("Alice", view.getScore());
+        Player replacement = new Player("Alice");
+        replacement.recordGame(3, 30);
+
+        assertFalse(registry.replace("Alice", before, replacement));
+        assertEquals(20, view.getMediumPoints());
+        assertTrue(registry.replace("Alice", after, replacement));
+        assertEquals(replacement.getScore(), view.getScore());
+        assertFalse(registry.replace("Bob", after, replacement));
+    }
+
+    @Test
+    void refusesToRemovePlayers() {
+        OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+        Player view = registry.computeIfAbsent("Alice", Player::new);
+
+        assertThrows(UnsupportedOperationException.class, () -> registry.remove("Alice"));
+        assertThrows(UnsupportedOperationException.class, () -> registry.remove("Alice", view));
+        assertFalse(registry.remove("Bob", view));
+        assertEquals(1, registry.size());
+    }
+}
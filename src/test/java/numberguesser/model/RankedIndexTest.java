@@ -0,0 +1,95 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link RankedIndex}.
+ */
+class RankedIndexTest {
+    private static final Comparator<PlayerScore> BY_TOTAL = Comparator.comparingLong(PlayerScore::totalPoints)
+            .reversed().thenComparing(PlayerScore::name);
+    private static final Comparator<PlayerScore> BY_NAME = Comparator.comparing(PlayerScore::name);
+    private static final int PLAYERS = 5_000;
+    // "Aa" and "BB" share a hashCode, so every string of 16 such pairs does
+    private static final int PAIRS = 16;
+
+    @Test
+    void ranksMatchASortedList() {
+        // Few distinct scores, so that many entries tie and are ordered by name
+        SplittableRandom random = new SplittableRandom(9);
+        List<PlayerScore> scores = new ArrayList<>(PLAYERS);
+        for (int i = 0; i < PLAYERS; i++) {
+            scores.add(new PlayerScore("player" + i, 1, 0, 0, random.nextInt(100), 0, 0));
+        }
+        List<PlayerScore> sorted = new ArrayList<>(scores);
+        sorted.sort(BY_TOTAL);
+
+        RankedIndex inserted = new RankedIndex(BY_TOTAL);
+        for (PlayerScore score : scores) {
+            inserted = inserted.with(score);
+        }
+        RankedIndex rebuilt = new RankedIndex(BY_TOTAL).rebuild(scores.toArray(new PlayerScore[0]));
+        assertRanks(sorted, inserted, 1);
+        assertRanks(sorted, rebuilt, 1);
+
+        RankedIndex halved = inserted;
+        for (int i = 0; i < PLAYERS; i += 2) {
+            halved = halved.without(scores.get(i));
+        }
+        sorted.removeIf(score -> Integer.parseInt(score.name().substring("player".length())) % 2 == 0);
+        assertRanks(sorted, halved, 1);
+        assertEquals(-1, halved.rankOf(scores.get(0)));
+        // The index it was derived from is unchanged
+        assertEquals(PLAYERS, inserted.size());
+    }
+
+    @Test
+    void namesWithEqualHashCodesStayBalanced() {
+        List<PlayerScore> scores = collidingScores();
+        assertEquals(1, scores.stream().map(score -> score.name().hashCode()).distinct().count());
+
+        RankedIndex inserted = new RankedIndex(BY_NAME);
+        for (PlayerScore score : scores) {
+            inserted = inserted.with(score);
+        }
+        RankedIndex rebuilt = new RankedIndex(BY_NAME).rebuild(scores.toArray(new PlayerScore[0]));
+
+        List<PlayerScore> sorted = new ArrayList<>(scores);
+        sorted.sort(BY_NAME);
+        assertRanks(sorted, inserted, 97);
+        assertRanks(sorted, rebuilt, 97);
+
+        RankedIndex emptied = inserted;
+        for (PlayerScore score : scores) {
+            emptied = emptied.without(score);
+        }
+        assertEquals(0, emptied.size());
+    }
+
+    private static void assertRanks(List<PlayerScore> sorted, RankedIndex index, int step) {
+        assertEquals(sorted.size(), index.size());
+        for (int rank = 0; rank < sorted.size(); rank += step) {
+            assertEquals(sorted.get(rank), index.get(rank));
+            assertEquals(rank, index.rankOf(sorted.get(rank)));
+        }
+    }
+
+    private static List<PlayerScore> collidingScores() {
+        List<PlayerScore> scores = new ArrayList<>(1 << PAIRS);
+        for (int bits = 0; bits < 1 << PAIRS; bits++) {
+            StringBuilder name = new StringBuilder(2 * PAIRS);
+            for (int pair = 0; pair < PAIRS; pair++) {
+                name.append((bits >>> pair & 1) == 0 ? "Aa" : "BB");
+            }
+            scores.add(PlayerScore.empty(name.toString()));
+        }
+        return scores;
+    }
+}
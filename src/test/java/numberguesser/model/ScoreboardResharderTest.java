@@ -0,0 +1,101 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ScoreboardResharder} and the layout check of {@link ShardedScoreboardStore}.
+ */
+class ScoreboardResharderTest {
+    private static final int PLAYERS = 500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsEveryPlayerAndRemovesTheOldLayout() throws IOException {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = new Player("player-" + i);
+            player.recordGame(1 + i % 3, i);
+            players.add(player);
+        }
+        try (ScoreboardStore store = ScoreboardStore.openJournal(directory, 1)) {
+            store.load();
+            store.save(players);
+            // Some results only in the journal, which the reshard must apply too
+            store.record(players.get(0), 1, 1000);
+            store.record(new Player("journal-only"), 2, 7);
+            store.flush(true);
+        }
+
+        assertEquals(PLAYERS + 1, ScoreboardResharder.reshard(directory, 1, 4));
+        assertLayout(1, 4);
+        assertEquals(PLAYERS + 1, ScoreboardResharder.reshard(directory, 4, 3));
+        assertLayout(4, 3);
+
+        try (ScoreboardStore store = ScoreboardStore.openJournal(directory, 3)) {
+            Map<String, Player> loaded = store.load();
+            assertEquals(PLAYERS + 1, loaded.size());
+            for (int i = 1; i < PLAYERS; i++) {
+                Player player = loaded.get("player-" + i);
+                assertNotNull(player, "player-" + i);
+                assertEquals(players.get(i).getScore(), player.getScore());
+            }
+            assertEquals(1000, loaded.get("player-0").getEasyPoints());
+            assertEquals(2, loaded.get("player-0").getEasyCount());
+            assertEquals(7, loaded.get("journal-only").getMediumPoints());
+        }
+    }
+
+    @Test
+    void refusesToReshardOntoALayoutThatHoldsPlayers() throws IOException {
+        try (ScoreboardStore store = ScoreboardStore.openJournal(directory, 2)) {
+            store.load();
+            store.save(List.of(new Player("alice")));
+        }
+        try (ScoreboardStore store = ScoreboardStore.openJournal(directory, 3)) {
+            store.load();
+            store.save(List.of(new Player("bob")));
+        }
+
+        assertThrows(IOException.class, () -> ScoreboardResharder.reshard(directory, 2, 3));
+        assertTrue(ShardedScoreboardStore.holdsPlayers(directory, 2));
+    }
+
+    @Test
+    void checkLayoutRefusesAnotherShardCount() throws IOException {
+        ShardedScoreboardStore.checkLayout(directory, 4);
+        try (ScoreboardStore store = ScoreboardStore.openJournal(directory, 4)) {
+            store.load();
+            store.save(List.of(new Player("alice")));
+        }
+
+        ShardedScoreboardStore.checkLayout(directory, 4);
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ShardedScoreboardStore.checkLayout(directory, 2));
+        assertTrue(e.getMessage().contains("4 shards, not 2"), e.getMessage());
+        assertThrows(IllegalStateException.class, () -> ShardedScoreboardStore.checkLayout(directory, 1));
+    }
+
+    private void assertLayout(int removed, int written) throws IOException {
+        for (Path file : ShardedScoreboardStore.files(directory, removed)) {
+            assertFalse(Files.exists(file), file + " is left behind");
+        }
+        assertFalse(ShardedScoreboardStore.holdsPlayers(directory, removed));
+        assertTrue(ShardedScoreboardStore.holdsPlayers(directory, written));
+    }
+}
@@ -0,0 +1,175 @@
+package numberguesser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for {@link TableSnapshot}, against a {@link RankedSnapshot} of the same scores.
+ */
+class TableSnapshotTest {
+    private static final Leaderboard.Ranking[] ORDERS = {null, Leaderboard.Ranking.TOTAL, Leaderboard.Ranking.EASY,
+            Leaderboard.Ranking.MEDIUM, Leaderboard.Ranking.HARD};
+    // Names whose UTF-8 byte order is not their String order: U+E000 and up against surrogate pairs
+    private static final String[] STEMS = {"a", "b", "é", "", "�", "😀", "𐀀"};
+
+    @Test
+    void readsLikeARankedSnapshot() {
+        SplittableRandom random = new SplittableRandom(23);
+        OffHeapPlayerTable table = new OffHeapPlayerTable();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String name = randomName(random, i);
+            if (table.add(name, randomScore(random, name), false) >= 0) {
+                names.add(name);
+            }
+        }
+        TableSnapshot snapshot = new TableSnapshot(1, TableRankings.build(table));
+        RankedSnapshot expected = RankedSnapshot.of(1, scoresOf(table, names));
+        assertSame(expected, snapshot, names, random);
+
+        for (int round = 0; round < 4; round++) {
+            // Changes to old and new players, then a merge that more changes overtake before it is published
+            for (int i = 0; i < 150; i++) {
+                PlayerScore score = change(random, table, names);
+                snapshot = snapshot.with(score);
+                expected = expected.with(score);
+            }
+            assertSame(expected, snapshot, names, random);
+
+            TableSnapshot merging = snapshot;
+            TableRankings merged = merging.merge();
+            for (int i = 0; i < 60; i++) {
+                PlayerScore score = change(random, table, names);
+                snapshot = snapshot.with(score);
+                expected = expected.with(score);
+            }
+            snapshot = snapshot.rebase(merging, merged);
+            assertSame(expected, snapshot, names, random);
+        }
+        assertNull(snapshot.get("nobody"));
+        assertEquals(-1, snapshot.positionOf(null, "nobody"));
+    }
+
+    @Test
+    void leavesOutPlayersAddedButNotRanked() {
+        OffHeapPlayerTable table = new OffHeapPlayerTable();
+        table.add("alice", new PlayerScore("alice", 1, 0, 0, 10, 0, 0), false);
+        TableSnapshot snapshot = new TableSnapshot(1, TableRankings.build(table));
+        // Bob is in the table before Carol, but only Carol's game reaches the leaderboard before the merge
+        table.add("bob", PlayerScore.empty("bob"), true);
+        table.add("carol", PlayerScore.empty("carol"), true);
+        snapshot = snapshot.with(new PlayerScore("carol", 0, 1, 0, 0, 20, 0));
+        snapshot = snapshot.rebase(snapshot, snapshot.merge());
+
+        assertEquals(2, snapshot.size());
+        assertNull(snapshot.get("bob"));
+        assertEquals(List.of("carol", "alice"), names(snapshot.scores(Leaderboard.Ranking.TOTAL, 0, 10)));
+        snapshot = snapshot.with(new PlayerScore("bob", 0, 0, 1, 0, 0, 30));
+        assertEquals(List.of("bob", "carol", "alice"), names(snapshot.scores(Leaderboard.Ranking.TOTAL, 0, 10)));
+        assertEquals(List.of("alice", "bob", "carol"), snapshot.completions("", 10));
+    }
+
+    @Test
+    void leaderboardMergesTheChangesInTheBackground() throws Exception {
+        OffHeapPlayerRegistry registry = new OffHeapPlayerRegistry();
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.rebuild(registry.getTable());
+        int players = 5000;
+        for (int i = 0; i < players; i++) {
+            Player player = registry.computeIfAbsent("player-" + i, Player::new);
+            player.recordGame(1 + i % 3, i);
+            leaderboard.update(player);
+        }
+
+        // The merge is due once 4096 players changed, and leaves the rest on the heap when it is published
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (((TableSnapshot) leaderboard.snapshot()).isMergeDue() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ScoreboardSnapshot snapshot = leaderboard.snapshot();
+        assertFalse(((TableSnapshot) snapshot).isMergeDue());
+        assertEquals(players, snapshot.size());
+        List<Leaderboard.Entry> top = snapshot.top(Leaderboard.Ranking.TOTAL, 2);
+        assertEquals(new Leaderboard.Entry("player-" + (players - 1), players - 1, 1), top.get(0));
+        assertEquals(new Leaderboard.Entry("player-" + (players - 2), players - 2, 2), top.get(1));
+        assertEquals(players, snapshot.rankOf(Leaderboard.Ranking.TOTAL, "player-0"));
+    }
+
+    private static void assertSame(RankedSnapshot expected, TableSnapshot actual, List<String> names,
+                                   SplittableRandom random) {
+        assertEquals(expected.size(), actual.size());
+        for (String name : names) {
+            assertEquals(expected.get(name), actual.get(name), name);
+        }
+        for (Leaderboard.Ranking ranking : ORDERS) {
+            assertEquals(expected.scores(ranking, 0, expected.size()), actual.scores(ranking, 0, actual.size()),
+                    String.valueOf(ranking));
+            for (int i = 0; i < 50; i++) {
+                int from = random.nextInt(expected.size() + 10);
+                int count = random.nextInt(30);
+                assertEquals(expected.scores(ranking, from, count), actual.scores(ranking, from, count),
+                        ranking + " " + from + " " + count);
+                String name = names.get(random.nextInt(names.size()));
+                assertEquals(expected.positionOf(ranking, name), actual.positionOf(ranking, name), name);
+            }
+        }
+        for (String prefix : new String[] {"", "a", "b", "é", "", "\uD83D", "😀", "z"}) {
+            assertEquals(expected.completions(prefix, 20), actual.completions(prefix, 20), prefix);
+        }
+        List<PlayerScore> iterated = new ArrayList<>();
+        actual.forEach(iterated::add);
+        assertEquals(expected.scores(null, 0, expected.size()), iterated);
+    }
+
+    /**
+     * Records a game on a random player, or on a new one a third of the time, in the table as the game model
+     * would, and returns the player's new score.
+     */
+    private static PlayerScore change(SplittableRandom random, OffHeapPlayerTable table, List<String> names) {
+        String name;
+        if (random.nextInt(3) == 0) {
+            name = randomName(random, names.size() + random.nextInt(1_000_000));
+            if (table.add(name, PlayerScore.empty(name), true) >= 0) {
+                names.add(name);
+            }
+        } else {
+            name = names.get(random.nextInt(names.size()));
+        }
+        int id = table.find(name);
+        table.recordGame(id, 1 + random.nextInt(3), random.nextInt(4));
+        return table.score(id, name);
+    }
+
+    private static String randomName(SplittableRandom random, int i) {
+        StringBuilder name = new StringBuilder();
+        for (int k = random.nextInt(1, 4); k > 0; k--) {
+            name.append(STEMS[random.nextInt(STEMS.length)]);
+        }
+        return name.append(i % 7).toString();
+    }
+
+    private static PlayerScore randomScore(SplittableRandom random, String name) {
+        // Few distinct points, so that many players tie and are ordered by name
+        return new PlayerScore(name, random.nextInt(3), random.nextInt(3), random.nextInt(3),
+                random.nextInt(5), random.nextInt(5), random.nextInt(5));
+    }
+
+    private static PlayerScore[] scoresOf(OffHeapPlayerTable table, List<String> names) {
+        PlayerScore[] scores = new PlayerScore[names.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = table.score(table.find(names.get(i)), names.get(i));
+        }
+        return scores;
+    }
+
+    private static List<String> names(List<PlayerScore> scores) {
+        return scores.stream().map(PlayerScore::name).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package numberguesser.server;
+
+import numberguesser.controller.GameController;
+import numberguesser.model.GameModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link GameServer}, over a loopback connection.
+ */
+class GameServerTest {
+    private static GameServer server;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        server = new GameServer(new GameController(new GameModel()),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void playsAFullGame() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("READY", client.read());
+            assertTrue(client.send("name " + UUID.randomUUID()).startsWith("OK "));
+
+            String[] level = client.send("DIFFICULTY 1").split(" ");
+            assertEquals("OK", level[0]);
+            long min = Long.parseLong(level[1]);
+            long max = Long.parseLong(level[2]);
+            int tries = Integer.parseInt(level[3]);
+
+            // Binary search until the game is over, checking every reply on the way
+            String[] reply;
+            do {
+                long guess = min + (max - min) / 2;
+                reply = client.send("GUESS " + guess).split(" ");
+                switch (reply[0]) {
+                    case "HIGHER" -> min = guess + 1;
+                    case "LOWER" -> max = guess - 1;
+                    case "WIN", "LOST" -> { }
+                    default -> throw new AssertionError(String.join(" ", reply));
+                }
+                if (reply[0].equals("HIGHER") || reply[0].equals("LOWER")) {
+                    assertEquals(--tries, Integer.parseInt(reply[1]));
+                }
+            } while (!reply[0].equals("WIN") && !reply[0].equals("LOST"));
+            Long.parseLong(reply[1]);
+
+            assertEquals("ERR Send DIFFICULTY first", client.send("GUESS 1"));
+            assertTrue(client.send("SCORE").startsWith("OK "));
+            assertEquals("BYE", client.send("QUIT"));
+            assertNull(client.read());
+        }
+    }
+
+    @Test
+    void skipsAnOverlongLine() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("READY", client.read());
+            assertEquals("ERR Line too long", client.send("NAME " + "a".repeat(100_000)));
+            assertEquals("ERR Send NAME first", client.send("SCORE"));
+            assertEquals("BYE", client.send("QUIT"));
+        }
+    }
+
+    /**
+     * A connection to the server that sends one line and reads one reply at a time.
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            socket.setSoTimeout(10_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        String send(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+            return read();
+        }
+
+        String read() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package numberguesser.view;
+
+import numberguesser.model.GameModel;
+import numberguesser.model.Leaderboard;
+import numberguesser.model.Player;
+import numberguesser.model.ScoreboardSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link LeaderboardRows}.
+ */
+class LeaderboardRowsTest {
+
+    @Test
+    void showsTheRankOfTheRankingInEitherDirection() throws Exception {
+        GameModel model = new GameModel();
+        String prefix = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            Player player = model.playerExists(new Player(prefix + i));
+            model.updateList(player, 1, 1000 + i);
+        }
+        ScoreboardSnapshot snapshot = GameModel.getScoreboard();
+        LeaderboardRows rows = new LeaderboardRows(snapshot);
+
+        for (boolean reversed : new boolean[] {false, true}) {
+            rows.reorder(Leaderboard.Ranking.TOTAL, reversed);
+            for (int i = 0; i < 3; i++) {
+                String name = prefix + i;
+                int row = rows.rowOf(name);
+                assertEquals(name, rows.get(row).name());
+                assertEquals(snapshot.rankOf(Leaderboard.Ranking.TOTAL, name), rows.rankOf(row));
+            }
+            assertEquals(1, rows.rankOf(reversed ? rows.size() - 1 : 0));
+        }
+    }
+}